@@ -0,0 +1,69 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Heap allocation on the search path: a make/unmake tree walk and a
+// fixed-depth search from the initial position with a cold table. Run under
+// the gc profiler; gc.alloc.rate.norm is bytes per call, so bytes per node is
+// that divided by the ratio of the "nodes" rate to the score.
+// Run with: gradle :bench:jmh -Pjmh='AllocationBenchmark -prof gc'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationBenchmark {
+    @Param("8")
+    public int perftDepth;
+
+    @Param("10")
+    public int searchDepth;
+
+    private final OthelloModel model = new OthelloModel();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @State(Scope.Thread)
+    public static class Search {
+        final SearchEngine engine = new SearchEngine();
+
+        @Setup(Level.Invocation)
+        public void clearTable() {
+            engine.getTable().clear();
+        }
+    }
+
+    @Benchmark
+    public long makeUnmake(Nodes counter) {
+        long nodes = makeUnmake(model, perftDepth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    @Benchmark
+    public int search(Search search, Nodes counter) {
+        SearchEngine engine = search.engine;
+        int move = engine.searchToDepth(model.getBlackDiscs(), model.getWhiteDiscs(), searchDepth);
+        counter.nodes += engine.getNodes();
+        return move;
+    }
+
+    private static long makeUnmake(OthelloModel model, int depth) {
+        if (depth == 0 || model.isGameOver()) return 1;
+        long nodes = 0;
+        for (long moves = model.getValidMoves(); moves != 0; moves &= moves - 1) {
+            int move = Long.numberOfTrailingZeros(moves);
+            long flipped = model.makeMove(move);
+            nodes += makeUnmake(model, depth - 1);
+            model.unmakeMove(move, flipped);
+        }
+        return nodes;
+    }
+}
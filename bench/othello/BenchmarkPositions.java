@@ -0,0 +1,64 @@
+package othello;
+
+// Fixed benchmark suite, written as 64 squares row by row (X black, O white,
+// - empty) followed by the side to move. Positions came from seeded random
+// play and never change, so results stay comparable across revisions.
+public final class BenchmarkPositions {
+    // Positions in each phase, for @OperationsPerInvocation
+    public static final int PER_PHASE = 3;
+
+    public static final String[] OPENING = {
+            "------------------O-O-----XOXX-----XO--------------------------- X",
+            "-------------------XO------OX-----OXXX----O--X----O---X--------- X",
+            "--X--------XO-------O--X---OOXX----OXXX---O--X-------X---------- X",
+    };
+    public static final String[] MIDGAME = {
+            "-X-X-----OXXX-----OXOO----XXO-----OOOOO--OOO-O---OOXXX---O------ X",
+            "-XXXXXX---XXXO---XXXOXO-OOOOOOX---OXOX---OOXOO------X-O--------- X",
+            "-XXX------OXXXX--OOXX---O-XOOXO--XOOOOX--OXXOXXXO--XXOO----XX-OX X",
+    };
+    public static final String[] ENDGAME = {
+            "OOOOOOX-XXXOXOXOXXOXXXOOXOXXXXOO-OOOXXOO-OOOXX--XOXXX-----X-X--- X",
+            "OXOOOOO-OXXXOOOXOXOOOOOOOXOXXOO-OOOXXO-OOOOXXO--OOX-XOO--OXXXO-- X",
+            "----O-OXOXX-OOXXXOXOOXOOXXOXXXOOXXOOXXOO-XOXOXOOOXXOOOOOOXXXXXX- X",
+    };
+
+    private BenchmarkPositions() {
+    }
+
+    public static OthelloModel model(String position) {
+        return OthelloModel.fromString(position);
+    }
+
+    // The suite for a @Param phase name: opening, midgame or endgame
+    public static String[] phase(String name) {
+        switch (name) {
+            case "opening":
+                return OPENING;
+            case "midgame":
+                return MIDGAME;
+            case "endgame":
+                return ENDGAME;
+            default:
+                throw new IllegalArgumentException("Unknown phase: " + name);
+        }
+    }
+
+    public static OthelloModel[] models(String[] positions) {
+        OthelloModel[] models = new OthelloModel[positions.length];
+        for (int i = 0; i < positions.length; i++) models[i] = model(positions[i]);
+        return models;
+    }
+
+    // {own[], opp[]} for the side to move in each position
+    public static long[][] sides(OthelloModel[] models) {
+        long[] own = new long[models.length];
+        long[] opp = new long[models.length];
+        for (int i = 0; i < models.length; i++) {
+            boolean blackToMove = models[i].getCurrentPlayer() == OthelloModel.BLACK;
+            own[i] = blackToMove ? models[i].getBlackDiscs() : models[i].getWhiteDiscs();
+            opp[i] = blackToMove ? models[i].getWhiteDiscs() : models[i].getBlackDiscs();
+        }
+        return new long[][]{own, opp};
+    }
+}
@@ -0,0 +1,103 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Replays the same random games through the bitboard OthelloModel and the
+// array-scanning ReferenceOthelloModel and compares their throughput. Scores
+// are per replay of all the games; "moves" gives the per-move rate.
+// Run with: gradle :bench:jmh -Pjmh='BitboardBenchmark [-p games=2000]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BitboardBenchmark {
+    @Param("2000")
+    public int games;
+
+    private int[][] recorded;
+    private long moves;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+    }
+
+    @Setup
+    public void setUp() {
+        recorded = recordGames(games, new Random(1));
+        for (int[] game : recorded) moves += game.length;
+    }
+
+    @Benchmark
+    public long reference(Moves counter) {
+        counter.moves += moves;
+        return replayReference(recorded);
+    }
+
+    @Benchmark
+    public long bitboard(Moves counter) {
+        counter.moves += moves;
+        return replayBitboard(recorded);
+    }
+
+    private static int[][] recordGames(int games, Random random) {
+        int[][] recorded = new int[games][];
+        for (int g = 0; g < games; g++) {
+            OthelloModel model = new OthelloModel();
+            int[] moves = new int[64];
+            int count = 0;
+            while (!model.isGameOver()) {
+                long valid = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(valid));
+                for (int i = 0; i < pick; i++) valid &= valid - 1;
+                int sq = Long.numberOfTrailingZeros(valid);
+                model.makeMove(sq / 8, sq % 8);
+                moves[count++] = sq;
+            }
+            recorded[g] = java.util.Arrays.copyOf(moves, count);
+        }
+        return recorded;
+    }
+
+    // Each ply does what a GUI turn or a greedy AI does: scan all squares for
+    // valid moves, count flips for them, then play the move
+    private static long replayReference(int[][] recorded) {
+        long sink = 0;
+        for (int[] game : recorded) {
+            ReferenceOthelloModel model = new ReferenceOthelloModel();
+            for (int sq : game) {
+                for (int row = 0; row < 8; row++) {
+                    for (int col = 0; col < 8; col++) {
+                        if (model.isValidMove(row, col)) sink += model.countFlips(row, col);
+                    }
+                }
+                model.makeMove(sq / 8, sq % 8);
+            }
+            sink += model.getScore()[0];
+        }
+        return sink;
+    }
+
+    private static long replayBitboard(int[][] recorded) {
+        long sink = 0;
+        for (int[] game : recorded) {
+            OthelloModel model = new OthelloModel();
+            for (int sq : game) {
+                for (int row = 0; row < 8; row++) {
+                    for (int col = 0; col < 8; col++) {
+                        if (model.isValidMove(row, col)) sink += model.countFlips(row, col);
+                    }
+                }
+                model.makeMove(sq / 8, sq % 8);
+            }
+            sink += model.getScore()[0];
+        }
+        return sink;
+    }
+}
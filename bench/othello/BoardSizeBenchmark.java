@@ -0,0 +1,132 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Move-generation cost per board size. Sample positions come from random
+// games on each size; every one is timed with GridBoard's padded array (all
+// sizes, including 8x8) and the 8x8 sample also with the bitboard generator
+// for comparison. A last benchmark plays whole random games through
+// OthelloModel. "positions" and "moves" give per-position and per-move rates.
+// Run with: gradle :bench:jmh -Pjmh='BoardSizeBenchmark [-p size=8,10]'
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSizeBenchmark {
+    private static final int GAMES = 20;
+
+    // Every position of GAMES random games on one size
+    @State(Scope.Thread)
+    public static class Sample {
+        @Param({"8", "10", "12", "16"})
+        public int size;
+
+        GridBoard[] grids;
+        int[] player;
+        int[] moves;
+        final Random playout = new Random(1);
+
+        @Setup
+        public void setUp() {
+            List<int[][]> boards = new ArrayList<>();
+            List<Integer> players = new ArrayList<>();
+            record(size, boards, players);
+            grids = new GridBoard[boards.size()];
+            player = new int[boards.size()];
+            for (int i = 0; i < grids.length; i++) {
+                grids[i] = new GridBoard(size);
+                grids[i].setCells(boards.get(i));
+                player[i] = players.get(i);
+            }
+            moves = new int[size * size];
+        }
+    }
+
+    // The 8x8 sample as bitboards
+    @State(Scope.Thread)
+    public static class BitboardSample {
+        long[] own;
+        long[] opp;
+
+        @Setup
+        public void setUp() {
+            List<int[][]> boards = new ArrayList<>();
+            List<Integer> players = new ArrayList<>();
+            record(OthelloModel.BOARD_SIZE, boards, players);
+            own = new long[boards.size()];
+            opp = new long[boards.size()];
+            for (int i = 0; i < own.length; i++) {
+                OthelloModel model = new OthelloModel();
+                model.setBoard(boards.get(i), players.get(i));
+                boolean black = players.get(i) == OthelloModel.BLACK;
+                own[i] = black ? model.getBlackDiscs() : model.getWhiteDiscs();
+                opp[i] = black ? model.getWhiteDiscs() : model.getBlackDiscs();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long positions;
+        public long moves;
+    }
+
+    @Benchmark
+    public long bitboardLegalMoves(BitboardSample sample, Counters counters) {
+        long found = 0;
+        for (int i = 0; i < sample.own.length; i++) found += Long.bitCount(Bitboard.legalMoves(sample.own[i], sample.opp[i]));
+        counters.positions += sample.own.length;
+        return found;
+    }
+
+    @Benchmark
+    public long gridLegalMoves(Sample sample, Counters counters) {
+        long found = 0;
+        for (int i = 0; i < sample.grids.length; i++) found += sample.grids[i].legalMoves(sample.player[i], sample.moves);
+        counters.positions += sample.grids.length;
+        return found;
+    }
+
+    @Benchmark
+    public int randomGame(Sample sample, Counters counters) {
+        OthelloModel model = new OthelloModel(sample.size);
+        while (!model.isGameOver()) {
+            playRandom(model, sample.playout);
+            counters.moves++;
+        }
+        return model.getBlackCount();
+    }
+
+    private static void record(int size, List<int[][]> boards, List<Integer> players) {
+        Random random = new Random(size);
+        for (int game = 0; game < GAMES; game++) {
+            OthelloModel model = new OthelloModel(size);
+            while (!model.isGameOver()) {
+                boards.add(model.getBoard());
+                players.add(model.getCurrentPlayer());
+                playRandom(model, random);
+            }
+        }
+    }
+
+    private static void playRandom(OthelloModel model, Random random) {
+        int size = model.getSize();
+        int pick = random.nextInt(size * size);
+        // First valid square at or after a random start, wrapping around
+        for (int i = 0; i < size * size; i++) {
+            int sq = (pick + i) % (size * size);
+            if (model.isValidMove(sq / size, sq % size)) {
+                model.makeMove(sq / size, sq % size);
+                return;
+            }
+        }
+        throw new IllegalStateException("No valid move in " + model);
+    }
+}
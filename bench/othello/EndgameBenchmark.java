@@ -0,0 +1,67 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Solve times for the EndgameSolver on fixed endgame positions with 12 to 20
+// empties, both win/loss/draw and exact disc differential, each from a cold
+// table. "nodes" gives nodes per second.
+// Positions came from seeded engine self-play; any position in the
+// OthelloModel.fromString format can be passed with -p position=... instead,
+// including the 22 and 24 empties ones below.
+// Run with: gradle :bench:jmh -Pjmh=EndgameBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndgameBenchmark {
+    // 22 empties: "--O--------O----OOXXOXXXXXOXXOX-XXXOXXOOOOXXOXX---OXXO-X--OOOOO- X"
+    // 24 empties: "--XOOX----XOOX--XXXXXXXO-XOOOXXO-OOOXOOOOOOOOOOO--X----O-------- X"
+    @Param({
+            "-XXXXX-OX-XOOXOXXOXOOOXXXOOXOXOXXOXOOXXXXXOXOXXXX-OOXX----O--X-- X", // 12 empties
+            "--XXXXX---XOOOO--OOOXO-X--OXOXXXX-XOXXXXOXOOXXXX-OXOXXXXO-OOOOO- X", // 14 empties
+            "-OOOOO----OXXO-O-OOXXOOO--OXOOXO-XXOOOXO-OXOOOOO--OOXX-O-XXXXXX- X", // 16 empties
+            "-XXXXXX----OOX-X-XXOXOXXOOOOOOOX-OOXOXOX-OOXXXXX--OXXX-X--X--X-- X", // 18 empties
+            "OOOOOOX-XXXOOOXXOOOOOOX-OOOXXOXOOOXXX-O-OXXXXX-------X-------X-- X", // 20 empties
+    })
+    public String position;
+
+    private final EndgameSolver solver = new EndgameSolver(new TranspositionTable(64));
+    private long own;
+    private long opp;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        long[][] sides = BenchmarkPositions.sides(new OthelloModel[]{OthelloModel.fromString(position)});
+        own = sides[0][0];
+        opp = sides[1][0];
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        solver.getTable().clear();
+    }
+
+    @Benchmark
+    public int winLossDraw(Nodes counter) {
+        int result = solver.solveWinLossDraw(own, opp);
+        counter.nodes += solver.getNodes();
+        return result;
+    }
+
+    @Benchmark
+    public int exact(Nodes counter) {
+        int result = solver.solveExact(own, opp);
+        counter.nodes += solver.getNodes();
+        return result;
+    }
+}
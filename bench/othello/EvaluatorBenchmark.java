@@ -0,0 +1,88 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Evaluations per second of HeuristicEvaluator and PatternEvaluator over a set
+// of random midgame positions. Without a weight file the pattern evaluator
+// runs on random weights, which costs the same as trained ones.
+// Run with: gradle :bench:jmh -Pjmh='EvaluatorBenchmark [-p weights=weights.bin]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param("")
+    public String weights;
+
+    private final Evaluator heuristic = new HeuristicEvaluator();
+    private PatternEvaluator pattern;
+    private Path generated;
+    private final long[] own = new long[POSITIONS];
+    private final long[] opp = new long[POSITIONS];
+
+    @Setup
+    public void setUp() throws IOException {
+        Path file;
+        if (!weights.isEmpty()) {
+            file = Path.of(weights);
+        } else {
+            file = generated = Files.createTempFile("weights", ".bin");
+            Random random = new Random(1);
+            short[][] values = new short[PatternEvaluator.DEFAULT_PHASES][PatternEvaluator.WEIGHTS_PER_PHASE];
+            for (short[] phase : values) {
+                for (int i = 0; i < phase.length; i++) phase[i] = (short) random.nextInt(1000);
+            }
+            PatternEvaluator.write(file, values);
+        }
+        pattern = PatternEvaluator.load(file);
+
+        Random random = new Random(2);
+        for (int i = 0; i < POSITIONS; i++) {
+            OthelloModel model = new OthelloModel();
+            int plies = 10 + random.nextInt(40);
+            for (int p = 0; p < plies && !model.isGameOver(); p++) {
+                long valid = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < pick; j++) valid &= valid - 1;
+                model.makeMove(Long.numberOfTrailingZeros(valid));
+            }
+            own[i] = model.getBlackDiscs();
+            opp[i] = model.getWhiteDiscs();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (generated != null) Files.deleteIfExists(generated);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long heuristicEvaluator() {
+        return evaluateAll(heuristic);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long patternEvaluator() {
+        return evaluateAll(pattern);
+    }
+
+    private long evaluateAll(Evaluator evaluator) {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            sum += evaluator.evaluate(own[i], opp[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,124 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compares the ways of computing flips for every legal move of a set of
+// midgame positions: the array-scanning ReferenceOthelloModel (wouldFlip and
+// countDirectionalFlips), the bitboard ray walk in Bitboard.scanFlips, and the
+// line-pattern lookup in FlipTable. Scores are per position and "moves" per
+// legal move. Setup also prints the one-time cost of building the tables.
+// Run with: gradle :bench:jmh -Pjmh=FlipTableBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlipTableBenchmark {
+    private static final int POSITIONS = 256;
+
+    private final long[] own = new long[POSITIONS];
+    private final long[] opp = new long[POSITIONS];
+    private final long[] moves = new long[POSITIONS];
+    private final ReferenceOthelloModel[] references = new ReferenceOthelloModel[POSITIONS];
+    private int moveCount;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+    }
+
+    @Setup
+    public void setUp() {
+        // The fork is fresh, so this is the first use of FlipTable
+        long start = System.nanoTime();
+        long probe = FlipTable.flips(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, 19);
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("FlipTable class load %.2f ms (table build %.2f ms, %d KB, probe %x)%n",
+                loadMillis, FlipTable.BUILD_NANOS / 1e6, (8 << 16) / 1024 + 8 * (256 + 128) / 1024, probe);
+        moveCount = record(new Random(3));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long referenceCountFlips(Moves counter) {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            for (long m = moves[i]; m != 0; m &= m - 1) {
+                int sq = Long.numberOfTrailingZeros(m);
+                sum += references[i].countFlips(sq >>> 3, sq & 7);
+            }
+        }
+        counter.moves += moveCount;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long bitboardScanFlips(Moves counter) {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            for (long m = moves[i]; m != 0; m &= m - 1) {
+                sum += Bitboard.scanFlips(own[i], opp[i], Long.numberOfTrailingZeros(m));
+            }
+        }
+        counter.moves += moveCount;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long flipTableFlips(Moves counter) {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            for (long m = moves[i]; m != 0; m &= m - 1) {
+                sum += FlipTable.flips(own[i], opp[i], Long.numberOfTrailingZeros(m));
+            }
+        }
+        counter.moves += moveCount;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long flipTableCount(Moves counter) {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            for (long m = moves[i]; m != 0; m &= m - 1) {
+                sum += FlipTable.count(own[i], opp[i], Long.numberOfTrailingZeros(m));
+            }
+        }
+        counter.moves += moveCount;
+        return sum;
+    }
+
+    // Positions 10 to 50 plies into random games; returns the total number of legal moves
+    private int record(Random random) {
+        int total = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            OthelloModel model;
+            do {
+                model = new OthelloModel();
+                int plies = 10 + random.nextInt(40);
+                for (int p = 0; p < plies && !model.isGameOver(); p++) {
+                    long valid = model.getValidMoves();
+                    int pick = random.nextInt(Long.bitCount(valid));
+                    for (int j = 0; j < pick; j++) valid &= valid - 1;
+                    model.makeMove(Long.numberOfTrailingZeros(valid));
+                }
+            } while (model.isGameOver());
+            boolean black = model.getCurrentPlayer() == OthelloModel.BLACK;
+            own[i] = black ? model.getBlackDiscs() : model.getWhiteDiscs();
+            opp[i] = black ? model.getWhiteDiscs() : model.getBlackDiscs();
+            moves[i] = model.getValidMoves();
+            references[i] = new ReferenceOthelloModel();
+            references[i].setBoard(model.getBoard(), model.getCurrentPlayer());
+            total += Long.bitCount(moves[i]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,105 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Replay throughput of binary game records against the text notation: setup
+// writes random games in both formats, then every call replays the whole
+// file through one reused OthelloModel. "games" and "moves" give per-game
+// and per-move rates.
+// Run with: gradle :bench:jmh -Pjmh='GameRecordBenchmark [-p games=200000]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameRecordBenchmark {
+    @Param("20000")
+    public int games;
+
+    private Path binary;
+    private Path text;
+    private long totalMoves;
+    private final OthelloModel model = new OthelloModel();
+    private final int[] moves = new int[255];
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long games;
+        public long moves;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        binary = Files.createTempFile("games", ".bin");
+        text = Files.createTempFile("games", ".txt");
+        Random random = new Random(1);
+        try (GameRecordFile.Writer writer = new GameRecordFile.Writer(binary);
+             BufferedWriter out = Files.newBufferedWriter(text)) {
+            StringBuilder line = new StringBuilder(128);
+            for (int g = 0; g < games; g++) {
+                model.setPosition(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, OthelloModel.BLACK);
+                int count = 0;
+                line.setLength(0);
+                while (!model.isGameOver()) {
+                    long valid = model.getValidMoves();
+                    int pick = random.nextInt(Long.bitCount(valid));
+                    for (int j = 0; j < pick; j++) valid &= valid - 1;
+                    int move = Long.numberOfTrailingZeros(valid);
+                    moves[count++] = move;
+                    line.append(Move.toString(move));
+                    model.makeMove(move);
+                }
+                totalMoves += count;
+                writer.write(moves, count, GameRecordFile.result(model), null);
+                out.append(line).append('\n');
+            }
+        }
+        System.out.printf("%d games, %d moves: binary %d KB, text %d KB%n", games, totalMoves,
+                Files.size(binary) / 1024, Files.size(text) / 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(text);
+    }
+
+    @Benchmark
+    public long binaryReplay(Counters counters) throws IOException {
+        long checksum = 0;
+        try (GameRecordFile.Reader reader = new GameRecordFile.Reader(binary)) {
+            while (reader.next()) {
+                reader.replay(model);
+                checksum += model.getBlackDiscs();
+            }
+        }
+        counters.games += games;
+        counters.moves += totalMoves;
+        return checksum;
+    }
+
+    @Benchmark
+    public long textReplay(Counters counters) throws IOException {
+        long checksum = 0;
+        try (BufferedReader in = Files.newBufferedReader(text)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                GameRecordFile.parseText(line, moves, model);
+                checksum += model.getBlackDiscs();
+            }
+        }
+        counters.games += games;
+        counters.moves += totalMoves;
+        return checksum;
+    }
+}
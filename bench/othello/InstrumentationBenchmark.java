@@ -0,0 +1,74 @@
+package othello;
+
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of search instrumentation: fixed-depth searches of the midgame
+// benchmark positions with no SearchStats attached ("off"), with SearchStats
+// ("stats"), and with a JFR recording of the search events running ("jfr").
+// All three searches visit the same nodes, so the scores compare directly.
+//
+// "off" still keeps the engine's plain per-node counters (probes, hits,
+// cutoffs); only the collision check is skipped. Against a build of the
+// same engine with those counters deleted, on these positions at depth 7
+// and on one CPU, "off" measured -0.9% to +5.2% nodes/s and "stats" +0.4%
+// to +6.4% over three interleaved runs: the differences are within the
+// run-to-run noise of about 6%.
+// Run with: gradle :bench:jmh -Pjmh=InstrumentationBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationBenchmark {
+    @Param({"off", "stats", "jfr"})
+    public String instrumentation;
+
+    @Param("7")
+    public int depth;
+
+    private final SearchEngine engine = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(4));
+    private final SearchStats stats = new SearchStats();
+    private Recording recording;
+    private long[] own;
+    private long[] opp;
+
+    @Setup
+    public void setUp() {
+        long[][] sides = BenchmarkPositions.sides(BenchmarkPositions.models(BenchmarkPositions.MIDGAME));
+        own = sides[0];
+        opp = sides[1];
+        if (instrumentation.equals("stats")) {
+            engine.setStats(stats);
+        } else if (instrumentation.equals("jfr")) {
+            recording = new Recording();
+            recording.enable(SearchMoveEvent.class);
+            recording.enable(SearchIterationEvent.class);
+            recording.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+        }
+        if (instrumentation.equals("stats")) System.out.println(stats);
+    }
+
+    // Same work every call: the table is cleared before each search
+    @Benchmark
+    public long searchAll() {
+        long nodes = 0;
+        for (int i = 0; i < own.length; i++) {
+            engine.getTable().clear();
+            engine.searchToDepth(own[i], opp[i], depth);
+            nodes += engine.getNodes();
+        }
+        return nodes;
+    }
+}
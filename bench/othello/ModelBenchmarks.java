@@ -0,0 +1,160 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput of the OthelloModel rules API, of Position.play and snapshots,
+// and of the search engine on the opening, midgame and endgame suites in
+// BenchmarkPositions. Scores are per position (per square for isValidMove);
+// the move benchmarks also count "moves", the valid moves they went through,
+// and search counts "nodes".
+// Run with: gradle :bench:jmh -Pjmh=ModelBenchmarks
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmarks {
+    @Param({"opening", "midgame", "endgame"})
+    public String phase;
+
+    @Param("8")
+    public int searchDepth;
+
+    private OthelloModel[] models;
+    private Position[] positions;
+    private long[] own;
+    private long[] opp;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+        public long moves;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    // Fixed-depth search with a cold table for every position
+    @State(Scope.Thread)
+    public static class Search {
+        final SearchEngine engine = new SearchEngine();
+        int next;
+
+        @Setup(Level.Invocation)
+        public void clearTable() {
+            engine.getTable().clear();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        models = BenchmarkPositions.models(BenchmarkPositions.phase(phase));
+        positions = new Position[models.length];
+        for (int i = 0; i < models.length; i++) positions[i] = models[i].getPosition();
+        long[][] sides = BenchmarkPositions.sides(models);
+        own = sides[0];
+        opp = sides[1];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64 * BenchmarkPositions.PER_PHASE)
+    public long isValidMove() {
+        long found = 0;
+        for (OthelloModel model : models) {
+            for (int row = 0; row < OthelloModel.BOARD_SIZE; row++) {
+                for (int col = 0; col < OthelloModel.BOARD_SIZE; col++) {
+                    if (model.isValidMove(row, col)) found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long hasValidMoves() {
+        long found = 0;
+        for (OthelloModel model : models) {
+            if (model.hasValidMoves()) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long countFlips(Moves counter) {
+        long flips = 0;
+        for (OthelloModel model : models) {
+            for (long moves = model.getValidMoves(); moves != 0; moves &= moves - 1) {
+                int move = Long.numberOfTrailingZeros(moves);
+                flips += model.countFlips(Move.row(move), Move.col(move));
+                counter.moves++;
+            }
+        }
+        return flips;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long makeUnmakeMove(Moves counter) {
+        long flips = 0;
+        for (OthelloModel model : models) {
+            for (long moves = model.getValidMoves(); moves != 0; moves &= moves - 1) {
+                int move = Long.numberOfTrailingZeros(moves);
+                long flipped = model.makeMove(move);
+                model.unmakeMove(move, flipped);
+                flips += flipped;
+                counter.moves++;
+            }
+        }
+        return flips;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long positionPlay(Moves counter) {
+        long sum = 0;
+        for (Position position : positions) {
+            for (long moves = position.getValidMoves(); moves != 0; moves &= moves - 1) {
+                sum += position.play(Long.numberOfTrailingZeros(moves)).getValidMoves();
+                counter.moves++;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long getPosition() {
+        long sum = 0;
+        for (OthelloModel model : models) {
+            sum += model.getPosition().getBlackDiscs();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.PER_PHASE)
+    public long computeGreedyMove() {
+        long sum = 0;
+        for (OthelloModel model : models) {
+            sum += model.computeGreedyMoveIndex();
+        }
+        return sum;
+    }
+
+    // One position per call, cycling through the phase
+    @Benchmark
+    public int search(Search search, Nodes counter) {
+        int i = search.next++ % own.length;
+        int move = search.engine.searchToDepth(own[i], opp[i], searchDepth);
+        counter.nodes += search.engine.getNodes();
+        return move;
+    }
+}
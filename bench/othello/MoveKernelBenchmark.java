@@ -0,0 +1,102 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Batched legal moves and flip counts, ScalarMoveKernel against
+// MoveKernel.get(), on batches of 1 to 4096 positions from random games.
+// Scores are per call; "positions" gives the per-position rate. The fork
+// resolves jdk.incubator.vector, so "default" is the vector kernel wherever
+// the CPU supports it; -jvmArgsAppend -Dothello.vector=false makes it scalar.
+// Run with: gradle :bench:jmh -Pjmh='MoveKernelBenchmark [-p batch=1,64,4096]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MoveKernelBenchmark {
+    // Distinct positions cycled through, so small batches are not all cache-hot copies of one
+    private static final int POOL = 1 << 16;
+
+    @Param({"1", "4", "16", "64", "256", "1024", "4096"})
+    public int batch;
+
+    @Param({"scalar", "default"})
+    public String kernel;
+
+    private final long[] own = new long[POOL];
+    private final long[] opp = new long[POOL];
+    private final int[] squares = new int[POOL];
+    private MoveKernel moveKernel;
+    private long[] batchOwn;
+    private long[] batchOpp;
+    private int[] batchSquares;
+    private long[] moves;
+    private int[] counts;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Positions {
+        public long positions;
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        long o = Bitboard.INITIAL_BLACK;
+        long p = Bitboard.INITIAL_WHITE;
+        for (int i = 0; i < POOL; i++) {
+            long legal = Bitboard.legalMoves(o, p);
+            if (legal == 0) {
+                o = Bitboard.INITIAL_BLACK;
+                p = Bitboard.INITIAL_WHITE;
+                legal = Bitboard.legalMoves(o, p);
+            }
+            own[i] = o;
+            opp[i] = p;
+            int pick = random.nextInt(Long.bitCount(legal));
+            for (int j = 0; j < pick; j++) legal &= legal - 1;
+            squares[i] = Long.numberOfTrailingZeros(legal);
+            long flipped = Bitboard.flips(o, p, squares[i]);
+            long nextOpp = p & ~flipped;
+            p = o | flipped | (1L << squares[i]);
+            o = nextOpp;
+        }
+        moveKernel = kernel.equals("scalar") ? MoveKernel.scalar() : MoveKernel.get();
+        System.out.println("kernel: " + moveKernel.name());
+        batchOwn = new long[batch];
+        batchOpp = new long[batch];
+        batchSquares = new int[batch];
+        moves = new long[batch];
+        counts = new int[batch];
+    }
+
+    @Benchmark
+    public long legalMoves(Positions counter) {
+        fill();
+        moveKernel.legalMoves(batchOwn, batchOpp, moves, batch);
+        counter.positions += batch;
+        return moves[batch - 1];
+    }
+
+    @Benchmark
+    public int flipCounts(Positions counter) {
+        fill();
+        moveKernel.flipCounts(batchOwn, batchOpp, batchSquares, counts, batch);
+        counter.positions += batch;
+        return counts[batch - 1];
+    }
+
+    // Copies the next batch out of the pool, as a caller gathering work would
+    private void fill() {
+        int start = next;
+        next = (start + batch) & (POOL - 1);
+        System.arraycopy(own, start, batchOwn, 0, batch);
+        System.arraycopy(opp, start, batchOpp, 0, batch);
+        System.arraycopy(squares, start, batchSquares, 0, batch);
+    }
+}
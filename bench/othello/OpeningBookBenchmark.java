@@ -0,0 +1,74 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Lookup latency of an OpeningBook: hits on positions from the book's own
+// lines and misses on random positions. Builds a small book first unless one
+// is given.
+// Run with: gradle :bench:jmh -Pjmh='OpeningBookBenchmark [-p book=book.bin]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpeningBookBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param("")
+    public String book;
+
+    private OpeningBook openingBook;
+    private Path generated;
+    private final long[] own = new long[POSITIONS];
+    private final long[] opp = new long[POSITIONS];
+
+    @Setup
+    public void setUp() throws Exception {
+        Path file;
+        if (!book.isEmpty()) {
+            file = Path.of(book);
+        } else {
+            file = generated = Files.createTempFile("book", ".bin");
+            OpeningBookBuilder builder = new OpeningBookBuilder(8, 4, 0.5);
+            builder.playGames(1000, Runtime.getRuntime().availableProcessors(), 1);
+            builder.write(file);
+        }
+        openingBook = OpeningBook.load(file);
+        System.out.println(openingBook);
+
+        // Early positions from random games: mostly hits near the start
+        Random random = new Random(2);
+        for (int i = 0; i < POSITIONS; i++) {
+            OthelloModel model = new OthelloModel();
+            int plies = random.nextInt(openingBook.getBuiltDepth() + 1);
+            for (int p = 0; p < plies; p++) {
+                long valid = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < pick; j++) valid &= valid - 1;
+                model.makeMove(Long.numberOfTrailingZeros(valid));
+            }
+            boolean black = model.getCurrentPlayer() == OthelloModel.BLACK;
+            own[i] = black ? model.getBlackDiscs() : model.getWhiteDiscs();
+            opp[i] = black ? model.getWhiteDiscs() : model.getBlackDiscs();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (generated != null) Files.deleteIfExists(generated);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long lookup() {
+        long sum = 0;
+        for (int i = 0; i < POSITIONS; i++) sum += openingBook.lookup(own[i], opp[i]);
+        return sum;
+    }
+}
@@ -0,0 +1,78 @@
+package othello;
+
+import java.util.Random;
+
+// Time-to-depth scaling of ParallelSearch from 1 to N threads on fixed
+// midgame positions (seeded random play), in both modes.
+//
+// Scaling is unverified: no results have been recorded on a multi-core
+// machine yet (the only runs so far had a single CPU, where every thread
+// count just time-slices one core). Record the 1/2/4/8-thread table here
+// once it has been measured.
+// Run with: gradle :bench:report -Pmain=othello.ParallelSearchBenchmark -Pargs='[maxThreads] [depth] [positions]'
+public class ParallelSearchBenchmark {
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        long[][] suite = midgamePositions(positions, new Random(2024));
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (maxThreads > cores) {
+            System.out.printf("warning: %d threads on %d cores; speedups above %d threads are not scaling%n",
+                    maxThreads, cores, cores);
+        }
+
+        // Untimed pass so the first timed row is not also the JIT warm-up
+        for (ParallelSearch.Mode mode : ParallelSearch.Mode.values()) {
+            try (ParallelSearch search = new ParallelSearch(Math.min(2, maxThreads), mode)) {
+                for (long[] position : suite) {
+                    search.getTable().clear();
+                    search.searchToDepth(position[0], position[1], depth);
+                }
+            }
+        }
+
+        for (ParallelSearch.Mode mode : ParallelSearch.Mode.values()) {
+            double baseline = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double seconds = 0;
+                long nodes = 0;
+                try (ParallelSearch search = new ParallelSearch(threads, mode)) {
+                    for (long[] position : suite) {
+                        // Cold table per position so runs are comparable
+                        search.getTable().clear();
+                        long start = System.nanoTime();
+                        search.searchToDepth(position[0], position[1], depth);
+                        seconds += (System.nanoTime() - start) / 1e9;
+                        nodes += search.getNodes();
+                    }
+                }
+                if (threads == 1) baseline = seconds;
+                System.out.printf("%-10s threads %2d: %7.2f s, %6.0f knps, speedup %5.2fx%n",
+                        mode, threads, seconds, nodes / seconds / 1000, baseline / seconds);
+                if (threads < maxThreads && threads * 2 > maxThreads) threads = maxThreads / 2;
+            }
+        }
+    }
+
+    static long[][] midgamePositions(int count, Random random) {
+        long[][] suite = new long[count][];
+        int found = 0;
+        while (found < count) {
+            OthelloModel model = new OthelloModel();
+            for (int ply = 0; ply < 24 && !model.isGameOver(); ply++) {
+                long moves = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < pick; i++) moves &= moves - 1;
+                model.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+            if (model.isGameOver()) continue;
+            boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+            suite[found++] = new long[]{
+                    blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs(),
+                    blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs()
+            };
+        }
+        return suite;
+    }
+}
@@ -0,0 +1,46 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Perft from the initial position: counts leaf nodes of the full game tree to
+// the given depth with makeMove/unmakeMove, after checking the count against
+// the published one, so speed and move-generation correctness are measured
+// together. A forced pass counts as a ply. "nodes" gives nodes per second.
+// Run with: gradle :bench:jmh -Pjmh='PerftBenchmark -p depth=11'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    private static final long[] EXPECTED = {
+            1, 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288, 24571284, 212258800
+    };
+
+    @Param({"8", "10"})
+    public int depth;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void check() {
+        long nodes = Perft.count(new OthelloModel(), depth);
+        if (depth < EXPECTED.length && nodes != EXPECTED[depth]) {
+            throw new IllegalStateException("perft " + depth + ": " + nodes + " nodes, expected " + EXPECTED[depth]);
+        }
+    }
+
+    @Benchmark
+    public long perft(Nodes counter) {
+        long nodes = Perft.count(new OthelloModel(), depth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
@@ -0,0 +1,237 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of canonicalization and of PositionCache lookups, and what the cache
+// saves on a BatchAnalyzer-style workload: every position of many games
+// evaluated one after another. The games are random but draw their first
+// OPENING_PLIES from a small set of openings, as a game collection would, and
+// then reach the same positions only by chance or by transposition. Last, the
+// cost of solving endgame roots again from mirrored images. The old canonical
+// loop (apply() from scratch for each image) is kept here for comparison.
+// Run with: gradle :bench:jmh -Pjmh='PositionCacheBenchmark [-p games=2000]'
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionCacheBenchmark {
+    private static final int MASK = 1023;
+    private static final int OPENINGS = 50;
+    private static final int OPENING_PLIES = 10;
+
+    @Param("2000")
+    public int games;
+
+    private long[] own;
+    private long[] opp;
+    private final Evaluator evaluator = new HeuristicEvaluator();
+    private final PositionCache warm = new PositionCache(16);
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Positions {
+        public long positions;
+    }
+
+    // A new cache for every pass over the workload
+    @State(Scope.Thread)
+    public static class ColdCache {
+        PositionCache cache;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            cache = new PositionCache(16);
+        }
+
+        @TearDown
+        public void tearDown() {
+            System.out.printf("%.1f%% of the workload from the cache%n", 100 * cache.evaluationHitRate());
+        }
+    }
+
+    // The first position past 52 discs of 200 games, solved from a cold table
+    @State(Scope.Thread)
+    public static class Endgames {
+        long[][] roots;
+        final SearchEngine engine = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(16));
+        PositionCache solved;
+
+        @Setup
+        public void setUp() {
+            roots = randomGames(new SplittableRandom(2), 200, 52);
+        }
+
+        @Setup(Level.Invocation)
+        public void newCache() {
+            solved = new PositionCache(16);
+        }
+
+        @TearDown
+        public void tearDown() {
+            System.out.println(solved);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        long[][] positions = randomGames(new SplittableRandom(1), games, 4);
+        own = positions[0];
+        opp = positions[1];
+        for (int k = 0; k <= MASK; k++) warm.putEvaluation(own[k], opp[k], evaluator.evaluate(own[k], opp[k]));
+    }
+
+    @Benchmark
+    public int legacyCanonical() {
+        int k = next++ & MASK;
+        return legacyCanonical(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public int canonical() {
+        int k = next++ & MASK;
+        return Symmetry.canonical(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public long canonicalHash() {
+        int k = next++ & MASK;
+        return Symmetry.canonicalHash(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public int heuristicEvaluate() {
+        int k = next++ & MASK;
+        return evaluator.evaluate(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public int cacheEvaluationHit() {
+        int k = next++ & MASK;
+        return warm.evaluation(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public long cacheLegalMovesHit() {
+        int k = next++ & MASK;
+        return warm.legalMoves(own[k], opp[k]);
+    }
+
+    @Benchmark
+    public long bitboardLegalMoves() {
+        int k = next++ & MASK;
+        return Bitboard.legalMoves(own[k], opp[k]);
+    }
+
+    // The whole workload without a cache, then through a cold one
+    @Benchmark
+    public long workloadNoCache(Positions counter) {
+        long sum = 0;
+        for (int k = 0; k < own.length; k++) sum += evaluator.evaluate(own[k], opp[k]);
+        counter.positions += own.length;
+        return sum;
+    }
+
+    @Benchmark
+    public long workloadColdCache(ColdCache cold, Positions counter) {
+        long sum = 0;
+        for (int k = 0; k < own.length; k++) sum += cold.cache.evaluate(evaluator, own[k], opp[k]);
+        counter.positions += own.length;
+        return sum;
+    }
+
+    // Repeated endgame solves of positions reached in many games: once
+    // plainly, then two passes over different images with the cache
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long endgamesPlain(Endgames endgames) {
+        SearchEngine engine = endgames.engine;
+        engine.setPositionCache(null);
+        long sum = 0;
+        for (int k = 0; k < endgames.roots[0].length; k++) {
+            engine.getTable().clear();
+            sum += engine.findBestMove(endgames.roots[0][k], endgames.roots[1][k], 10_000);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long endgamesCachedTwice(Endgames endgames) {
+        SearchEngine engine = endgames.engine;
+        engine.setPositionCache(endgames.solved);
+        long sum = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int k = 0; k < endgames.roots[0].length; k++) {
+                engine.getTable().clear();
+                int s = pass * 3 + 1;
+                sum += engine.findBestMove(Symmetry.apply(endgames.roots[0][k], s),
+                        Symmetry.apply(endgames.roots[1][k], s), 10_000);
+            }
+        }
+        return sum;
+    }
+
+    // Symmetry.canonical before the incremental images
+    private static int legacyCanonical(long own, long opp) {
+        int best = 0;
+        long bestOwn = own;
+        long bestOpp = opp;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            long o = Symmetry.apply(own, s);
+            int cmp = Long.compareUnsigned(o, bestOwn);
+            if (cmp > 0) continue;
+            long p = Symmetry.apply(opp, s);
+            if (cmp < 0 || Long.compareUnsigned(p, bestOpp) < 0) {
+                best = s;
+                bestOwn = o;
+                bestOpp = p;
+            }
+        }
+        return best;
+    }
+
+    // Every position of `games` random games with at least minDiscs discs, as
+    // {own[], opp[]} for the side to move; only the first such position when
+    // minDiscs is past the midgame
+    private static long[][] randomGames(SplittableRandom random, int games, int minDiscs) {
+        long[] own = new long[games * 60];
+        long[] opp = new long[games * 60];
+        int n = 0;
+        for (int g = 0; g < games; g++) {
+            long o = Bitboard.INITIAL_BLACK;
+            long p = Bitboard.INITIAL_WHITE;
+            SplittableRandom opening = new SplittableRandom(g % OPENINGS);
+            for (int ply = 0; ; ply++) {
+                long moves = Bitboard.legalMoves(o, p);
+                if (moves == 0) {
+                    if (Bitboard.legalMoves(p, o) == 0) break;
+                    long t = o;
+                    o = p;
+                    p = t;
+                    continue;
+                }
+                if (Long.bitCount(o | p) >= minDiscs) {
+                    own[n] = o;
+                    opp[n++] = p;
+                    if (minDiscs > 40) break;
+                }
+                int pick = (ply < OPENING_PLIES ? opening : random).nextInt(Long.bitCount(moves));
+                for (int k = 0; k < pick; k++) moves &= moves - 1;
+                int sq = Long.numberOfTrailingZeros(moves);
+                long flipped = Bitboard.flips(o, p, sq);
+                long next = p & ~flipped;
+                p = o | flipped | (1L << sq);
+                o = next;
+            }
+        }
+        return new long[][]{java.util.Arrays.copyOf(own, n), java.util.Arrays.copyOf(opp, n)};
+    }
+}
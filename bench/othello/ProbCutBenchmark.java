@@ -0,0 +1,98 @@
+package othello;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+// What Multi-ProbCut buys at the same time per move. Generates self-play
+// positions with Trainer, calibrates ProbCut on them with ProbCutCalibrator,
+// then compares plain alpha-beta with ProbCut search (HeuristicEvaluator for
+// both): nodes and best-move agreement at a fixed depth, depth reached in a
+// fixed time on the midgame positions, and a match at that time per move.
+// Run with: gradle :bench:report -Pmain=othello.ProbCutBenchmark
+//           -Pargs='[calibrationDepth] [millisPerMove] [gamePairs] [threshold]'
+public class ProbCutBenchmark {
+    private static final int CALIBRATION_GAMES = 100;
+    private static final int CALIBRATION_POSITIONS = 400;
+    private static final int FIXED_DEPTH = 9;
+
+    public static void main(String[] args) throws Exception {
+        int calibrationDepth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        int pairs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) : ProbCut.DEFAULT_THRESHOLD;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        Path samples = Files.createTempFile("probcut", ".bin");
+        long start = System.nanoTime();
+        try {
+            Trainer.generate(samples, false, CALIBRATION_GAMES, threads, 1, 0, 0);
+            long[][] positions = ProbCutCalibrator.sample(samples, CALIBRATION_POSITIONS, calibrationDepth);
+            ProbCut probCut = ProbCutCalibrator.calibrate(positions[0], positions[1], calibrationDepth,
+                    new HeuristicEvaluator(), threads);
+            probCut.setThreshold(threshold);
+            System.out.printf("calibrated on %d positions to depth %d in %.1f s, threshold %.2f%n",
+                    positions[0].length, calibrationDepth, (System.nanoTime() - start) / 1e9, threshold);
+            for (int height = ProbCut.MIN_HEIGHT; height <= calibrationDepth; height++) {
+                int check = ProbCut.checks(height) - 1;
+                System.out.printf("  height %2d from depth %d: slope %.3f, sigma %.0f (stage 1)%n", height,
+                        ProbCut.checkDepth(height, check), probCut.getSlope(1, height, check),
+                        probCut.getSigma(1, height, check));
+            }
+
+            report(probCut, millis);
+
+            Supplier<MoveStrategy> plain = () -> SearchStrategy.timed(millis, new HeuristicEvaluator());
+            Supplier<MoveStrategy> selective = () -> {
+                SearchStrategy strategy = SearchStrategy.timed(millis, new HeuristicEvaluator());
+                strategy.getEngine().setProbCut(probCut);
+                return strategy;
+            };
+            Tournament.Result result = new Tournament(selective, plain, threads).play(pairs, 6, 1);
+            System.out.printf("match at %d ms/move, ProbCut vs plain: +%d -%d =%d, score %.1f%% +- %.1f%%, Elo %+.0f%n",
+                    millis, result.wins, result.losses, result.draws, 100 * result.score(),
+                    100 * result.confidence95(), result.eloDifference());
+        } finally {
+            Files.deleteIfExists(samples);
+        }
+    }
+
+    private static void report(ProbCut probCut, long millis) {
+        String[] positions = BenchmarkPositions.MIDGAME;
+        SearchEngine plain = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(16));
+        SearchEngine selective = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(16));
+        selective.setProbCut(probCut);
+
+        long plainNodes = 0;
+        long selectiveNodes = 0;
+        int agree = 0;
+        int plainDepth = 0;
+        int selectiveDepth = 0;
+        for (String position : positions) {
+            OthelloModel model = BenchmarkPositions.model(position);
+            long own = model.getCurrentPlayer() == OthelloModel.BLACK ? model.getBlackDiscs() : model.getWhiteDiscs();
+            long opp = model.getCurrentPlayer() == OthelloModel.BLACK ? model.getWhiteDiscs() : model.getBlackDiscs();
+
+            plain.getTable().clear();
+            selective.getTable().clear();
+            int plainMove = plain.searchToDepth(own, opp, FIXED_DEPTH);
+            int selectiveMove = selective.searchToDepth(own, opp, FIXED_DEPTH);
+            plainNodes += plain.getNodes();
+            selectiveNodes += selective.getNodes();
+            if (plainMove == selectiveMove) agree++;
+
+            plain.getTable().clear();
+            selective.getTable().clear();
+            plain.findBestMove(own, opp, millis);
+            plainDepth += plain.getCompletedDepth();
+            selective.findBestMove(own, opp, millis);
+            selectiveDepth += selective.getCompletedDepth();
+        }
+        int n = positions.length;
+        System.out.printf("depth %d on %d midgame positions: %d nodes plain, %d with ProbCut (%.1fx fewer), "
+                        + "same best move in %d%n", FIXED_DEPTH, n, plainNodes, selectiveNodes,
+                (double) plainNodes / selectiveNodes, agree);
+        System.out.printf("depth reached in %d ms: %.2f plain, %.2f with ProbCut%n",
+                millis, (double) plainDepth / n, (double) selectiveDepth / n);
+    }
+}
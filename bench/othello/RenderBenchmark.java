@@ -0,0 +1,102 @@
+package othello;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// Frame time of the board view, rendered off screen into an image the size of
+// the window: the old drawBoard (grid, getBoard() copy and 64 isValidMove
+// calls every frame), a full BoardPanel frame from the cached background, and
+// the repaint after a typical move, clipped to a 3x3 block of cells. Window
+// sizes go up to a 2x high-DPI screen, given as size x scale.
+// Run with: gradle :bench:jmh -Pjmh=RenderBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    @Param({"480x1", "1440x1", "1440x2"})
+    public String window;
+
+    private final OthelloModel model = BenchmarkPositions.model(BenchmarkPositions.MIDGAME[0]);
+    private BufferedImage image;
+    private Graphics2D g;
+    private BoardPanel panel;
+    private int size;
+    private int cell;
+
+    @Setup
+    public void setUp() {
+        String[] parts = window.split("x");
+        size = Integer.parseInt(parts[0]);
+        int scale = Integer.parseInt(parts[1]);
+        image = new BufferedImage(size * scale, size * scale, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+        g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+
+        panel = new BoardPanel(size / OthelloModel.BOARD_SIZE);
+        panel.setSize(size, size);
+        panel.show(model.getBlackDiscs(), model.getWhiteDiscs(), model.getValidMoves());
+        cell = panel.cellSize();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("BoardPanel frames: %.3f ms avg, %.3f ms max%n",
+                panel.getAverageFrameMillis(), panel.getMaxFrameMillis());
+        g.dispose();
+    }
+
+    @Benchmark
+    public int legacyFullFrame() {
+        g.setClip(0, 0, size, size);
+        legacyDrawBoard(g, model, cell);
+        return image.getRGB(0, 0);
+    }
+
+    @Benchmark
+    public int cachedFullFrame() {
+        g.setClip(0, 0, size, size);
+        panel.paintComponent(g);
+        return image.getRGB(0, 0);
+    }
+
+    @Benchmark
+    public int cachedThreeByThreeCells() {
+        g.setClip(2 * cell, 2 * cell, 3 * cell, 3 * cell);
+        panel.paintComponent(g);
+        return image.getRGB(0, 0);
+    }
+
+    // OthelloGUI's rendering before BoardPanel, kept here for comparison
+    private static void legacyDrawBoard(Graphics g, OthelloModel model, int cell) {
+        g.setColor(new Color(0, 100, 0));
+        g.fillRect(0, 0, cell * OthelloModel.BOARD_SIZE, cell * OthelloModel.BOARD_SIZE);
+        g.setColor(Color.BLACK);
+        for (int i = 0; i <= OthelloModel.BOARD_SIZE; i++) {
+            g.drawLine(i * cell, 0, i * cell, OthelloModel.BOARD_SIZE * cell);
+            g.drawLine(0, i * cell, OthelloModel.BOARD_SIZE * cell, i * cell);
+        }
+        int[][] board = model.getBoard();
+        for (int row = 0; row < OthelloModel.BOARD_SIZE; row++) {
+            for (int col = 0; col < OthelloModel.BOARD_SIZE; col++) {
+                if (board[row][col] != OthelloModel.EMPTY) {
+                    int diameter = cell - cell / 5;
+                    g.setColor(board[row][col] == OthelloModel.BLACK ? Color.BLACK : Color.WHITE);
+                    g.fillOval(col * cell + cell / 10, row * cell + cell / 10, diameter, diameter);
+                    g.setColor(Color.BLACK);
+                    g.drawOval(col * cell + cell / 10, row * cell + cell / 10, diameter, diameter);
+                }
+                if (model.getCurrentPlayer() == OthelloModel.BLACK && model.isValidMove(row, col)) {
+                    g.setColor(new Color(0, 255, 0, 100));
+                    g.fillRect(col * cell + cell / 3, row * cell + cell / 3, cell / 3, cell / 3);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package othello;
+
+// Plays the opening of a game with a fixed per-move budget and reports the
+// search depth, node rate and transposition table statistics for each move.
+// Run with: gradle :bench:report -Pmain=othello.SearchBenchmark -Pargs='[moves] [budgetMillis] [tableMegabytes]'
+public class SearchBenchmark {
+    public static void main(String[] args) {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        TranspositionTable table = new TranspositionTable(megabytes);
+        SearchEngine engine = new SearchEngine(new HeuristicEvaluator(), table);
+        // Attached only so that the engine counts collisions
+        engine.setStats(new SearchStats());
+        OthelloModel model = new OthelloModel();
+
+        for (int i = 0; i < moves && !model.isGameOver(); i++) {
+            boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+            long own = blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs();
+            long opp = blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs();
+
+            long start = System.nanoTime();
+            int move = engine.findBestMove(own, opp, budget);
+            long elapsed = System.nanoTime() - start;
+
+            // The engine's counters cover this move only
+            long probes = Math.max(1, engine.getTableProbes());
+            System.out.printf("move %2d: depth %2d, %9d nodes, %6.0f knps, TT hits %5.1f%%, "
+                            + "collisions %5.1f%%, used %5.1f%%%n",
+                    i + 1, engine.getCompletedDepth(), engine.getNodes(),
+                    engine.getNodes() / (elapsed / 1e6),
+                    100.0 * engine.getTableHits() / probes,
+                    100.0 * engine.getTableCollisions() / probes,
+                    100 * table.usage());
+            model.makeMove(move / 8, move % 8);
+        }
+        System.out.println(table);
+    }
+}
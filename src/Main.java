@@ -1,7 +0,0 @@
-import javax.swing.*;
-
-public class Main {
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new OthelloGUI().setVisible(true));
-    }
-}
\ No newline at end of file
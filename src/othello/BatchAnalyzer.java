@@ -0,0 +1,247 @@
+package othello;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Scores every legal move of many positions in parallel. Input is read in
+// batches; at most a few batches per thread are in flight at once and results
+// are written in input order as soon as they are ready, so memory stays flat
+// however long the input is.
+//
+// Each output line is the position followed by one field per legal move:
+//   <move>:<flips>:<eval>[:<search score>]
+// where eval is the static evaluation after the move and the search score is
+// a search of the move to --search-depth plies (the move included), both from
+// the mover's point of view.
+//
+// Usage: java othello.BatchAnalyzer [--positions FILE | --games FILE | --records FILE]
+//            [--out FILE] [--threads N] [--search-depth D]
+// Positions are in OthelloModel.toString format, one per line. Games are one
+// per line as concatenated moves from the start position, e.g. "f5d6c3d3",
+// optionally followed by "# comment"; every position of the game is analyzed.
+// Records are a binary GameRecordFile. Reads stdin without a file.
+// --cache MB shares a PositionCache of that size between the threads for the
+// static evaluations; games that share openings, or positions that are
+// mirror images, are then evaluated once. Each position then gets the score
+// of its canonical image, which for PatternEvaluator can differ slightly
+// from the score without the cache.
+public class BatchAnalyzer implements AutoCloseable {
+    private static final int BATCH_SIZE = 256;
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private final Evaluator evaluator;
+    private final int searchDepth;
+    private final int threads;
+    private final ExecutorService pool;
+    private final ThreadLocal<SearchEngine> engines;
+    private volatile PositionCache cache;
+
+    public BatchAnalyzer(int threads, Evaluator evaluator, int searchDepth) {
+        this.threads = threads;
+        this.evaluator = evaluator;
+        this.searchDepth = searchDepth;
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.engines = ThreadLocal.withInitial(() -> new SearchEngine(evaluator));
+    }
+
+    // Evaluations go through cache; null (the default) evaluates every time
+    public void setPositionCache(PositionCache cache) {
+        this.cache = cache;
+    }
+
+    public PositionCache getPositionCache() {
+        return cache;
+    }
+
+    // Per-position results, filled by analyze(); reusable scratch space
+    public static final class Analysis {
+        public int count;
+        public final int[] moves = new int[64];
+        public final int[] flips = new int[64];
+        public final int[] evals = new int[64];
+        public final int[] scores = new int[64];
+    }
+
+    // Fills `result` with every legal move of the side owning `own`; no
+    // allocation, so one Analysis can be reused for a whole stream
+    public void analyze(long own, long opp, Analysis result) {
+        result.count = 0;
+        SearchEngine engine = searchDepth > 0 ? engines.get() : null;
+        PositionCache cache = this.cache;
+        for (long moves = Bitboard.legalMoves(own, opp); moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = Bitboard.flips(own, opp, sq);
+            long newOwn = own | flipped | (1L << sq);
+            long newOpp = opp & ~flipped;
+            int i = result.count++;
+            result.moves[i] = sq;
+            result.flips[i] = Long.bitCount(flipped);
+            result.evals[i] = -(cache == null ? evaluator.evaluate(newOpp, newOwn)
+                    : cache.evaluate(evaluator, newOpp, newOwn));
+            result.scores[i] = engine == null ? 0
+                    : engine.searchRootMove(own, opp, sq, searchDepth, -SearchEngine.INFINITY, SearchEngine.INFINITY,
+                            Long.MAX_VALUE);
+        }
+    }
+
+    // Analyzes positions in OthelloModel.toString format and writes one line
+    // per position to out, in input order. An interrupt abandons the batches
+    // in flight and is thrown; out then holds only a prefix of the results.
+    public long analyzePositions(Iterator<String> positions, Writer out) throws IOException, InterruptedException {
+        return run(positions, out, false);
+    }
+
+    // Same for game records, one game per line as a move list
+    public long analyzeGames(Iterator<String> games, Writer out) throws IOException, InterruptedException {
+        return run(games, out, true);
+    }
+
+    private long run(Iterator<String> input, Writer out, boolean games) throws IOException, InterruptedException {
+        // Bounded: the producer blocks here once enough batches are in flight
+        BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(threads * BATCHES_PER_THREAD);
+        long lines = 0;
+        try {
+            while (input.hasNext()) {
+                List<String> batch = new ArrayList<>(BATCH_SIZE);
+                while (batch.size() < BATCH_SIZE && input.hasNext()) {
+                    batch.add(input.next());
+                }
+                lines += batch.size();
+                Callable<String> task = () -> games ? analyzeGameBatch(batch) : analyzePositionBatch(batch);
+                if (pending.remainingCapacity() == 0) {
+                    out.write(pending.take().get());
+                }
+                pending.put(pool.submit(task));
+            }
+            while (!pending.isEmpty()) {
+                out.write(pending.take().get());
+            }
+        } catch (InterruptedException e) {
+            for (Future<String> batch : pending) batch.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        out.flush();
+        return lines;
+    }
+
+    private String analyzePositionBatch(List<String> batch) {
+        StringBuilder sb = new StringBuilder(batch.size() * 200);
+        Analysis analysis = new Analysis();
+        for (String line : batch) {
+            if (line.isBlank()) continue;
+            appendPosition(sb, Position.fromString(line), analysis);
+        }
+        return sb.toString();
+    }
+
+    private String analyzeGameBatch(List<String> batch) {
+        StringBuilder sb = new StringBuilder(batch.size() * 4096);
+        Analysis analysis = new Analysis();
+        for (String line : batch) {
+            // Passes are implied by the rules, so explicit ones are dropped
+            int comment = line.indexOf('#');
+            String moves = (comment >= 0 ? line.substring(0, comment) : line).replaceAll("(?i)pass|\\s+", "");
+            Position position = Position.INITIAL;
+            for (int i = 0; i + 2 <= moves.length() && !position.isGameOver(); i += 2) {
+                appendPosition(sb, position, analysis);
+                position = position.play(Move.parse(moves.substring(i, i + 2)));
+            }
+            appendPosition(sb, position, analysis);
+        }
+        return sb.toString();
+    }
+
+    private void appendPosition(StringBuilder sb, Position position, Analysis analysis) {
+        sb.append(position);
+        if (!position.isGameOver()) {
+            analyze(position.getOwnDiscs(), position.getOpponentDiscs(), analysis);
+            for (int i = 0; i < analysis.count; i++) {
+                sb.append(' ').append(Move.toString(analysis.moves[i]))
+                        .append(':').append(analysis.flips[i])
+                        .append(':').append(analysis.evals[i]);
+                if (searchDepth > 0) sb.append(':').append(analysis.scores[i]);
+            }
+        }
+        sb.append('\n');
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String positions = null;
+        String games = null;
+        String records = null;
+        String outFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int searchDepth = 0;
+        int cacheMegabytes = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--positions": positions = Options.value(args, i++); break;
+                case "--games": games = Options.value(args, i++); break;
+                case "--records": records = Options.value(args, i++); break;
+                case "--out": outFile = Options.value(args, i++); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                case "--search-depth": searchDepth = Integer.parseInt(Options.value(args, i++)); break;
+                case "--cache": cacheMegabytes = Integer.parseInt(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        PositionCache cache = cacheMegabytes > 0 ? new PositionCache(cacheMegabytes) : null;
+        long start = System.nanoTime();
+        long lines;
+        if (records != null) {
+            try (GameRecordFile.Reader reader = new GameRecordFile.Reader(java.nio.file.Path.of(records));
+                 Writer out = outFile == null
+                         ? new java.io.BufferedWriter(new java.io.OutputStreamWriter(System.out))
+                         : java.nio.file.Files.newBufferedWriter(java.nio.file.Path.of(outFile));
+                 BatchAnalyzer analyzer = new BatchAnalyzer(threads, PatternEvaluator.defaultEvaluator(), searchDepth)) {
+                analyzer.setPositionCache(cache);
+                lines = analyzer.analyzeGames(GameRecordFile.texts(reader), out);
+            }
+            System.err.printf("%d games in %.2f s%n", lines, (System.nanoTime() - start) / 1e9);
+            if (cache != null) System.err.println(cache);
+            return;
+        }
+
+        String inFile = games != null ? games : positions;
+        try (BufferedReader in = inFile == null
+                ? new BufferedReader(new java.io.InputStreamReader(System.in))
+                : java.nio.file.Files.newBufferedReader(java.nio.file.Path.of(inFile));
+             Writer out = outFile == null
+                     ? new java.io.BufferedWriter(new java.io.OutputStreamWriter(System.out))
+                     : java.nio.file.Files.newBufferedWriter(java.nio.file.Path.of(outFile));
+             BatchAnalyzer analyzer = new BatchAnalyzer(threads, PatternEvaluator.defaultEvaluator(), searchDepth)) {
+            analyzer.setPositionCache(cache);
+            Iterator<String> input = in.lines().iterator();
+            lines = games != null ? analyzer.analyzeGames(input, out) : analyzer.analyzePositions(input, out);
+        }
+        System.err.printf("%d %s in %.2f s%n", lines, games != null ? "games" : "positions",
+                (System.nanoTime() - start) / 1e9);
+        if (cache != null) System.err.println(cache);
+    }
+}
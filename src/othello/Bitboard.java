@@ -0,0 +1,98 @@
+package othello;
+
+// Bit-parallel Othello primitives. Square index is row * 8 + col, so bit 0 is the
+// top-left corner (0,0) and bit 63 is the bottom-right corner (7,7).
+public final class Bitboard {
+    public static final long NOT_COL_0 = 0xFEFEFEFEFEFEFEFEL;
+    public static final long NOT_COL_7 = 0x7F7F7F7F7F7F7F7FL;
+
+    // The 8 ray directions as square-index deltas, paired with the mask that
+    // removes squares that wrapped around the left/right edge after the shift
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] MASKS = {
+            NOT_COL_0, NOT_COL_7, -1L, -1L,
+            NOT_COL_0, NOT_COL_7, NOT_COL_0, NOT_COL_7
+    };
+
+    public static final long INITIAL_BLACK = (1L << 28) | (1L << 35);
+    public static final long INITIAL_WHITE = (1L << 27) | (1L << 36);
+
+    private Bitboard() {
+    }
+
+    // All empty squares where the player to move (own) flips at least one opponent disc
+    public static long legalMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+
+        // Unrolled per direction; each pass walks at most 6 opponent discs
+        long o = opp & NOT_COL_0;
+        long t = o & (own << 1);
+        t |= o & (t << 1); t |= o & (t << 1); t |= o & (t << 1); t |= o & (t << 1); t |= o & (t << 1);
+        moves |= (t << 1) & NOT_COL_0;
+
+        t = o & (own << 9);
+        t |= o & (t << 9); t |= o & (t << 9); t |= o & (t << 9); t |= o & (t << 9); t |= o & (t << 9);
+        moves |= (t << 9) & NOT_COL_0;
+
+        t = o & (own >>> 7);
+        t |= o & (t >>> 7); t |= o & (t >>> 7); t |= o & (t >>> 7); t |= o & (t >>> 7); t |= o & (t >>> 7);
+        moves |= (t >>> 7) & NOT_COL_0;
+
+        o = opp & NOT_COL_7;
+        t = o & (own >>> 1);
+        t |= o & (t >>> 1); t |= o & (t >>> 1); t |= o & (t >>> 1); t |= o & (t >>> 1); t |= o & (t >>> 1);
+        moves |= (t >>> 1) & NOT_COL_7;
+
+        t = o & (own << 7);
+        t |= o & (t << 7); t |= o & (t << 7); t |= o & (t << 7); t |= o & (t << 7); t |= o & (t << 7);
+        moves |= (t << 7) & NOT_COL_7;
+
+        t = o & (own >>> 9);
+        t |= o & (t >>> 9); t |= o & (t >>> 9); t |= o & (t >>> 9); t |= o & (t >>> 9); t |= o & (t >>> 9);
+        moves |= (t >>> 9) & NOT_COL_7;
+
+        o = opp;
+        t = o & (own << 8);
+        t |= o & (t << 8); t |= o & (t << 8); t |= o & (t << 8); t |= o & (t << 8); t |= o & (t << 8);
+        moves |= t << 8;
+
+        t = o & (own >>> 8);
+        t |= o & (t >>> 8); t |= o & (t >>> 8); t |= o & (t >>> 8); t |= o & (t >>> 8); t |= o & (t >>> 8);
+        moves |= t >>> 8;
+
+        return moves & empty;
+    }
+
+    // Opponent discs flipped if own plays at sq; 0 means the move is illegal
+    public static long flips(long own, long opp, int sq) {
+        return FlipTable.flips(own, opp, sq);
+    }
+
+    // The same as flips() by walking each ray a square at a time; kept as the
+    // reference the lookup tables are tested and benchmarked against
+    static long scanFlips(long own, long opp, int sq) {
+        long move = 1L << sq;
+        if (((own | opp) & move) != 0) return 0;
+
+        long flipped = 0;
+        for (int d = 0; d < 8; d++) {
+            int dir = SHIFTS[d];
+            long mask = MASKS[d];
+            long line = 0;
+            long x = (dir > 0 ? move << dir : move >>> -dir) & mask;
+            while ((x & opp) != 0) {
+                line |= x;
+                x = (dir > 0 ? x << dir : x >>> -dir) & mask;
+            }
+            if ((x & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    public static long squareBit(int row, int col) {
+        return 1L << (row * 8 + col);
+    }
+}
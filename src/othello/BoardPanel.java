@@ -0,0 +1,315 @@
+package othello;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+// Board view for OthelloGUI. The green board and grid, and one opaque cell
+// sprite each for a black disc, a white disc and a move hint, are drawn once
+// into cached images (at the screen's pixel scale, so high-DPI stays sharp)
+// and rebuilt only when the size changes; each frame blits the board and the
+// sprites of the cells that fall inside the clip. Opaque sprites are plain
+// copies, where translucent ones would be blended pixel by pixel. show()
+// takes a snapshot of the position as bitboards (multi-word bitsets, bit
+// row * size + col, for boards other than 8x8) and repaints just the cells
+// that changed, so the panel never reads the model while painting.
+//
+// Optional flip animation: turned discs shrink to an edge and grow back in
+// the new color, driven by a Swing Timer on the EDT. The model has already
+// moved on; only this view lags behind.
+public class BoardPanel extends JPanel {
+    private static final Color BOARD_COLOR = new Color(0, 100, 0);
+    private static final Color GRID_COLOR = Color.BLACK;
+    private static final Color HINT_COLOR = new Color(0, 255, 0, 100);
+    private static final int ANIMATION_MS = 240;
+    private static final int ANIMATION_FRAME_MS = 15;
+
+    private final int size;
+    private final long[] black;
+    private final long[] white;
+    private final long[] hints;
+    // Scratch words for the single-long show()
+    private final long[] blackWord = new long[1];
+    private final long[] whiteWord = new long[1];
+    private final long[] hintWord = new long[1];
+
+    private boolean animated;
+    private final long[] flipping;
+    private final long[] turned;
+    private final long[] dirty;
+    private long animationStart;
+    private final Timer animationTimer;
+
+    private BufferedImage background;
+    private BufferedImage blackSprite;
+    private BufferedImage whiteSprite;
+    private BufferedImage hintSprite;
+    private int imageCell;
+    private double imageScale;
+
+    private long frames;
+    private long frameNanos;
+    private long maxFrameNanos;
+
+    public BoardPanel(int cellSize) {
+        this(OthelloModel.BOARD_SIZE, cellSize);
+    }
+
+    // A board of size x size squares
+    public BoardPanel(int size, int cellSize) {
+        this.size = size;
+        int words = (size * size + 63) / 64;
+        black = new long[words];
+        white = new long[words];
+        hints = new long[words];
+        flipping = new long[words];
+        turned = new long[words];
+        dirty = new long[words];
+        setPreferredSize(new Dimension(cellSize * size, cellSize * size));
+        setBackground(BOARD_COLOR);
+        setOpaque(true);
+        animationTimer = new Timer(ANIMATION_FRAME_MS, e -> animationFrame());
+    }
+
+    public void setAnimated(boolean animated) {
+        this.animated = animated;
+    }
+
+    public boolean isAnimated() {
+        return animated;
+    }
+
+    // Side of one square in pixels; the board fills the smaller dimension
+    public int cellSize() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / size);
+    }
+
+    public int boardSize() {
+        return size;
+    }
+
+    // Square under a point as row * size + col (Move.of on 8x8), or
+    // Move.NONE outside the board
+    public int squareAt(int x, int y) {
+        int cell = cellSize();
+        int row = y / cell;
+        int col = x / cell;
+        if (x < 0 || y < 0 || row >= size || col >= size) {
+            return Move.NONE;
+        }
+        return row * size + col;
+    }
+
+    // Shows an 8x8 position; hints are squares to mark as playable
+    public void show(long black, long white, long hints) {
+        blackWord[0] = black;
+        whiteWord[0] = white;
+        hintWord[0] = hints;
+        show(blackWord, whiteWord, hintWord);
+    }
+
+    // Shows a position of any size, copying the bitsets. Discs that changed
+    // color since the last call are animated if enabled.
+    public void show(long[] black, long[] white, long[] hints) {
+        if (black.length != this.black.length) {
+            throw new IllegalArgumentException("Expected " + this.black.length + " words for a board of size " + size);
+        }
+        boolean flipped = false;
+        for (int i = 0; i < black.length; i++) {
+            turned[i] = (this.black[i] & white[i]) | (this.white[i] & black[i]);
+            flipped |= turned[i] != 0;
+            dirty[i] = (this.black[i] ^ black[i]) | (this.white[i] ^ white[i]) | (this.hints[i] ^ hints[i]) | flipping[i];
+            this.black[i] = black[i];
+            this.white[i] = white[i];
+            this.hints[i] = hints[i];
+        }
+        if (flipped) {
+            // A new move cuts short the previous animation
+            boolean animate = animated && isShowing();
+            for (int i = 0; i < turned.length; i++) {
+                flipping[i] = animate ? turned[i] : 0;
+            }
+            animationStart = System.nanoTime();
+            if (animate) animationTimer.start();
+            else animationTimer.stop();
+        }
+        repaintCells(dirty);
+    }
+
+    private void repaintCells(long[] cells) {
+        int cell = cellSize();
+        for (int i = 0; i < cells.length; i++) {
+            for (long word = cells[i]; word != 0; word &= word - 1) {
+                int sq = i * 64 + Long.numberOfTrailingZeros(word);
+                repaint(sq % size * cell, sq / size * cell, cell, cell);
+            }
+        }
+    }
+
+    private void animationFrame() {
+        if (System.nanoTime() - animationStart >= ANIMATION_MS * 1_000_000L) {
+            animationTimer.stop();
+            System.arraycopy(flipping, 0, dirty, 0, flipping.length);
+            java.util.Arrays.fill(flipping, 0);
+            repaintCells(dirty);
+        } else {
+            repaintCells(flipping);
+        }
+    }
+
+    private static boolean has(long[] bits, int sq) {
+        return (bits[sq >>> 6] & 1L << sq) != 0;
+    }
+
+    private boolean isFlipping() {
+        for (long word : flipping) {
+            if (word != 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        Graphics2D g2 = (Graphics2D) g;
+        int cell = cellSize();
+        double scale = g2.getTransform().getScaleX();
+        if (background == null || imageCell != cell || imageScale != scale) {
+            background = renderBackground(size, cell, scale);
+            blackSprite = renderSprite(cell, scale, true);
+            whiteSprite = renderSprite(cell, scale, false);
+            hintSprite = renderHint(cell, scale);
+            imageCell = cell;
+            imageScale = scale;
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        if (clip.x + clip.width > cell * size || clip.y + clip.height > cell * size) {
+            // Margin around a board that does not fill the panel
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        }
+        g.drawImage(background, 0, 0, cell * size, cell * size, null);
+
+        int firstRow = Math.max(0, clip.y / cell);
+        int lastRow = Math.min(size - 1, (clip.y + clip.height - 1) / cell);
+        int firstCol = Math.max(0, clip.x / cell);
+        int lastCol = Math.min(size - 1, (clip.x + clip.width - 1) / cell);
+        double progress = !isFlipping() ? 1 : Math.min(1, (System.nanoTime() - animationStart) / 1e6 / ANIMATION_MS);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int sq = row * size + col;
+                boolean isBlack = has(black, sq);
+                if (isBlack || has(white, sq)) {
+                    if (progress < 1 && has(flipping, sq)) {
+                        // First half: the old color narrows; second half: the new one widens
+                        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                        drawPiece(g, row, col, progress < 0.5 ? !isBlack : isBlack, Math.abs(1 - 2 * progress), cell);
+                    } else {
+                        g.drawImage(isBlack ? blackSprite : whiteSprite, col * cell, row * cell, cell, cell, null);
+                    }
+                } else if (has(hints, sq)) {
+                    g.drawImage(hintSprite, col * cell, row * cell, cell, cell, null);
+                }
+            }
+        }
+
+        // Sprites cover the closing grid lines of the last row and column
+        int pixels = cell * size;
+        g.setColor(GRID_COLOR);
+        if (lastCol == size - 1) g.drawLine(pixels - 1, 0, pixels - 1, pixels);
+        if (lastRow == size - 1) g.drawLine(0, pixels - 1, pixels, pixels - 1);
+
+        long elapsed = System.nanoTime() - start;
+        frames++;
+        frameNanos += elapsed;
+        maxFrameNanos = Math.max(maxFrameNanos, elapsed);
+    }
+
+    // Board and grid at device resolution
+    private static BufferedImage renderBackground(int squares, int cell, double scale) {
+        int size = cell * squares;
+        int pixels = (int) Math.ceil(size * scale);
+        BufferedImage image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+        g.setColor(BOARD_COLOR);
+        g.fillRect(0, 0, size, size);
+        g.setColor(GRID_COLOR);
+        for (int i = 0; i <= squares; i++) {
+            int p = Math.min(i * cell, size - 1);
+            g.drawLine(p, 0, p, size);
+            g.drawLine(0, p, size, p);
+        }
+        g.dispose();
+        return image;
+    }
+
+    // One cell with its board color and top and left grid lines, then a disc
+    private static BufferedImage renderSprite(int cell, double scale, boolean isBlack) {
+        BufferedImage image = cellImage(cell, scale);
+        Graphics2D g = image.createGraphics();
+        g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        drawPiece(g, 0, 0, isBlack, 1, cell);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage renderHint(int cell, double scale) {
+        BufferedImage image = cellImage(cell, scale);
+        Graphics2D g = image.createGraphics();
+        g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+        g.setColor(HINT_COLOR);
+        g.fillRect(cell / 3, cell / 3, cell / 3, cell / 3);
+        g.dispose();
+        return image;
+    }
+
+    // An empty cell as it appears on the background
+    private static BufferedImage cellImage(int cell, double scale) {
+        int pixels = Math.max(1, (int) Math.ceil(cell * scale));
+        BufferedImage image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+        g.setColor(BOARD_COLOR);
+        g.fillRect(0, 0, cell, cell);
+        g.setColor(GRID_COLOR);
+        g.drawLine(0, 0, cell, 0);
+        g.drawLine(0, 0, 0, cell);
+        g.dispose();
+        return image;
+    }
+
+    private static void drawPiece(Graphics g, int row, int col, boolean isBlack, double widthFactor, int cell) {
+        int diameter = cell - cell / 5;
+        int width = Math.max(1, (int) Math.round(diameter * widthFactor));
+        int x = col * cell + cell / 10 + (diameter - width) / 2;
+        int y = row * cell + cell / 10;
+
+        g.setColor(isBlack ? Color.BLACK : Color.WHITE);
+        g.fillOval(x, y, width, diameter);
+        g.setColor(Color.BLACK);
+        g.drawOval(x, y, width, diameter);
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public double getAverageFrameMillis() {
+        return frames == 0 ? 0 : frameNanos / 1e6 / frames;
+    }
+
+    public double getMaxFrameMillis() {
+        return maxFrameNanos / 1e6;
+    }
+
+    public void resetFrameStats() {
+        frames = 0;
+        frameNanos = 0;
+        maxFrameNanos = 0;
+    }
+}
@@ -0,0 +1,414 @@
+package othello;
+
+// Exact endgame search. Scores are final disc differentials from the point of
+// view of the side to move, counted the same way as OthelloModel.getScore
+// (empty squares left at the end count for nobody).
+//
+// Above FASTEST_FIRST_EMPTIES, moves that leave the opponent the fewest
+// replies are searched first and results go to a transposition table. Below
+// it, the empty squares are walked from a linked list, squares in quadrants
+// with an odd number of empties first. The last four empties have their own
+// solvers that skip move generation altogether. Not thread-safe.
+public class EndgameSolver {
+    public static final int NO_MOVE = SearchEngine.NO_MOVE;
+
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    private static final int MIN_TABLE_EMPTIES = 10;
+    private static final int TIME_CHECK_MASK = 4095;
+    private static final int INFINITY = 65;
+    private static final int HEAD = 64;
+    private static final int DEFAULT_TABLE_MB = 8;
+
+    // Corners first, X-squares last; the linked list keeps this order
+    private static final int[] SQUARE_ORDER = {
+            0, 7, 56, 63,
+            2, 5, 16, 23, 40, 47, 58, 61,
+            3, 4, 24, 31, 32, 39, 59, 60,
+            18, 21, 42, 45,
+            19, 20, 26, 29, 34, 37, 43, 44,
+            11, 12, 25, 30, 33, 38, 51, 52,
+            10, 13, 17, 22, 41, 46, 50, 53,
+            1, 6, 8, 15, 48, 55, 57, 62,
+            9, 14, 49, 54,
+            27, 28, 35, 36
+    };
+    private static final int[] QUADRANT_BIT = new int[64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8;
+            int col = sq % 8;
+            QUADRANT_BIT[sq] = 1 << ((row >= 4 ? 2 : 0) + (col >= 4 ? 1 : 0));
+        }
+    }
+
+    private final TranspositionTable table;
+    private final int[] next = new int[65];
+    private final int[] prev = new int[65];
+    private final int[][] moveBuffers = new int[64][64];
+    private final int[][] scoreBuffers = new int[64][64];
+    private int parity;
+
+    private long nodes;
+    private long deadline;
+    private boolean timeUp;
+    private volatile boolean stopRequested;
+    private int bestMove;
+
+    public EndgameSolver() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    public EndgameSolver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    // Exact final disc differential with best play
+    public int solveExact(long own, long opp) {
+        return solve(own, opp, -INFINITY, INFINITY, Long.MAX_VALUE);
+    }
+
+    // 1 for a win, 0 for a draw, -1 for a loss; much cheaper than solveExact
+    public int solveWinLossDraw(long own, long opp) {
+        return Integer.signum(solve(own, opp, -1, 1, Long.MAX_VALUE));
+    }
+
+    // Exact score, giving up at the deadline (System.nanoTime). Check
+    // isTimeUp() before trusting the result; getBestMove() has the move.
+    public int solve(long own, long opp, long deadline) {
+        return solve(own, opp, -INFINITY, INFINITY, deadline);
+    }
+
+    // Exact score within (alpha, beta); outside it only a bound
+    public int solve(long own, long opp, int alpha, int beta, long deadline) {
+        this.deadline = deadline;
+        stopRequested = false;
+        timeUp = false;
+        nodes = 0;
+        bestMove = NO_MOVE;
+        table.newSearch();
+        int empties = initEmpties(own, opp);
+        return root(own, opp, alpha, beta, empties);
+    }
+
+    private int initEmpties(long own, long opp) {
+        long empty = ~(own | opp);
+        int last = HEAD;
+        int count = 0;
+        parity = 0;
+        for (int sq : SQUARE_ORDER) {
+            if ((empty & (1L << sq)) != 0) {
+                next[last] = sq;
+                prev[sq] = last;
+                last = sq;
+                parity ^= QUADRANT_BIT[sq];
+                count++;
+            }
+        }
+        next[last] = HEAD;
+        prev[HEAD] = last;
+        return count;
+    }
+
+    private int root(long own, long opp, int alpha, int beta, int empties) {
+        long moves = Bitboard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (Bitboard.legalMoves(opp, own) == 0) return finalScore(own, opp);
+            int score = -root(opp, own, -beta, -alpha, empties);
+            bestMove = NO_MOVE;
+            return score;
+        }
+
+        int count = orderFastestFirst(own, opp, moves, empties);
+        int[] buffer = moveBuffers[empties];
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int sq = buffer[i];
+            long flipped = Bitboard.flips(own, opp, sq);
+            remove(sq);
+            int score = -solveDeep(opp & ~flipped, own | flipped | (1L << sq), -beta, -alpha, empties - 1);
+            restore(sq);
+            if (timeUp) break;
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int solveDeep(long own, long opp, int alpha, int beta, int empties) {
+        if ((++nodes & TIME_CHECK_MASK) == 0 && (stopRequested || System.nanoTime() > deadline)) {
+            timeUp = true;
+        }
+        if (timeUp) return 0;
+
+        if (empties <= 4) {
+            return solveLast(own, opp, alpha, beta, empties);
+        }
+
+        long hash = 0;
+        if (empties >= MIN_TABLE_EMPTIES) {
+            hash = Zobrist.hash(own, opp, false);
+            long entry = table.probe(hash);
+            if (entry != 0) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        if (empties > FASTEST_FIRST_EMPTIES) {
+            long moves = Bitboard.legalMoves(own, opp);
+            if (moves == 0) return pass(own, opp, alpha, beta, empties);
+            int count = orderFastestFirst(own, opp, moves, empties);
+            int[] buffer = moveBuffers[empties];
+            for (int i = 0; i < count; i++) {
+                int sq = buffer[i];
+                long flipped = Bitboard.flips(own, opp, sq);
+                remove(sq);
+                int score = -solveDeep(opp & ~flipped, own | flipped | (1L << sq), -beta, -alpha, empties - 1);
+                restore(sq);
+                if (score > best) {
+                    best = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) break;
+                    }
+                }
+            }
+        } else {
+            // Two passes over the empty list: odd quadrants, then even ones
+            searchList:
+            for (int wantOdd = 1; wantOdd >= 0; wantOdd--) {
+                for (int sq = next[HEAD]; sq != HEAD; sq = next[sq]) {
+                    if (((parity & QUADRANT_BIT[sq]) != 0 ? 1 : 0) != wantOdd) continue;
+                    long flipped = Bitboard.flips(own, opp, sq);
+                    if (flipped == 0) continue;
+                    remove(sq);
+                    int score = -solveDeep(opp & ~flipped, own | flipped | (1L << sq), -beta, -alpha, empties - 1);
+                    restore(sq);
+                    if (score > best) {
+                        best = score;
+                        if (score > alpha) {
+                            alpha = score;
+                            if (alpha >= beta) break searchList;
+                        }
+                    }
+                }
+            }
+            if (best == -INFINITY) return pass(own, opp, alpha, beta, empties);
+        }
+
+        if (empties >= MIN_TABLE_EMPTIES && !timeUp) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : best >= beta ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            table.store(hash, empties, bound, best, NO_MOVE);
+        }
+        return best;
+    }
+
+    private int pass(long own, long opp, int alpha, int beta, int empties) {
+        if (Bitboard.legalMoves(opp, own) == 0) return finalScore(own, opp);
+        return -solveDeep(opp, own, -beta, -alpha, empties);
+    }
+
+    // Collects the last few empties, odd quadrants first, and hands them to
+    // the dedicated solvers
+    private int solveLast(long own, long opp, int alpha, int beta, int empties) {
+        int s1 = 0, s2 = 0, s3 = 0, s4 = 0;
+        int n = 0;
+        for (int wantOdd = 1; wantOdd >= 0; wantOdd--) {
+            for (int sq = next[HEAD]; sq != HEAD; sq = next[sq]) {
+                if (((parity & QUADRANT_BIT[sq]) != 0 ? 1 : 0) != wantOdd) continue;
+                switch (n++) {
+                    case 0: s1 = sq; break;
+                    case 1: s2 = sq; break;
+                    case 2: s3 = sq; break;
+                    default: s4 = sq; break;
+                }
+            }
+        }
+        switch (empties) {
+            case 4: return solve4(own, opp, alpha, beta, s1, s2, s3, s4);
+            case 3: return solve3(own, opp, alpha, beta, s1, s2, s3);
+            case 2: return solve2(own, opp, alpha, beta, s1, s2);
+            case 1: return solve1(own, opp, s1);
+            default: return finalScore(own, opp);
+        }
+    }
+
+    private int solve4(long own, long opp, int alpha, int beta, int s1, int s2, int s3, int s4) {
+        nodes++;
+        int best = -INFINITY;
+        long flipped = Bitboard.flips(own, opp, s1);
+        if (flipped != 0) {
+            best = -solve3(opp & ~flipped, own | flipped | (1L << s1), -beta, -alpha, s2, s3, s4);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+        flipped = Bitboard.flips(own, opp, s2);
+        if (flipped != 0) {
+            int score = -solve3(opp & ~flipped, own | flipped | (1L << s2), -beta, -alpha, s1, s3, s4);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+        }
+        flipped = Bitboard.flips(own, opp, s3);
+        if (flipped != 0) {
+            int score = -solve3(opp & ~flipped, own | flipped | (1L << s3), -beta, -alpha, s1, s2, s4);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+        }
+        flipped = Bitboard.flips(own, opp, s4);
+        if (flipped != 0) {
+            int score = -solve3(opp & ~flipped, own | flipped | (1L << s4), -beta, -alpha, s1, s2, s3);
+            if (score > best) best = score;
+        }
+        if (best == -INFINITY) {
+            long empty = (1L << s1) | (1L << s2) | (1L << s3) | (1L << s4);
+            if ((Bitboard.legalMoves(opp, own) & empty) == 0) return finalScore(own, opp);
+            return -solve4(opp, own, -beta, -alpha, s1, s2, s3, s4);
+        }
+        return best;
+    }
+
+    private int solve3(long own, long opp, int alpha, int beta, int s1, int s2, int s3) {
+        nodes++;
+        int best = -INFINITY;
+        long flipped = Bitboard.flips(own, opp, s1);
+        if (flipped != 0) {
+            best = -solve2(opp & ~flipped, own | flipped | (1L << s1), -beta, -alpha, s2, s3);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+        flipped = Bitboard.flips(own, opp, s2);
+        if (flipped != 0) {
+            int score = -solve2(opp & ~flipped, own | flipped | (1L << s2), -beta, -alpha, s1, s3);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+        }
+        flipped = Bitboard.flips(own, opp, s3);
+        if (flipped != 0) {
+            int score = -solve2(opp & ~flipped, own | flipped | (1L << s3), -beta, -alpha, s1, s2);
+            if (score > best) best = score;
+        }
+        if (best == -INFINITY) {
+            long empty = (1L << s1) | (1L << s2) | (1L << s3);
+            if ((Bitboard.legalMoves(opp, own) & empty) == 0) return finalScore(own, opp);
+            return -solve3(opp, own, -beta, -alpha, s1, s2, s3);
+        }
+        return best;
+    }
+
+    private int solve2(long own, long opp, int alpha, int beta, int s1, int s2) {
+        nodes++;
+        int best = -INFINITY;
+        long flipped = Bitboard.flips(own, opp, s1);
+        if (flipped != 0) {
+            best = -solve1(opp & ~flipped, own | flipped | (1L << s1), s2);
+            if (best >= beta) return best;
+        }
+        flipped = Bitboard.flips(own, opp, s2);
+        if (flipped != 0) {
+            int score = -solve1(opp & ~flipped, own | flipped | (1L << s2), s1);
+            if (score > best) best = score;
+        }
+        if (best == -INFINITY) {
+            if (Bitboard.flips(opp, own, s1) == 0 && Bitboard.flips(opp, own, s2) == 0) {
+                return finalScore(own, opp);
+            }
+            return -solve2(opp, own, -beta, -alpha, s1, s2);
+        }
+        return best;
+    }
+
+    // One empty square left: at most one more disc is placed, so the score
+    // follows straight from the flip count
+    private int solve1(long own, long opp, int sq) {
+        nodes++;
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        int flips = Long.bitCount(Bitboard.flips(own, opp, sq));
+        if (flips != 0) return diff + 2 * flips + 1;
+        flips = Long.bitCount(Bitboard.flips(opp, own, sq));
+        if (flips != 0) return diff - 2 * flips - 1;
+        return diff;
+    }
+
+    // Fills moveBuffers[empties] so moves leaving the opponent the fewest
+    // replies come first; corners break ties
+    private int orderFastestFirst(long own, long opp, long moves, int empties) {
+        int[] buffer = moveBuffers[empties];
+        int[] scores = scoreBuffers[empties];
+        int count = 0;
+        while (moves != 0) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            long flipped = Bitboard.flips(own, opp, sq);
+            long newOwn = own | flipped | (1L << sq);
+            long newOpp = opp & ~flipped;
+            long replies = Bitboard.legalMoves(newOpp, newOwn);
+            int score = -16 * (Long.bitCount(replies) + Long.bitCount(replies & 0x8100000000000081L));
+            if (sq == 0 || sq == 7 || sq == 56 || sq == 63) score += 8;
+
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            buffer[i] = sq;
+        }
+        return count;
+    }
+
+    private void remove(int sq) {
+        next[prev[sq]] = next[sq];
+        prev[next[sq]] = prev[sq];
+        parity ^= QUADRANT_BIT[sq];
+    }
+
+    private void restore(int sq) {
+        next[prev[sq]] = sq;
+        prev[next[sq]] = sq;
+        parity ^= QUADRANT_BIT[sq];
+    }
+
+    private static int finalScore(long own, long opp) {
+        return Long.bitCount(own) - Long.bitCount(opp);
+    }
+
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public boolean isTimeUp() {
+        return timeUp;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
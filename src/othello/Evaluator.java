@@ -0,0 +1,6 @@
+package othello;
+
+// Static evaluation of a position from the point of view of the side to move
+public interface Evaluator {
+    int evaluate(long own, long opp);
+}
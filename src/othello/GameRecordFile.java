@@ -0,0 +1,354 @@
+package othello;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Binary game records: one byte per move. A file is an 8-byte header (int
+// MAGIC, int VERSION) followed by records, each laid out little-endian as
+//   byte  flags           FLAG_CUSTOM_START if a start position follows
+//   [long black, long white, byte side to move]   only with FLAG_CUSTOM_START
+//   short metadata length, then that many bytes of UTF-8 metadata
+//   byte  result          final black minus white discs, or NO_RESULT
+//   byte  move count      unsigned, then one byte per move: 0-63 or PASS
+// Passes may be recorded or left out; replay() skips them because
+// OthelloModel passes automatically.
+//
+// The text notation is one game per line: the moves concatenated ("f5d6c3",
+// "pass" allowed), optionally followed by "# metadata". Games always start
+// from the initial position in text.
+//
+// Usage: java othello.GameRecordFile to-binary <text> <records>
+//        java othello.GameRecordFile to-text <records> <text>
+public final class GameRecordFile {
+    public static final int MAGIC = 0x43455247; // "GREC"
+    public static final int VERSION = 1;
+    public static final int FLAG_CUSTOM_START = 1;
+    public static final int NO_RESULT = 127;
+    public static final int PASS = Move.PASS;
+    // Largest possible record, used to remap the reader's window in time
+    private static final int MAX_RECORD_BYTES = 1 + 17 + 2 + 0xFFFF + 2 + 255;
+
+    private GameRecordFile() {
+    }
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long games;
+
+        public Writer(Path file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            out.writeInt(Integer.reverseBytes(MAGIC));
+            out.writeInt(Integer.reverseBytes(VERSION));
+        }
+
+        // A game from the initial position
+        public void write(int[] moves, int count, int result, String metadata) throws IOException {
+            write(0, 0, 0, 0, moves, count, result, metadata);
+        }
+
+        // A game from any position; player is OthelloModel.BLACK or WHITE
+        public void write(long black, long white, int player, int[] moves, int count, int result, String metadata)
+                throws IOException {
+            write(FLAG_CUSTOM_START, black, white, player, moves, count, result, metadata);
+        }
+
+        private void write(int flags, long black, long white, int player, int[] moves, int count, int result,
+                String metadata) throws IOException {
+            byte[] meta = metadata == null ? new byte[0] : metadata.getBytes(StandardCharsets.UTF_8);
+            if (meta.length > 0xFFFF) {
+                throw new IllegalArgumentException("Metadata too long: " + meta.length + " bytes");
+            }
+            if (count > 255) {
+                throw new IllegalArgumentException("Too many moves: " + count);
+            }
+            if (result != NO_RESULT && (result < -64 || result > 64)) {
+                throw new IllegalArgumentException("Invalid result: " + result);
+            }
+            for (int i = 0; i < count; i++) {
+                if (moves[i] < 0 || moves[i] > PASS) {
+                    throw new IllegalArgumentException("Invalid move: " + moves[i]);
+                }
+            }
+            out.writeByte(flags);
+            if ((flags & FLAG_CUSTOM_START) != 0) {
+                out.writeLong(Long.reverseBytes(black));
+                out.writeLong(Long.reverseBytes(white));
+                out.writeByte(player);
+            }
+            out.writeShort(Short.reverseBytes((short) meta.length));
+            out.write(meta);
+            out.writeByte(result);
+            out.writeByte(count);
+            for (int i = 0; i < count; i++) {
+                out.writeByte(moves[i]);
+            }
+            games++;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // Walks the records of a memory-mapped file in place. Accessors read
+    // straight from the mapping and only metadata() allocates.
+    // Usage: while (reader.next()) { reader.replay(model); ... }
+    public static final class Reader implements Closeable {
+        private static final long WINDOW_BYTES = 1L << 30;
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private int next;
+
+        private int flags;
+        private int metaOffset;
+        private int metaLength;
+        private int startOffset;
+        private int result;
+        private int movesOffset;
+        private int moveCount;
+
+        public Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            size = channel.size();
+            map(0);
+            if (size < 8 || window.getInt(0) != MAGIC || window.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalArgumentException("Not a game record file: " + file);
+            }
+            next = 8;
+        }
+
+        private void map(long start) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        public boolean next() throws IOException {
+            if (windowStart + next >= size) return false;
+            if (next > window.limit() - MAX_RECORD_BYTES && windowStart + window.limit() < size) {
+                map(windowStart + next);
+                next = 0;
+            }
+            int p = next;
+            try {
+                flags = window.get(p++);
+                if ((flags & FLAG_CUSTOM_START) != 0) {
+                    startOffset = p;
+                    p += 17;
+                }
+                metaLength = Short.toUnsignedInt(window.getShort(p));
+                metaOffset = p + 2;
+                p = metaOffset + metaLength;
+                result = window.get(p++);
+                moveCount = Byte.toUnsignedInt(window.get(p++));
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalStateException("Truncated game record");
+            }
+            movesOffset = p;
+            next = p + moveCount;
+            if (next > window.limit()) {
+                throw new IllegalStateException("Truncated game record");
+            }
+            return true;
+        }
+
+        public int moveCount() {
+            return moveCount;
+        }
+
+        // Square 0-63 or PASS
+        public int move(int i) {
+            return window.get(movesOffset + i);
+        }
+
+        // Black minus white discs at the end, or NO_RESULT
+        public int result() {
+            return result;
+        }
+
+        public boolean hasCustomStart() {
+            return (flags & FLAG_CUSTOM_START) != 0;
+        }
+
+        public long startBlack() {
+            return hasCustomStart() ? window.getLong(startOffset) : Bitboard.INITIAL_BLACK;
+        }
+
+        public long startWhite() {
+            return hasCustomStart() ? window.getLong(startOffset + 8) : Bitboard.INITIAL_WHITE;
+        }
+
+        public int startPlayer() {
+            return hasCustomStart() ? window.get(startOffset + 16) : OthelloModel.BLACK;
+        }
+
+        public String metadata() {
+            byte[] bytes = new byte[metaLength];
+            window.get(metaOffset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // Puts the current game's final position into model, reusing it
+        public void replay(OthelloModel model) {
+            model.setPosition(startBlack(), startWhite(), startPlayer());
+            for (int i = 0; i < moveCount; i++) {
+                int move = move(i);
+                if (move != PASS) model.makeMove(move);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Text move list of the current record, passes included
+    public static String toText(Reader reader) {
+        StringBuilder sb = new StringBuilder(2 * reader.moveCount() + 32);
+        for (int i = 0; i < reader.moveCount(); i++) {
+            sb.append(Move.toString(reader.move(i)));
+        }
+        String metadata = reader.metadata();
+        if (!metadata.isEmpty()) sb.append(" # ").append(metadata);
+        return sb.toString();
+    }
+
+    // The games of a file as text move lists, for consumers of the text
+    // notation such as BatchAnalyzer; games must start from the initial position
+    public static Iterator<String> texts(Reader reader) {
+        return new Iterator<>() {
+            private boolean ready;
+            private boolean more;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    try {
+                        more = reader.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    ready = true;
+                }
+                return more;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = false;
+                if (reader.hasCustomStart()) {
+                    throw new IllegalArgumentException("Game has a custom start position");
+                }
+                return toText(reader);
+            }
+        };
+    }
+
+    // Parses a text game into moves (returns the count) and replays it into
+    // model to check legality; throws IllegalArgumentException otherwise
+    public static int parseText(String line, int[] moves, OthelloModel model) {
+        int hash = line.indexOf('#');
+        String text = (hash >= 0 ? line.substring(0, hash) : line).replaceAll("\\s+", "").toLowerCase();
+        model.setPosition(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, OthelloModel.BLACK);
+        int count = 0;
+        for (int i = 0; i < text.length(); ) {
+            int move;
+            if (text.startsWith("pass", i)) {
+                move = PASS;
+                i += 4;
+            } else if (i + 2 <= text.length()) {
+                move = Move.parse(text.substring(i, i + 2));
+                i += 2;
+                if (!model.isValidMove(Move.row(move), Move.col(move))) {
+                    throw new IllegalArgumentException("Illegal move " + Move.toString(move) + " in: " + line);
+                }
+                model.makeMove(move);
+            } else {
+                throw new IllegalArgumentException("Invalid move list: " + line);
+            }
+            if (count == moves.length) {
+                throw new IllegalArgumentException("Too many moves: " + line);
+            }
+            moves[count++] = move;
+        }
+        return count;
+    }
+
+    public static String textMetadata(String line) {
+        int hash = line.indexOf('#');
+        return hash >= 0 ? line.substring(hash + 1).trim() : "";
+    }
+
+    // Result byte for a replayed model: the disc difference once the game is over
+    public static int result(OthelloModel model) {
+        return model.isGameOver() ? model.getBlackCount() - model.getWhiteCount() : NO_RESULT;
+    }
+
+    public static long textToBinary(Path text, Path records) throws IOException {
+        int[] moves = new int[255];
+        OthelloModel model = new OthelloModel();
+        try (BufferedReader in = Files.newBufferedReader(text);
+             Writer writer = new Writer(records)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                int count = parseText(line, moves, model);
+                writer.write(moves, count, result(model), textMetadata(line));
+            }
+            return writer.getGames();
+        }
+    }
+
+    public static long binaryToText(Path records, Path text) throws IOException {
+        long games = 0;
+        try (Reader reader = new Reader(records);
+             BufferedWriter out = Files.newBufferedWriter(text)) {
+            for (Iterator<String> it = texts(reader); it.hasNext(); games++) {
+                out.write(it.next());
+                out.newLine();
+            }
+        }
+        return games;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: java othello.GameRecordFile to-binary|to-text <input> <output>");
+            System.exit(2);
+        }
+        long games;
+        if (args[0].equals("to-binary")) {
+            games = textToBinary(Path.of(args[1]), Path.of(args[2]));
+        } else if (args[0].equals("to-text")) {
+            games = binaryToText(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+        System.out.println(games + " games converted");
+    }
+}
@@ -0,0 +1,414 @@
+package othello;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless game server. One selector thread owns every connection and every
+// OthelloModel; AI moves are searched on a fixed compute pool and handed back
+// to the selector thread, so models are never shared between threads.
+//
+// Fairness: a game has at most one search queued or running, and the pool
+// takes searches first come, first served, so every waiting game gets a turn
+// before any game gets a second one. Each game has a clock; a move may use
+// a share of the remaining time, capped at the per-move limit.
+//
+// Protocol, one command per line; replies are single lines too:
+//   NEW HUMAN [clockMs]   -> GAME <id> <position>    you are black, AI is white
+//   NEW AI [clockMs]      -> GAME <id> <position>    AI plays both sides
+//   MOVE <id> <square>    -> MOVED <id> <square> <position>, then the AI reply
+//   BOARD <id>            -> BOARD <id> <position>
+//   QUIT <id>             -> BYE <id>
+// The server also sends MOVED for AI moves and OVER <id> <black> <white> when
+// a game ends. Errors come back as ERR <message>; a game whose AI search
+// fails is closed with one. Positions use the OthelloModel.toString format,
+// with '_' instead of the space. A client that stops reading its replies
+// stops being read, and is dropped if its replies keep piling up.
+//
+// Usage: java othello.GameServer [--port P] [--threads N] [--clock MS] [--move-limit MS]
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7364;
+    private static final long DEFAULT_CLOCK_MS = 30_000;
+    private static final long DEFAULT_MOVE_LIMIT_MS = 1_000;
+    private static final long MIN_MOVE_MS = 5;
+    // Small tables: there is one engine per compute thread, shared by all games
+    private static final int ENGINE_TABLE_MB = 8;
+    // Replies queued for a client that does not read: above the first, the
+    // server stops reading its commands; above the second, which only AI
+    // games already running can reach, it drops the connection
+    private static final int OUTPUT_PAUSE_BYTES = 64 * 1024;
+    private static final int OUTPUT_LIMIT_BYTES = 1024 * 1024;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService computePool;
+    private final ThreadLocal<SearchEngine> engines;
+    private final long defaultClockMs;
+    private final long moveLimitMs;
+    private final ConcurrentLinkedQueue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Game> games = new HashMap<>();
+    private final AtomicInteger activeGames = new AtomicInteger();
+    private int nextGameId = 1;
+    private volatile boolean running = true;
+    private volatile Thread selectorThread;
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(1024);
+        final StringBuilder line = new StringBuilder();
+        final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+        int outputBytes;
+        final Map<Integer, Game> games = new HashMap<>();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Game {
+        final int id;
+        final Connection owner;
+        final OthelloModel model = new OthelloModel();
+        final boolean aiPlaysBoth;
+        long clockRemainingNanos;
+        boolean searching;
+        boolean closed;
+
+        Game(int id, Connection owner, boolean aiPlaysBoth, long clockMs) {
+            this.id = id;
+            this.owner = owner;
+            this.aiPlaysBoth = aiPlaysBoth;
+            this.clockRemainingNanos = clockMs * 1_000_000L;
+        }
+    }
+
+    public GameServer(int port, int computeThreads, long defaultClockMs, long moveLimitMs) throws IOException {
+        this(port, computeThreads, defaultClockMs, moveLimitMs, PatternEvaluator::defaultEvaluator);
+    }
+
+    GameServer(int port, int computeThreads, long defaultClockMs, long moveLimitMs,
+               java.util.function.Supplier<Evaluator> evaluators) throws IOException {
+        this.defaultClockMs = defaultClockMs;
+        this.moveLimitMs = moveLimitMs;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        // Unbounded FIFO queue, but each game queues at most one search, so it
+        // never holds more entries than there are games
+        computePool = new ThreadPoolExecutor(computeThreads, computeThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "game-server-compute");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        engines = ThreadLocal.withInitial(() -> new SearchEngine(evaluators.get(),
+                new TranspositionTable(ENGINE_TABLE_MB)));
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getActiveGames() {
+        return activeGames.get();
+    }
+
+    // Runs the selector loop on the calling thread until close()
+    public void serve() throws IOException {
+        selectorThread = Thread.currentThread();
+        try {
+            loop();
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void loop() throws IOException {
+        while (running) {
+            selector.select();
+            Runnable completion;
+            while ((completion = completions.poll()) != null) {
+                completion.run();
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                try {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    if (key.isValid() && key.isReadable()) read(key);
+                    if (key.isValid() && key.isWritable()) write(key);
+                } catch (IOException e) {
+                    disconnect(key);
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        int read = connection.channel.read(connection.input);
+        if (read < 0) {
+            disconnect(key);
+            return;
+        }
+        connection.input.flip();
+        while (connection.input.hasRemaining()) {
+            char c = (char) connection.input.get();
+            if (c == '\n') {
+                String command = connection.line.toString().trim();
+                connection.line.setLength(0);
+                if (!command.isEmpty()) handle(connection, command);
+            } else if (connection.line.length() < 256) {
+                connection.line.append(c);
+            }
+        }
+        connection.input.clear();
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        while (!connection.output.isEmpty()) {
+            ByteBuffer buffer = connection.output.peek();
+            connection.channel.write(buffer);
+            if (buffer.hasRemaining()) break;
+            connection.output.poll();
+            connection.outputBytes -= buffer.capacity();
+        }
+        updateInterest(key, connection);
+    }
+
+    private void send(Connection connection, String message) {
+        SelectionKey key = connection.channel.keyFor(selector);
+        if (key == null || !key.isValid()) return;
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.US_ASCII);
+        if (connection.outputBytes + bytes.length > OUTPUT_LIMIT_BYTES) {
+            disconnect(key);
+            return;
+        }
+        connection.output.add(ByteBuffer.wrap(bytes));
+        connection.outputBytes += bytes.length;
+        updateInterest(key, connection);
+    }
+
+    // Reads only while the client keeps up with its replies
+    private static void updateInterest(SelectionKey key, Connection connection) {
+        int ops = 0;
+        if (connection.outputBytes < OUTPUT_PAUSE_BYTES) ops |= SelectionKey.OP_READ;
+        if (!connection.output.isEmpty()) ops |= SelectionKey.OP_WRITE;
+        key.interestOps(ops);
+    }
+
+    private void disconnect(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+        if (connection != null) {
+            for (Game game : connection.games.values()) {
+                closeGame(game);
+            }
+            connection.games.clear();
+        }
+    }
+
+    private void handle(Connection connection, String command) {
+        String[] parts = command.split("\\s+");
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "NEW": {
+                    if (parts.length < 2) throw new IllegalArgumentException("usage: NEW HUMAN|AI [clockMs]");
+                    boolean aiPlaysBoth;
+                    if (parts[1].equalsIgnoreCase("AI")) aiPlaysBoth = true;
+                    else if (parts[1].equalsIgnoreCase("HUMAN")) aiPlaysBoth = false;
+                    else throw new IllegalArgumentException("unknown mode " + parts[1]);
+                    long clock = parts.length > 2 ? Long.parseLong(parts[2]) : defaultClockMs;
+                    Game game = new Game(nextGameId++, connection, aiPlaysBoth, clock);
+                    games.put(game.id, game);
+                    connection.games.put(game.id, game);
+                    activeGames.incrementAndGet();
+                    send(connection, "GAME " + game.id + " " + position(game));
+                    if (aiPlaysBoth) scheduleSearch(game);
+                    break;
+                }
+                case "MOVE": {
+                    Game game = game(connection, parts, 3);
+                    if (game.aiPlaysBoth || game.searching || game.model.getCurrentPlayer() != OthelloModel.BLACK) {
+                        throw new IllegalArgumentException("not your turn in game " + game.id);
+                    }
+                    int move = Move.parse(parts[2]);
+                    if (move == Move.PASS || !game.model.isValidMove(Move.row(move), Move.col(move))) {
+                        throw new IllegalArgumentException("illegal move " + parts[2]);
+                    }
+                    play(game, move);
+                    break;
+                }
+                case "BOARD": {
+                    Game game = game(connection, parts, 2);
+                    send(connection, "BOARD " + game.id + " " + position(game));
+                    break;
+                }
+                case "QUIT": {
+                    Game game = game(connection, parts, 2);
+                    connection.games.remove(game.id);
+                    closeGame(game);
+                    send(connection, "BYE " + game.id);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("unknown command " + parts[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            send(connection, "ERR " + e.getMessage());
+        }
+    }
+
+    private Game game(Connection connection, String[] parts, int length) {
+        if (parts.length < length) throw new IllegalArgumentException("missing arguments");
+        Game game = connection.games.get(Integer.parseInt(parts[1]));
+        if (game == null) throw new IllegalArgumentException("no game " + parts[1]);
+        return game;
+    }
+
+    private void closeGame(Game game) {
+        if (!game.closed) {
+            game.closed = true;
+            games.remove(game.id);
+            activeGames.decrementAndGet();
+        }
+    }
+
+    private static String position(Game game) {
+        return game.model.toString().replace(' ', '_');
+    }
+
+    // Applies a move on the selector thread and starts the AI if it is to move
+    private void play(Game game, int move) {
+        game.model.makeMove(move);
+        send(game.owner, "MOVED " + game.id + " " + Move.toString(move) + " " + position(game));
+        if (game.model.isGameOver()) {
+            send(game.owner, "OVER " + game.id + " " + game.model.getBlackCount() + " " + game.model.getWhiteCount());
+            game.owner.games.remove(game.id);
+            closeGame(game);
+        } else if (game.aiPlaysBoth || game.model.getCurrentPlayer() == OthelloModel.WHITE) {
+            scheduleSearch(game);
+        }
+    }
+
+    private void scheduleSearch(Game game) {
+        // Dropped while its last reply was being queued
+        if (game.closed) return;
+        boolean black = game.model.getCurrentPlayer() == OthelloModel.BLACK;
+        long own = black ? game.model.getBlackDiscs() : game.model.getWhiteDiscs();
+        long opp = black ? game.model.getWhiteDiscs() : game.model.getBlackDiscs();
+        int empties = 64 - Long.bitCount(own | opp);
+        // Spread the remaining clock over this side's remaining moves
+        long budget = game.clockRemainingNanos / 1_000_000L / Math.max(1, (empties + 1) / 2);
+        long budgetMs = Math.max(MIN_MOVE_MS, Math.min(moveLimitMs, budget));
+        game.searching = true;
+
+        // A completion is queued whatever happens, or the game would stay
+        // searching forever
+        computePool.execute(() -> {
+            long start = System.nanoTime();
+            Runnable completion;
+            try {
+                int move = engines.get().findBestMove(own, opp, budgetMs);
+                long elapsed = System.nanoTime() - start;
+                completion = () -> {
+                    game.searching = false;
+                    game.clockRemainingNanos = Math.max(0, game.clockRemainingNanos - elapsed);
+                    if (!game.closed) play(game, move);
+                };
+            } catch (RuntimeException | Error e) {
+                // The AI cannot move, so the game cannot go on
+                completion = () -> {
+                    game.searching = false;
+                    if (game.closed) return;
+                    game.owner.games.remove(game.id);
+                    closeGame(game);
+                    send(game.owner, "ERR search failed in game " + game.id + ", game closed: " + e);
+                };
+            }
+            completions.add(completion);
+            selector.wakeup();
+        });
+    }
+
+    // Stops the server; a running serve() closes the connections on its way out
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        Thread thread = selectorThread;
+        if (thread == null) {
+            shutdown();
+        } else if (thread != Thread.currentThread()) {
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void shutdown() throws IOException {
+        if (!selector.isOpen()) return;
+        computePool.shutdownNow();
+        serverChannel.close();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long clock = DEFAULT_CLOCK_MS;
+        long moveLimit = DEFAULT_MOVE_LIMIT_MS;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(Options.value(args, i++)); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                case "--clock": clock = Long.parseLong(Options.value(args, i++)); break;
+                case "--move-limit": moveLimit = Long.parseLong(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        try (GameServer server = new GameServer(port, threads, clock, moveLimit)) {
+            System.out.printf("Listening on 127.0.0.1:%d with %d compute threads%n", server.getPort(), threads);
+            server.serve();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package othello;
+
+// The original computer player: maximizes discs flipped this move
+public class GreedyStrategy implements MoveStrategy {
+    @Override
+    public int chooseMove(OthelloModel model) {
+        return model.computeGreedyMoveIndex();
+    }
+
+    @Override
+    public String name() {
+        return "greedy";
+    }
+}
@@ -0,0 +1,165 @@
+package othello;
+
+import java.util.Arrays;
+
+// Position on a board of any even size, for OthelloModel sizes other than 8x8
+// where the discs no longer fit in one long. Cells are bytes holding
+// OthelloModel.BLACK/WHITE/EMPTY in a 1-D array padded with BORDER cells: a
+// padding column shared by the end of one row and the start of the next, and
+// a padding row above and below the board. A ray then needs no bounds checks,
+// since it stops at the first cell that is not an opponent disc, and the
+// eight directions are fixed index offsets.
+//
+// Squares are array indexes; index() and row()/col() convert.
+final class GridBoard {
+    static final int MIN_SIZE = 4;
+    static final int MAX_SIZE = 32;
+    private static final byte BORDER = 2;
+
+    private final int size;
+    private final int stride;
+    private final byte[] cells;
+    private final int[] directions;
+    private int blackCount;
+    private int whiteCount;
+
+    GridBoard(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("Invalid board size: " + size);
+        }
+        this.size = size;
+        stride = size + 1;
+        cells = new byte[(size + 2) * stride + 1];
+        directions = new int[]{-stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1};
+        int mid = size / 2;
+        int[][] start = new int[size][size];
+        start[mid - 1][mid - 1] = OthelloModel.WHITE;
+        start[mid - 1][mid] = OthelloModel.BLACK;
+        start[mid][mid - 1] = OthelloModel.BLACK;
+        start[mid][mid] = OthelloModel.WHITE;
+        setCells(start);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int index(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    int row(int sq) {
+        return sq / stride - 1;
+    }
+
+    int col(int sq) {
+        return sq % stride - 1;
+    }
+
+    // Replaces the position with a size x size layout of BLACK/WHITE/EMPTY
+    void setCells(int[][] layout) {
+        if (layout.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " rows, got " + layout.length);
+        }
+        Arrays.fill(cells, BORDER);
+        blackCount = 0;
+        whiteCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (layout[row].length != size) {
+                throw new IllegalArgumentException("Expected " + size + " columns in row " + row);
+            }
+            for (int col = 0; col < size; col++) {
+                int piece = layout[row][col];
+                if (piece == OthelloModel.BLACK) blackCount++;
+                else if (piece == OthelloModel.WHITE) whiteCount++;
+                else if (piece != OthelloModel.EMPTY) throw new IllegalArgumentException("Invalid piece: " + piece);
+                cells[index(row, col)] = (byte) piece;
+            }
+        }
+    }
+
+    int get(int sq) {
+        return cells[sq];
+    }
+
+    int count(int player) {
+        return player == OthelloModel.BLACK ? blackCount : whiteCount;
+    }
+
+    boolean isLegal(int sq, int player) {
+        if (cells[sq] != OthelloModel.EMPTY) return false;
+        for (int d : directions) {
+            int i = sq + d;
+            if (cells[i] != -player) continue;
+            do {
+                i += d;
+            } while (cells[i] == -player);
+            if (cells[i] == player) return true;
+        }
+        return false;
+    }
+
+    // Writes the player's legal squares to out in index order; returns how many
+    int legalMoves(int player, int[] out) {
+        int count = 0;
+        int last = index(size - 1, size - 1);
+        for (int sq = index(0, 0); sq <= last; sq++) {
+            if (cells[sq] == OthelloModel.EMPTY && isLegal(sq, player)) out[count++] = sq;
+        }
+        return count;
+    }
+
+    // Discs a move would turn, without playing it; 0 for an illegal move
+    int countFlips(int sq, int player) {
+        if (cells[sq] != OthelloModel.EMPTY) return 0;
+        int flips = 0;
+        for (int d : directions) {
+            int i = sq + d;
+            int run = 0;
+            while (cells[i] == -player) {
+                i += d;
+                run++;
+            }
+            if (cells[i] == player) flips += run;
+        }
+        return flips;
+    }
+
+    // Places a disc for the player and turns the bracketed discs; returns how
+    // many were turned (0 means the move was illegal and nothing changed)
+    int play(int sq, int player) {
+        if (cells[sq] != OthelloModel.EMPTY) return 0;
+        int flips = 0;
+        for (int d : directions) {
+            int i = sq + d;
+            while (cells[i] == -player) i += d;
+            if (cells[i] != player) continue;
+            for (i -= d; i != sq; i -= d) {
+                cells[i] = (byte) player;
+                flips++;
+            }
+        }
+        if (flips == 0) return 0;
+        cells[sq] = (byte) player;
+        if (player == OthelloModel.BLACK) {
+            blackCount += flips + 1;
+            whiteCount -= flips;
+        } else {
+            whiteCount += flips + 1;
+            blackCount -= flips;
+        }
+        return flips;
+    }
+
+    // Sets bit row * size + col of the multi-word bitsets for each disc
+    void copyDiscs(long[] black, long[] white) {
+        Arrays.fill(black, 0);
+        Arrays.fill(white, 0);
+        for (int row = 0, bit = 0; row < size; row++) {
+            for (int col = 0, sq = index(row, 0); col < size; col++, sq++, bit++) {
+                if (cells[sq] == OthelloModel.BLACK) black[bit >>> 6] |= 1L << bit;
+                else if (cells[sq] == OthelloModel.WHITE) white[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+}
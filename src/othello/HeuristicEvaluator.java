@@ -0,0 +1,37 @@
+package othello;
+
+// Square-weight plus mobility evaluation; scores are in the same units as
+// SearchEngine's disc-differential terminal scores times 100
+public class HeuristicEvaluator implements Evaluator {
+    private static final int[] SQUARE_WEIGHTS = {
+            100, -20, 10,  5,  5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+             10,  -2,  1,  1,  1,  1,  -2,  10,
+              5,  -2,  1,  0,  0,  1,  -2,   5,
+              5,  -2,  1,  0,  0,  1,  -2,   5,
+             10,  -2,  1,  1,  1,  1,  -2,  10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10,  5,  5, 10, -20, 100
+    };
+    private static final int MOBILITY_WEIGHT = 10;
+
+    @Override
+    public int evaluate(long own, long opp) {
+        int score = 0;
+        long discs = own;
+        while (discs != 0) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(discs)];
+            discs &= discs - 1;
+        }
+        discs = opp;
+        while (discs != 0) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(discs)];
+            discs &= discs - 1;
+        }
+
+        int ownMobility = Long.bitCount(Bitboard.legalMoves(own, opp));
+        int oppMobility = Long.bitCount(Bitboard.legalMoves(opp, own));
+        score += MOBILITY_WEIGHT * (ownMobility - oppMobility);
+        return score;
+    }
+}
@@ -0,0 +1,159 @@
+package othello;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Load generator for GameServer: opens many connections, each playing
+// human-vs-AI games with random moves for the human side, and reports how
+// long the server took to answer each move (from sending MOVE until it is the
+// human's turn again or the game is over).
+//
+// Usage: java othello.LoadClient [--host H] [--port P] [--connections N] [--games N]
+//            [--clock MS]
+public class LoadClient {
+
+    public static final class Report {
+        public final long moves;
+        public final long games;
+        public final double seconds;
+        private final long[] latencies;
+
+        Report(long[] latencies, long games, double seconds) {
+            this.latencies = latencies;
+            Arrays.sort(this.latencies);
+            this.moves = latencies.length;
+            this.games = games;
+            this.seconds = seconds;
+        }
+
+        // Latency percentile in milliseconds, p between 0 and 100
+        public double percentileMillis(double p) {
+            if (latencies.length == 0) return 0;
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p / 100 * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    public static Report run(String host, int port, int connections, int gamesPerConnection, long clockMs)
+            throws InterruptedException {
+        List<long[]> results = new ArrayList<>();
+        long[] games = new long[1];
+        List<Thread> threads = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            long seed = c;
+            Thread thread = new Thread(() -> {
+                try {
+                    long[] latencies = playConnection(host, port, gamesPerConnection, clockMs, new SplittableRandom(seed));
+                    synchronized (results) {
+                        results.add(latencies);
+                        games[0] += gamesPerConnection;
+                    }
+                } catch (IOException e) {
+                    System.err.println("connection failed: " + e.getMessage());
+                }
+            }, "load-client");
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int total = 0;
+        for (long[] latencies : results) total += latencies.length;
+        long[] all = new long[total];
+        int n = 0;
+        for (long[] latencies : results) {
+            System.arraycopy(latencies, 0, all, n, latencies.length);
+            n += latencies.length;
+        }
+        return new Report(all, games[0], seconds);
+    }
+
+    private static long[] playConnection(String host, int port, int games, long clockMs, SplittableRandom random)
+            throws IOException {
+        long[] latencies = new long[64 * games];
+        int count = 0;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            for (int g = 0; g < games; g++) {
+                out.println("NEW HUMAN " + clockMs);
+                String[] reply = expect(in, "GAME");
+                String id = reply[1];
+                String position = reply[2];
+                while (position != null) {
+                    OthelloModel model = OthelloModel.fromString(position.replace('_', ' '));
+                    long valid = model.getValidMoves();
+                    int pick = random.nextInt(Long.bitCount(valid));
+                    for (int i = 0; i < pick; i++) valid &= valid - 1;
+
+                    long start = System.nanoTime();
+                    out.println("MOVE " + id + " " + Move.toString(Long.numberOfTrailingZeros(valid)));
+                    position = awaitTurn(in);
+                    latencies[count++] = System.nanoTime() - start;
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    // Reads replies until black (the human) is to move again; null when the game is over
+    private static String awaitTurn(BufferedReader in) throws IOException {
+        while (true) {
+            String[] reply = read(in);
+            if (reply[0].equals("OVER")) return null;
+            if (reply[0].equals("MOVED") && reply[3].endsWith("X")) return reply[3];
+        }
+    }
+
+    private static String[] expect(BufferedReader in, String type) throws IOException {
+        String[] reply = read(in);
+        if (!reply[0].equals(type)) {
+            throw new IOException("expected " + type + ", got " + String.join(" ", reply));
+        }
+        return reply;
+    }
+
+    private static String[] read(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw new IOException("server closed the connection");
+        if (line.startsWith("ERR")) throw new IOException(line);
+        return line.split(" ");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = "127.0.0.1";
+        int port = GameServer.DEFAULT_PORT;
+        int connections = 100;
+        int games = 2;
+        long clock = 2_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host": host = Options.value(args, i++); break;
+                case "--port": port = Integer.parseInt(Options.value(args, i++)); break;
+                case "--connections": connections = Integer.parseInt(Options.value(args, i++)); break;
+                case "--games": games = Integer.parseInt(Options.value(args, i++)); break;
+                case "--clock": clock = Long.parseLong(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Report report = run(host, port, connections, games, clock);
+        System.out.printf("%d connections, %d games, %d moves in %.1f s (%.0f moves/s)%n",
+                connections, report.games, report.moves, report.seconds, report.moves / report.seconds);
+        System.out.printf("move latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                report.percentileMillis(50), report.percentileMillis(99), report.percentileMillis(100));
+    }
+}
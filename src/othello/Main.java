@@ -0,0 +1,68 @@
+package othello;
+
+import javax.swing.*;
+
+public class Main {
+    // Options: --threads N (computer player search threads), --lazy-smp,
+    // --book FILE (opening book), --book-depth N (plies to use the book for),
+    // --stats (live search metrics and frame times under the status line),
+    // --no-ponder (no searching while the human thinks), --animate (flip
+    // animation), --size N (board of N x N squares, even, 4 to 32; the
+    // computer plays greedily on sizes other than 8);
+    // --tournament runs a headless match instead (see Tournament)
+    public static void main(String[] args) throws java.io.IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--tournament")) {
+            Tournament.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        int threads = 1;
+        ParallelSearch.Mode mode = ParallelSearch.Mode.ROOT_SPLIT;
+        String bookFile = null;
+        int bookDepth = -1;
+        boolean stats = false;
+        boolean ponder = true;
+        boolean animate = false;
+        int size = OthelloModel.BOARD_SIZE;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--lazy-smp")) {
+                mode = ParallelSearch.Mode.LAZY_SMP;
+            } else if (args[i].equals("--book") && i + 1 < args.length) {
+                bookFile = args[++i];
+            } else if (args[i].equals("--book-depth") && i + 1 < args.length) {
+                bookDepth = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--stats")) {
+                stats = true;
+            } else if (args[i].equals("--no-ponder")) {
+                ponder = false;
+            } else if (args[i].equals("--animate")) {
+                animate = true;
+            } else if (args[i].equals("--size") && i + 1 < args.length) {
+                size = Integer.parseInt(args[++i]);
+            }
+        }
+
+        OpeningBook book = bookFile == null ? null : OpeningBook.load(java.nio.file.Path.of(bookFile));
+        if (book != null && bookDepth >= 0) {
+            book.setMaxPly(bookDepth);
+        }
+
+        int searchThreads = threads;
+        ParallelSearch.Mode searchMode = mode;
+        boolean showStats = stats;
+        boolean pondering = ponder;
+        boolean animated = animate;
+        int boardSize = size;
+        SwingUtilities.invokeLater(() -> {
+            OthelloGUI gui = new OthelloGUI(boardSize);
+            gui.setSearchThreads(searchThreads, searchMode);
+            gui.setOpeningBook(book);
+            gui.setPondering(pondering);
+            gui.setShowSearchStats(showStats);
+            gui.setAnimated(animated);
+            gui.setVisible(true);
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package othello;
+
+// Moves are packed into a single int: the square index row * 8 + col, PASS,
+// or NONE. Text form is the usual column letter plus row number, e.g. "d3".
+public final class Move {
+    public static final int NONE = -1;
+    public static final int PASS = 64;
+
+    private Move() {
+    }
+
+    public static int of(int row, int col) {
+        return row * OthelloModel.BOARD_SIZE + col;
+    }
+
+    public static int row(int move) {
+        return move / OthelloModel.BOARD_SIZE;
+    }
+
+    public static int col(int move) {
+        return move % OthelloModel.BOARD_SIZE;
+    }
+
+    public static String toString(int move) {
+        if (move == PASS) return "pass";
+        if (move == NONE) return "none";
+        return "" + (char) ('a' + col(move)) + (row(move) + 1);
+    }
+
+    public static int parse(String text) {
+        String s = text.trim().toLowerCase();
+        if (s.equals("pass")) return PASS;
+        if (s.length() != 2) {
+            throw new IllegalArgumentException("Invalid move: " + text);
+        }
+        int col = s.charAt(0) - 'a';
+        int row = s.charAt(1) - '1';
+        if (col < 0 || col >= OthelloModel.BOARD_SIZE || row < 0 || row >= OthelloModel.BOARD_SIZE) {
+            throw new IllegalArgumentException("Invalid move: " + text);
+        }
+        return of(row, col);
+    }
+}
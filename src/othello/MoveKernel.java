@@ -0,0 +1,54 @@
+package othello;
+
+// Move generation over arrays of positions at once, for batch analysis and
+// self-play. Position i is own[i] (side to move) and opp[i]; only the first
+// count entries are read or written.
+//
+// get() returns VectorMoveKernel, which runs several positions per
+// instruction with jdk.incubator.vector, when its classes (the vector/ source
+// root, the only code compiled with the incubator module) are on the class
+// path, the JVM was started with --add-modules jdk.incubator.vector and the
+// CPU has vectors of two or more longs; otherwise, or with
+// -Dothello.vector=false, ScalarMoveKernel.
+public interface MoveKernel {
+    String VECTOR_PROPERTY = "othello.vector";
+
+    // moves[i] = Bitboard.legalMoves(own[i], opp[i])
+    void legalMoves(long[] own, long[] opp, long[] moves, int count);
+
+    // counts[i] = discs flipped by playing squares[i] in position i; 0 when
+    // the move is illegal or squares[i] is not a square (Move.NONE, Move.PASS)
+    void flipCounts(long[] own, long[] opp, int[] squares, int[] counts, int count);
+
+    String name();
+
+    static MoveKernel get() {
+        return Holder.KERNEL;
+    }
+
+    static MoveKernel scalar() {
+        return ScalarMoveKernel.INSTANCE;
+    }
+
+    final class Holder {
+        static final MoveKernel KERNEL = load();
+
+        private Holder() {
+        }
+
+        // The vector kernel is loaded by name so that src compiles and links
+        // without it or the incubator module
+        private static MoveKernel load() {
+            if ("false".equals(System.getProperty(VECTOR_PROPERTY))) return ScalarMoveKernel.INSTANCE;
+            try {
+                Class<?> type = Class.forName("othello.VectorMoveKernel");
+                if ((boolean) type.getMethod("isSupported").invoke(null)) {
+                    return (MoveKernel) type.getDeclaredConstructor().newInstance();
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not on the class path, or module not resolved: fall through
+            }
+            return ScalarMoveKernel.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package othello;
+
+import java.util.function.Supplier;
+
+// A computer player: picks a move for the side to move in the model without
+// changing it. Implementations may keep search state, so use one instance per
+// thread.
+public interface MoveStrategy {
+    // Packed move (see Move), or Move.NONE if the current player has no move
+    int chooseMove(OthelloModel model);
+
+    String name();
+
+    // Parses a player spec: "greedy", "random[:seed]", "search:<millis>[:weights]",
+    // "depth:<plies>[:weights]", where weights is a PatternEvaluator file, or
+    // "mpc:<millis>:<parameters>", a timed search with HeuristicEvaluator and
+    // a ProbCut parameter file
+    static Supplier<MoveStrategy> factory(String spec) {
+        String[] parts = spec.split(":", 3);
+        switch (parts[0]) {
+            case "greedy":
+                return GreedyStrategy::new;
+            case "random": {
+                // Each instance draws its own seed, so threads play different games
+                java.util.SplittableRandom seeds = new java.util.SplittableRandom(
+                        parts.length > 1 ? Long.parseLong(parts[1]) : System.nanoTime());
+                return () -> {
+                    synchronized (seeds) {
+                        return new RandomStrategy(seeds.nextLong());
+                    }
+                };
+            }
+            case "search": {
+                long millis = parts.length > 1 ? Long.parseLong(parts[1]) : 100;
+                if (parts.length > 2) {
+                    Evaluator evaluator = loadWeights(parts[2]);
+                    return () -> SearchStrategy.timed(millis, evaluator);
+                }
+                return () -> SearchStrategy.timed(millis);
+            }
+            case "depth": {
+                int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : 4;
+                if (parts.length > 2) {
+                    Evaluator evaluator = loadWeights(parts[2]);
+                    return () -> SearchStrategy.fixedDepth(depth, evaluator);
+                }
+                return () -> SearchStrategy.fixedDepth(depth);
+            }
+            case "mpc": {
+                if (parts.length < 3) throw new IllegalArgumentException("mpc needs a parameter file: " + spec);
+                long millis = Long.parseLong(parts[1]);
+                ProbCut probCut = loadProbCut(parts[2]);
+                return () -> {
+                    SearchStrategy strategy = SearchStrategy.timed(millis, new HeuristicEvaluator());
+                    strategy.getEngine().setProbCut(probCut);
+                    return strategy;
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + spec);
+        }
+    }
+
+    private static Evaluator loadWeights(String file) {
+        try {
+            return PatternEvaluator.load(java.nio.file.Path.of(file));
+        } catch (java.io.IOException e) {
+            throw new IllegalArgumentException("Cannot read weight file " + file, e);
+        }
+    }
+
+    private static ProbCut loadProbCut(String file) {
+        try {
+            return ProbCut.load(java.nio.file.Path.of(file));
+        } catch (java.io.IOException e) {
+            throw new IllegalArgumentException("Cannot read ProbCut file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package othello;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Precomputed best moves for early positions, read from a memory-mapped file
+// by binary search. Positions are stored in canonical form (see
+// Symmetry.canonical) with the side to move as black, so one entry answers for
+// all 8 rotations and reflections of a position and for either color.
+//
+// File layout, little-endian: int MAGIC, int VERSION, int entry count, int
+// depth (plies from the start the book was built for), then the entries
+// sorted by key, 16 bytes each: long key, short move (canonical square),
+// short score (SearchEngine units clamped to a short), int search depth.
+//
+// Lookups are thread-safe and keep latency counters.
+public class OpeningBook {
+    public static final int MAGIC = 0x4B4F4F42; // "BOOK"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer entries;
+    private final int count;
+    private final int builtDepth;
+    private volatile int maxPly;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public OpeningBook(ByteBuffer file) {
+        ByteBuffer buffer = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not an opening book");
+        }
+        count = buffer.getInt(8);
+        builtDepth = buffer.getInt(12);
+        if (buffer.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+            throw new IllegalArgumentException("Opening book is truncated");
+        }
+        entries = buffer;
+        maxPly = builtDepth;
+    }
+
+    public static OpeningBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Book key of a position: the Zobrist hash of its canonical form
+    public static long key(long own, long opp) {
+        int s = Symmetry.canonical(own, opp);
+        return Zobrist.hash(Symmetry.apply(own, s), Symmetry.apply(opp, s), false);
+    }
+
+    // Book move for the side owning `own`, or Move.NONE if the position is not
+    // in the book or lies deeper than the configured book depth
+    public int lookup(long own, long opp) {
+        long start = System.nanoTime();
+        int move = Move.NONE;
+        if (Long.bitCount(own | opp) - 4 <= maxPly) {
+            int s = Symmetry.canonical(own, opp);
+            int index = find(Zobrist.hash(Symmetry.apply(own, s), Symmetry.apply(opp, s), false));
+            if (index >= 0) {
+                move = Symmetry.inverseSquare(entries.getShort(HEADER_BYTES + index * ENTRY_BYTES + 8), s);
+                // Guard against a hash collision with an unrelated position
+                if (Bitboard.flips(own, opp, move) == 0) move = Move.NONE;
+            }
+        }
+        lookups.increment();
+        if (move != Move.NONE) hits.increment();
+        lookupNanos.add(System.nanoTime() - start);
+        return move;
+    }
+
+    // Stored score of the position, from the side to move's point of view
+    public int score(long own, long opp) {
+        int index = find(key(own, opp));
+        return index < 0 ? 0 : entries.getShort(HEADER_BYTES + index * ENTRY_BYTES + 10);
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = entries.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if (midKey < key) low = mid + 1;
+            else if (midKey > key) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // Positions more than this many plies (discs placed) from the start are
+    // not looked up; defaults to the depth the book was built for
+    public void setMaxPly(int plies) {
+        maxPly = plies;
+    }
+
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    public int getBuiltDepth() {
+        return builtDepth;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double averageLookupNanos() {
+        long n = lookups.sum();
+        return n == 0 ? 0 : (double) lookupNanos.sum() / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OpeningBook[%d positions, depth %d, %d lookups, %d hits, %.0f ns/lookup]",
+                count, maxPly, getLookups(), getHits(), averageLookupNanos());
+    }
+
+    // Writes a book from key -> packed entry (see entry()) in the format above
+    public static void write(Path file, Map<Long, Long> book, int depth) throws IOException {
+        long[] keys = new long[book.size()];
+        int n = 0;
+        for (long key : book.keySet()) keys[n++] = key;
+        Arrays.sort(keys);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(Integer.reverseBytes(MAGIC));
+            out.writeInt(Integer.reverseBytes(VERSION));
+            out.writeInt(Integer.reverseBytes(keys.length));
+            out.writeInt(Integer.reverseBytes(depth));
+            for (long key : keys) {
+                long entry = book.get(key);
+                out.writeLong(Long.reverseBytes(key));
+                out.writeShort(Short.reverseBytes((short) entryMove(entry)));
+                out.writeShort(Short.reverseBytes((short) entryScore(entry)));
+                out.writeInt(Integer.reverseBytes(entryDepth(entry)));
+            }
+        }
+    }
+
+    // Builder-side packing of one entry: search depth, canonical move, score
+    static long entry(int searchDepth, int move, int score) {
+        int clamped = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score));
+        return ((long) searchDepth << 32) | ((long) move << 16) | (clamped & 0xFFFF);
+    }
+
+    static int entryDepth(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int entryMove(long entry) {
+        return (int) (entry >>> 16) & 0xFFFF;
+    }
+
+    static int entryScore(long entry) {
+        return (short) entry;
+    }
+}
@@ -0,0 +1,131 @@
+package othello;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Builds an OpeningBook from self-play: each game follows the engine's own
+// choices for the first --depth plies, with a random move now and then so
+// games branch out. Every position reached is searched to --search-depth
+// (once; equivalent positions share the result) and its best move is stored.
+//
+// Usage: java othello.OpeningBookBuilder --out book.bin [--depth D] [--games N]
+//            [--search-depth S] [--random-rate R] [--threads N] [--seed S]
+public class OpeningBookBuilder {
+    private final int depth;
+    private final int searchDepth;
+    private final double randomRate;
+    // Canonical key -> OpeningBook.entry
+    private final ConcurrentHashMap<Long, Long> book = new ConcurrentHashMap<>();
+
+    public OpeningBookBuilder(int depth, int searchDepth, double randomRate) {
+        this.depth = depth;
+        this.searchDepth = searchDepth;
+        this.randomRate = randomRate;
+    }
+
+    public void playGames(int games, int threads, long seed) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<SearchEngine> engines = ThreadLocal.withInitial(SearchEngine::new);
+        try {
+            SplittableRandom random = new SplittableRandom(seed);
+            List<Future<?>> results = new ArrayList<>(games);
+            for (int g = 0; g < games; g++) {
+                SplittableRandom gameRandom = random.split();
+                results.add(pool.submit(() -> playGame(engines.get(), gameRandom)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void playGame(SearchEngine engine, SplittableRandom random) {
+        long own = Bitboard.INITIAL_BLACK;
+        long opp = Bitboard.INITIAL_WHITE;
+        while (Long.bitCount(own | opp) - 4 <= depth) {
+            long moves = Bitboard.legalMoves(own, opp);
+            if (moves == 0) return;
+
+            int bestMove = analyze(engine, own, opp);
+            int move = bestMove;
+            if (random.nextDouble() < randomRate) {
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < pick; i++) moves &= moves - 1;
+                move = Long.numberOfTrailingZeros(moves);
+            }
+
+            long flipped = Bitboard.flips(own, opp, move);
+            long t = own | flipped | (1L << move);
+            own = opp & ~flipped;
+            opp = t;
+        }
+    }
+
+    // Best move for the position, searching it unless an equivalent one
+    // already has an entry
+    private int analyze(SearchEngine engine, long own, long opp) {
+        int s = Symmetry.canonical(own, opp);
+        long canonicalOwn = Symmetry.apply(own, s);
+        long canonicalOpp = Symmetry.apply(opp, s);
+        long key = Zobrist.hash(canonicalOwn, canonicalOpp, false);
+        Long entry = book.get(key);
+        if (entry == null) {
+            int move = engine.searchToDepth(canonicalOwn, canonicalOpp, searchDepth);
+            entry = OpeningBook.entry(searchDepth, move, engine.getBestScore());
+            book.putIfAbsent(key, entry);
+        }
+        return Symmetry.inverseSquare(OpeningBook.entryMove(entry), s);
+    }
+
+    public void write(Path file) throws java.io.IOException {
+        OpeningBook.write(file, book, depth);
+    }
+
+    public int size() {
+        return book.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String out = null;
+        int depth = 10;
+        int games = 2000;
+        int searchDepth = 8;
+        double randomRate = 0.3;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out": out = Options.value(args, i++); break;
+                case "--depth": depth = Integer.parseInt(Options.value(args, i++)); break;
+                case "--games": games = Integer.parseInt(Options.value(args, i++)); break;
+                case "--search-depth": searchDepth = Integer.parseInt(Options.value(args, i++)); break;
+                case "--random-rate": randomRate = Double.parseDouble(Options.value(args, i++)); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                case "--seed": seed = Long.parseLong(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("--out is required");
+        }
+
+        long start = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(depth, searchDepth, randomRate);
+        builder.playGames(games, threads, seed);
+        builder.write(Path.of(out));
+        System.out.printf("%d positions to depth %d from %d games in %.1f s%n",
+                builder.size(), depth, games, (System.nanoTime() - start) / 1e9);
+    }
+}
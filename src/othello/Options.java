@@ -0,0 +1,16 @@
+package othello;
+
+// Command-line parsing shared by the tools' main methods
+final class Options {
+    private Options() {
+    }
+
+    // The value after option args[i], which must be there. Callers step past
+    // it with value(args, i++).
+    static String value(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        return args[i + 1];
+    }
+}
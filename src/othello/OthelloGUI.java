@@ -0,0 +1,249 @@
+package othello;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+public class OthelloGUI extends JFrame {
+    private static final int CELL_SIZE = 60;
+    private static final long COMPUTER_TIME_BUDGET_MS = 500;
+    private static final int STATS_REFRESH_MS = 100;
+
+    private final OthelloModel model;
+    // Snapshot handed to the board view, one bit per square
+    private final long[] blackSquares;
+    private final long[] whiteSquares;
+    private final long[] hintSquares;
+    private BoardPanel boardPanel;
+    private JLabel statusLabel;
+    private JPanel statusPanel;
+    private JLabel statsLabel;
+    private Timer statsTimer;
+    private boolean isComputerThinking = false;
+    // Search settings; pondering starts with them on the first setVisible
+    private int searchThreads = 1;
+    private ParallelSearch.Mode searchMode;
+    private boolean pondering = true;
+    private boolean shown;
+
+    public OthelloGUI() {
+        this(OthelloModel.BOARD_SIZE);
+    }
+
+    // boardSize other than 8 gets a greedy computer player and ignores the
+    // search settings below. The computer ponders by default; the setters
+    // are meant for before the first move, like setAnimated.
+    public OthelloGUI(int boardSize) {
+        model = new OthelloModel(boardSize);
+        int words = (boardSize * boardSize + 63) / 64;
+        blackSquares = new long[words];
+        whiteSquares = new long[words];
+        hintSquares = new long[words];
+        setupGUI();
+    }
+
+    // The ponderer is built once, with the settings made before the window
+    // first shows, rather than again by every setter
+    @Override
+    public void setVisible(boolean visible) {
+        if (visible && !shown) {
+            shown = true;
+            if (hasSearch() && pondering) model.setPondering(true);
+            restartPondering();
+        }
+        super.setVisible(visible);
+    }
+
+    private void setupGUI() {
+        setTitle("Othello Game");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        // Create the main game board panel
+        // Larger boards keep the window the size of the 8x8 one
+        int size = model.getSize();
+        boardPanel = new BoardPanel(size, CELL_SIZE * OthelloModel.BOARD_SIZE / Math.max(size, OthelloModel.BOARD_SIZE));
+        refreshBoard();
+
+        // Add mouse listener for handling moves
+        boardPanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int square = boardPanel.squareAt(e.getX(), e.getY());
+                if (!isComputerThinking && model.getCurrentPlayer() == OthelloModel.BLACK && square != Move.NONE) {
+                    handlePlayerMove(square / size, square % size);
+                }
+            }
+        });
+
+        // Create status label
+        statusLabel = new JLabel("Black's turn", SwingConstants.CENTER);
+        statusLabel.setFont(new Font("Arial", Font.BOLD, 16));
+
+        // Layout; setShowSearchStats adds a second line to the status panel
+        setLayout(new BorderLayout());
+        add(boardPanel, BorderLayout.CENTER);
+        statusPanel = new JPanel(new BorderLayout());
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    // Turned discs animate on the board; off by default
+    public void setAnimated(boolean animated) {
+        boardPanel.setAnimated(animated);
+    }
+
+    // Searches with several threads; one (the default) is single-threaded
+    public void setSearchThreads(int threads, ParallelSearch.Mode mode) {
+        if (!hasSearch() || threads == searchThreads && (threads <= 1 || mode == searchMode)) return;
+        searchThreads = threads;
+        searchMode = mode;
+        model.setSearchThreads(threads, mode);
+        restartPondering();
+    }
+
+    // Book moves are played without searching; null (the default) for none
+    public void setOpeningBook(OpeningBook book) {
+        if (hasSearch()) model.setOpeningBook(book);
+    }
+
+    // Lets the computer search while the human is thinking; on by default
+    public void setPondering(boolean ponder) {
+        if (!hasSearch() || ponder == pondering) return;
+        pondering = ponder;
+        if (!shown) return;
+        model.setPondering(ponder);
+        restartPondering();
+    }
+
+    // Adds a line under the status showing the computer player's search as
+    // it runs; off by default
+    public void setShowSearchStats(boolean show) {
+        if (!hasSearch() || show == (statsLabel != null)) return;
+        if (show) {
+            model.setSearchStats(new SearchStats());
+            statsLabel = new JLabel(" ", SwingConstants.CENTER);
+            statsLabel.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            statusPanel.add(statsLabel, BorderLayout.SOUTH);
+            // Polls the stats; the search thread never touches Swing
+            statsTimer = new Timer(STATS_REFRESH_MS, e -> statsLabel.setText(statsText()));
+        } else {
+            statsTimer.stop();
+            statusPanel.remove(statsLabel);
+            statsLabel = null;
+            statsTimer = null;
+            model.setSearchStats(null);
+        }
+        pack();
+    }
+
+    // Only 8x8 boards have the search player the settings above configure
+    private boolean hasSearch() {
+        return model.getSize() == OthelloModel.BOARD_SIZE;
+    }
+
+    // Settings that replace the ponderer drop its work; start again if it is
+    // the human's turn
+    private void restartPondering() {
+        if (shown && !isComputerThinking && !model.isGameOver() && model.getCurrentPlayer() == OthelloModel.BLACK) {
+            model.startPondering();
+        }
+    }
+
+    // Hands the board view a snapshot; it repaints only what changed. Move
+    // hints are computed once per turn by the model.
+    private void refreshBoard() {
+        boolean hints = model.getCurrentPlayer() == OthelloModel.BLACK;
+        model.copySquares(blackSquares, whiteSquares, hints ? hintSquares : null);
+        if (!hints) java.util.Arrays.fill(hintSquares, 0);
+        boardPanel.show(blackSquares, whiteSquares, hintSquares);
+    }
+
+    private String statsText() {
+        return String.format("%s | frame %.2f ms avg, %.2f max", model.getSearchStats(),
+                boardPanel.getAverageFrameMillis(), boardPanel.getMaxFrameMillis());
+    }
+
+    private void handlePlayerMove(int row, int col) {
+        if (model.isValidMove(row, col)) {
+            // Never waits: the worker below lets pondering finish
+            model.stopPondering();
+            makeMove(row, col);
+
+            if (!model.isGameOver() && model.getCurrentPlayer() == OthelloModel.WHITE) {
+                // Computer's turn
+                isComputerThinking = true;
+                updateStatus();
+                if (statsTimer != null) statsTimer.start();
+
+                // Use SwingWorker to prevent GUI freezing; the search budget
+                // doubles as the pause before the computer answers. The
+                // worker searches a snapshot, so it never reads the model
+                // while the event thread repaints it. Other sizes play
+                // greedily, which is instant.
+                Position position = model.getSize() == OthelloModel.BOARD_SIZE ? model.getPosition() : null;
+                int[] greedyMove = position == null ? model.computeGreedyMove() : null;
+                SwingWorker<int[], Void> worker = new SwingWorker<>() {
+                    @Override
+                    protected int[] doInBackground() {
+                        if (position == null) return greedyMove;
+                        int move = model.computeBestMoveIndex(position, COMPUTER_TIME_BUDGET_MS);
+                        return move == Move.NONE ? new int[]{-1, -1} : new int[]{Move.row(move), Move.col(move)};
+                    }
+
+                    @Override
+                    protected void done() {
+                        try {
+                            makeComputerMove(get());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (java.util.concurrent.ExecutionException e) {
+                            throw new IllegalStateException(e.getCause());
+                        }
+                        isComputerThinking = false;
+                        if (statsTimer != null) {
+                            statsTimer.stop();
+                            statsLabel.setText(statsText());
+                        }
+                        updateStatus();
+                        refreshBoard();
+                        if (!model.isGameOver() && model.getCurrentPlayer() == OthelloModel.BLACK) {
+                            model.startPondering();
+                        }
+                    }
+                };
+                worker.execute();
+            } else if (!model.isGameOver()) {
+                // The computer had to pass: think about the human's next move
+                model.startPondering();
+            }
+        }
+    }
+
+    private void makeMove(int row, int col) {
+        model.makeMove(row, col);
+        updateStatus();
+        refreshBoard();
+    }
+
+    private void makeComputerMove(int[] move) {
+        if (move[0] != -1 && move[1] != -1) {
+            makeMove(move[0], move[1]);
+        }
+    }
+
+    private void updateStatus() {
+        if (model.isGameOver()) {
+            int[] score = model.getScore();
+            String winner = score[0] > score[1] ? "Black" : score[0] < score[1] ? "White" : "Draw";
+            statusLabel.setText(String.format("Game Over! %s wins! Score: Black %d - White %d",
+                    winner, score[0], score[1]));
+        } else {
+            String player = model.getCurrentPlayer() == OthelloModel.BLACK ? "Black" : "White";
+            String thinking = isComputerThinking ? " (thinking...)" : "";
+            statusLabel.setText(player + "'s turn" + thinking);
+        }
+    }
+} 
\ No newline at end of file
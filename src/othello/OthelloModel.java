@@ -0,0 +1,528 @@
+package othello;
+
+// Mutable game state for the GUI, the server and tools that play a game move
+// by move. On 8x8 the state is a Position kept as primitive fields, so
+// makeMove/unmakeMove never allocate; getPosition() hands out an immutable
+// snapshot for other threads and caches.
+public class OthelloModel {
+    public static final int BOARD_SIZE = 8;
+    public static final int BLACK = 1;
+    public static final int WHITE = -1;
+    public static final int EMPTY = 0;
+    // Shallowest pondered answer computeBestMove takes instead of searching
+    private static final int MIN_PONDER_DEPTH = 6;
+
+    // Sides of the board; 8x8 is played on the bitboards below, every other
+    // size on a GridBoard
+    private final int size;
+    private final GridBoard grid;
+    // GridBoard squares the current player can move to, and how many
+    private final int[] gridMoves;
+    private int gridMoveCount;
+
+    // One bit per square, index row * BOARD_SIZE + col (see Bitboard)
+    private long black;
+    private long white;
+    private int currentPlayer;
+    // Valid moves for currentPlayer, recomputed whenever the position changes
+    private long validMoves;
+    // Zobrist hash of the discs only; getHash() adds the side to move
+    private long discHash;
+    private SearchEngine engine;
+    private ParallelSearch parallelSearch;
+    private SearchStats searchStats;
+    private OpeningBook openingBook;
+    private Ponderer ponderer;
+    // Depth the last real search completed; pondered answers must match it
+    private int lastSearchDepth;
+
+    public OthelloModel() {
+        this(BOARD_SIZE);
+    }
+
+    // Any even size from 4 to 32. Sizes other than 8 support the rules, the
+    // row/col and int[][] accessors and greedy play; the packed-move and
+    // bitboard API and the search engine are 8x8 only.
+    public OthelloModel(int size) {
+        this.size = size;
+        grid = size == BOARD_SIZE ? null : new GridBoard(size);
+        gridMoves = grid == null ? null : new int[size * size];
+        if (grid == null) initializeBoard();
+        currentPlayer = BLACK; // Black always starts
+        updateValidMoves();
+    }
+
+    public OthelloModel(Position position) {
+        this(BOARD_SIZE);
+        setPosition(position);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void initializeBoard() {
+        black = Bitboard.INITIAL_BLACK;
+        white = Bitboard.INITIAL_WHITE;
+        discHash = Zobrist.hash(black, white, false);
+    }
+
+    // Replaces the position with an int[][] layout using BLACK/WHITE/EMPTY values
+    void setBoard(int[][] cells, int player) {
+        if (grid != null) {
+            grid.setCells(cells);
+            currentPlayer = player;
+            updateValidMoves();
+            return;
+        }
+        setPosition(Position.fromArray(cells, player));
+    }
+
+    // Replaces the position with the given bitboards, without allocating
+    void setPosition(long blackDiscs, long whiteDiscs, int player) {
+        requireBitboard();
+        black = blackDiscs;
+        white = whiteDiscs;
+        discHash = Zobrist.hash(black, white, false);
+        currentPlayer = player;
+        updateValidMoves();
+    }
+
+    public void setPosition(Position position) {
+        requireBitboard();
+        black = position.getBlackDiscs();
+        white = position.getWhiteDiscs();
+        discHash = Zobrist.hash(black, white, false);
+        currentPlayer = position.getCurrentPlayer();
+        validMoves = position.getValidMoves();
+    }
+
+    // Immutable copy of the current 8x8 position
+    public Position getPosition() {
+        requireBitboard();
+        return Position.snapshot(black, white, currentPlayer, validMoves);
+    }
+
+    // Parses the squares row by row (X black, O white, - or . empty) followed
+    // by the side to move, e.g. the initial position is
+    // "---------------------------OX------XO--------------------------- X"
+    // The board size follows from the number of squares.
+    public static OthelloModel fromString(String position) {
+        String[] parts = position.trim().split("\\s+");
+        int size = (int) Math.round(Math.sqrt(parts[0].length()));
+        if (parts.length != 2 || parts[0].length() != size * size) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        if (size == BOARD_SIZE) {
+            return new OthelloModel(Position.fromString(position));
+        }
+        int[][] cells = new int[size][size];
+        for (int sq = 0; sq < size * size; sq++) {
+            char c = Character.toUpperCase(parts[0].charAt(sq));
+            if (c == 'X') cells[sq / size][sq % size] = BLACK;
+            else if (c == 'O') cells[sq / size][sq % size] = WHITE;
+            else if (c != '-' && c != '.') throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        int player = Position.parseSide(parts[1]);
+        OthelloModel model;
+        try {
+            model = new OthelloModel(size);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid position: " + position, e);
+        }
+        model.setBoard(cells, player);
+        return model;
+    }
+
+    // Same format as fromString; "-" as the side to move means the game is over
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size * size + 2);
+        for (int sq = 0; sq < size * size; sq++) {
+            int piece = getPiece(sq / size, sq % size);
+            sb.append(piece == BLACK ? 'X' : piece == WHITE ? 'O' : '-');
+        }
+        sb.append(' ').append(currentPlayer == BLACK ? 'X' : currentPlayer == WHITE ? 'O' : '-');
+        return sb.toString();
+    }
+
+    private void updateValidMoves() {
+        if (grid != null) {
+            gridMoveCount = currentPlayer == EMPTY ? 0 : grid.legalMoves(currentPlayer, gridMoves);
+            return;
+        }
+        validMoves = currentPlayer == EMPTY ? 0 : Bitboard.legalMoves(own(), opponent());
+    }
+
+    private long own() {
+        return currentPlayer == BLACK ? black : white;
+    }
+
+    private long opponent() {
+        return currentPlayer == BLACK ? white : black;
+    }
+
+    public boolean isValidMove(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size || currentPlayer == EMPTY) {
+            return false;
+        }
+        if (grid != null) {
+            return grid.isLegal(grid.index(row, col), currentPlayer);
+        }
+        return (validMoves & Bitboard.squareBit(row, col)) != 0;
+    }
+
+    public void makeMove(int row, int col) {
+        if (!isValidMove(row, col)) {
+            throw new IllegalArgumentException("Invalid move");
+        }
+        if (grid != null) {
+            grid.play(grid.index(row, col), currentPlayer);
+            endTurn();
+        } else {
+            makeMove(Move.of(row, col));
+        }
+    }
+
+    // Plays a packed move and returns the flipped discs, which together with
+    // the move is all unmakeMove needs to restore the position
+    public long makeMove(int move) {
+        requireBitboard();
+        long bit = 1L << move;
+        if (move < 0 || move >= 64 || (validMoves & bit) == 0) {
+            throw new IllegalArgumentException("Invalid move");
+        }
+
+        long flipped = Bitboard.flips(own(), opponent(), move);
+        discHash ^= Zobrist.moveDelta(currentPlayer == BLACK ? 0 : 1, move, flipped);
+        if (currentPlayer == BLACK) {
+            black |= bit | flipped;
+            white &= ~flipped;
+        } else {
+            white |= bit | flipped;
+            black &= ~flipped;
+        }
+        endTurn();
+        return flipped;
+    }
+
+    private void endTurn() {
+        currentPlayer = -currentPlayer;
+        updateValidMoves();
+
+        // If next player has no valid moves, switch back
+        if (!hasValidMoves()) {
+            currentPlayer = -currentPlayer;
+            updateValidMoves();
+            // If this player also has no valid moves, game is over
+            if (!hasValidMoves()) {
+                currentPlayer = EMPTY; // Game over
+            }
+        }
+    }
+
+    // Reverses makeMove(move); the mover is whoever owns the disc on move
+    public void unmakeMove(int move, long flipped) {
+        requireBitboard();
+        long bit = 1L << move;
+        int mover;
+        if ((black & bit) != 0) {
+            mover = BLACK;
+            black &= ~(bit | flipped);
+            white |= flipped;
+        } else {
+            mover = WHITE;
+            white &= ~(bit | flipped);
+            black |= flipped;
+        }
+        discHash ^= Zobrist.moveDelta(mover == BLACK ? 0 : 1, move, flipped);
+        currentPlayer = mover;
+        updateValidMoves();
+    }
+
+    public boolean hasValidMoves() {
+        return grid == null ? validMoves != 0 : gridMoveCount != 0;
+    }
+
+    // Bit mask of all valid moves for the current player
+    public long getValidMoves() {
+        requireBitboard();
+        return validMoves;
+    }
+
+    public int[][] getBoard() {
+        int[][] copy = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                copy[i][j] = getPiece(i, j);
+            }
+        }
+        return copy;
+    }
+
+    // Snapshot for any board size as multi-word bitsets, bit row * size + col
+    // in word bit / 64: the discs and, unless moves is null, the current
+    // player's valid moves. Each array needs (size * size + 63) / 64 words;
+    // on 8x8 word 0 is just the bitboard.
+    public void copySquares(long[] blackDiscs, long[] whiteDiscs, long[] moves) {
+        if (grid == null) {
+            blackDiscs[0] = black;
+            whiteDiscs[0] = white;
+            if (moves != null) moves[0] = validMoves;
+            return;
+        }
+        grid.copyDiscs(blackDiscs, whiteDiscs);
+        if (moves != null) {
+            java.util.Arrays.fill(moves, 0);
+            for (int i = 0; i < gridMoveCount; i++) {
+                int bit = grid.row(gridMoves[i]) * size + grid.col(gridMoves[i]);
+                moves[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    public long getBlackDiscs() {
+        requireBitboard();
+        return black;
+    }
+
+    public long getWhiteDiscs() {
+        requireBitboard();
+        return white;
+    }
+
+    public long getHash() {
+        requireBitboard();
+        return currentPlayer == WHITE ? discHash ^ Zobrist.WHITE_TO_MOVE : discHash;
+    }
+
+    // Same for all eight rotations and reflections of the position (see
+    // Symmetry.canonicalHash); the side to move is part of the key
+    public long getCanonicalHash() {
+        requireBitboard();
+        long key = Symmetry.canonicalHash(own(), opponent());
+        return currentPlayer == WHITE ? key ^ Zobrist.WHITE_TO_MOVE : key;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isGameOver() {
+        return currentPlayer == EMPTY;
+    }
+
+    public int[] getScore() {
+        return new int[]{getBlackCount(), getWhiteCount()};
+    }
+
+    public int getBlackCount() {
+        return grid == null ? Long.bitCount(black) : grid.count(BLACK);
+    }
+
+    public int getWhiteCount() {
+        return grid == null ? Long.bitCount(white) : grid.count(WHITE);
+    }
+
+    // BLACK, WHITE or EMPTY without copying the board
+    public int getPiece(int row, int col) {
+        if (grid != null) return grid.get(grid.index(row, col));
+        long bit = Bitboard.squareBit(row, col);
+        if ((black & bit) != 0) return BLACK;
+        if ((white & bit) != 0) return WHITE;
+        return EMPTY;
+    }
+
+    public int[] computeGreedyMove() {
+        if (grid != null) return computeGridGreedyMove();
+        int move = computeGreedyMoveIndex();
+        if (move == Move.NONE) {
+            return new int[]{-1, -1};
+        }
+        return new int[]{Move.row(move), Move.col(move)};
+    }
+
+    // Packed form of computeGreedyMove, or Move.NONE if there is no valid move
+    public int computeGreedyMoveIndex() {
+        requireBitboard();
+        int best = Move.NONE;
+        int maxFlips = -1;
+
+        long own = own();
+        long opp = opponent();
+        long moves = getValidMoves();
+        // Lowest square first, so ties resolve in the same row-major order as before
+        while (moves != 0) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            int flips = Long.bitCount(Bitboard.flips(own, opp, sq));
+            if (flips > maxFlips) {
+                maxFlips = flips;
+                best = sq;
+            }
+        }
+        return best;
+    }
+
+    // Most flips first, ties to the lowest square as on 8x8
+    private int[] computeGridGreedyMove() {
+        int best = -1;
+        int maxFlips = -1;
+        for (int i = 0; i < gridMoveCount; i++) {
+            int flips = grid.countFlips(gridMoves[i], currentPlayer);
+            if (flips > maxFlips) {
+                maxFlips = flips;
+                best = gridMoves[i];
+            }
+        }
+        return best == -1 ? new int[]{-1, -1} : new int[]{grid.row(best), grid.col(best)};
+    }
+
+    // Alpha-beta search for the current player, returning {row, col} like
+    // computeGreedyMove; gives up deepening once the time budget is spent.
+    // The search runs on bitboards, so other board sizes play greedily.
+    public int[] computeBestMove(long timeBudgetMillis) {
+        if (grid != null) return computeGridGreedyMove();
+        int move = computeBestMoveIndex(timeBudgetMillis);
+        if (move == Move.NONE) {
+            return new int[]{-1, -1};
+        }
+        return new int[]{Move.row(move), Move.col(move)};
+    }
+
+    // Packed form of computeBestMove, or Move.NONE if there is no valid move
+    public int computeBestMoveIndex(long timeBudgetMillis) {
+        return computeBestMoveIndex(getPosition(), timeBudgetMillis);
+    }
+
+    // Same for a snapshot, with this model's engine, book and ponderer; reads
+    // nothing of the model's own position, so a worker thread can search
+    // while the model is displayed
+    public int computeBestMoveIndex(Position position, long timeBudgetMillis) {
+        requireBitboard();
+        if (position.getValidMoves() == 0) {
+            return Move.NONE;
+        }
+        long own = position.getOwnDiscs();
+        long opp = position.getOpponentDiscs();
+        if (openingBook != null) {
+            int move = openingBook.lookup(own, opp);
+            if (move != Move.NONE) return move;
+        }
+        if (ponderer != null) {
+            ponderer.await();
+            int empties = 64 - Long.bitCount(own | opp);
+            int minDepth = Math.min(Math.max(MIN_PONDER_DEPTH, lastSearchDepth), empties);
+            int move = ponderer.result(own, opp, minDepth);
+            if (move != Move.NONE) return move;
+        }
+        int move;
+        if (parallelSearch != null) {
+            move = parallelSearch.findBestMove(own, opp, timeBudgetMillis);
+            lastSearchDepth = parallelSearch.getCompletedDepth();
+        } else {
+            move = engine().findBestMove(own, opp, timeBudgetMillis);
+            lastSearchDepth = engine.getCompletedDepth();
+        }
+        return move;
+    }
+
+    private SearchEngine engine() {
+        if (engine == null) {
+            engine = new SearchEngine();
+            engine.setStats(searchStats);
+        }
+        return engine;
+    }
+
+    // Lets computeBestMove answer from a search run on the opponent's time
+    // (see Ponderer); the pondering engine shares the main search's table
+    public void setPondering(boolean enabled) {
+        if (enabled) requireBitboard();
+        if (ponderer != null) {
+            ponderer.close();
+            ponderer = null;
+        }
+        if (enabled) {
+            TranspositionTable table = parallelSearch != null ? parallelSearch.getTable() : engine().getTable();
+            ponderer = new Ponderer(PatternEvaluator.defaultEvaluator(), table);
+        }
+    }
+
+    public boolean isPondering() {
+        return ponderer != null;
+    }
+
+    // Ponders the replies to the current player's move; call when the
+    // opponent of the computer is to move. Returns at once.
+    public void startPondering() {
+        if (ponderer != null && hasValidMoves()) {
+            ponderer.start(own(), opponent());
+        }
+    }
+
+    // The active ponderer, or null; for tests that wait on its progress
+    Ponderer getPonderer() {
+        return ponderer;
+    }
+
+    // Stops pondering without waiting; computeBestMove waits for it
+    public void stopPondering() {
+        if (ponderer != null) {
+            ponderer.cancel();
+        }
+    }
+
+    // Uses a multi-threaded search for computeBestMove; one thread switches
+    // back to the single-threaded engine
+    public void setSearchThreads(int threads, ParallelSearch.Mode mode) {
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+        if (threads > 1) {
+            parallelSearch = new ParallelSearch(threads, mode);
+            parallelSearch.setStats(searchStats);
+        }
+        if (ponderer != null) {
+            // Follow the new search's table
+            setPondering(true);
+        }
+    }
+
+    // Metrics for computeBestMove's searches; null (the default) turns them off
+    public void setSearchStats(SearchStats stats) {
+        searchStats = stats;
+        if (engine != null) engine.setStats(stats);
+        if (parallelSearch != null) parallelSearch.setStats(stats);
+    }
+
+    public SearchStats getSearchStats() {
+        return searchStats;
+    }
+
+    // Book consulted by computeBestMove before searching; null turns it off
+    public void setOpeningBook(OpeningBook book) {
+        openingBook = book;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    public int countFlips(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size || currentPlayer == EMPTY) {
+            return 0;
+        }
+        if (grid != null) {
+            return grid.countFlips(grid.index(row, col), currentPlayer);
+        }
+        return Long.bitCount(Bitboard.flips(own(), opponent(), row * BOARD_SIZE + col));
+    }
+
+    private void requireBitboard() {
+        if (grid != null) {
+            throw new IllegalStateException("Only available on " + BOARD_SIZE + "x" + BOARD_SIZE + " boards");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Multi-threaded search on a ForkJoinPool. All threads share one lock-free
+// TranspositionTable and each keeps its own SearchEngine for scratch state,
+// so the Evaluator must be safe to call from several threads.
+//
+// ROOT_SPLIT searches the first (principal) root move alone at each depth, then
+// the remaining root moves in parallel with the best score so far as the bound.
+// LAZY_SMP runs the full iterative deepening on every thread, helpers starting
+// one ply deeper on alternate threads, and relies on the shared table to split
+// the work.
+public class ParallelSearch implements AutoCloseable {
+    public enum Mode { ROOT_SPLIT, LAZY_SMP }
+
+    private final int threads;
+    private final Mode mode;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final SearchEngine[] engines;
+    private final ThreadLocal<SearchEngine> workerEngine;
+
+    private int completedDepth;
+    private int bestScore;
+    private long nodes;
+    private volatile SearchStats stats;
+    private volatile ProbCut probCut;
+
+    public ParallelSearch(int threads, Mode mode) {
+        this(threads, mode, PatternEvaluator.defaultEvaluator(), new TranspositionTable(64));
+        setProbCut(ProbCut.defaultProbCut());
+    }
+
+    public ParallelSearch(int threads, Mode mode, Evaluator evaluator, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+        this.threads = threads;
+        this.mode = mode;
+        this.table = table;
+        this.pool = new ForkJoinPool(threads);
+        this.engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(evaluator, table);
+        }
+        this.workerEngine = ThreadLocal.withInitial(() -> new SearchEngine(evaluator, table));
+    }
+
+    public int findBestMove(long own, long opp, long timeBudgetMillis) {
+        return search(own, opp, System.nanoTime() + timeBudgetMillis * 1_000_000L, 64);
+    }
+
+    public int searchToDepth(long own, long opp, int depth) {
+        return search(own, opp, Long.MAX_VALUE, depth);
+    }
+
+    // Metrics every thread publishes to; null (the default) turns them off
+    public void setStats(SearchStats stats) {
+        this.stats = stats;
+        for (int i = 0; i < threads; i++) {
+            engines[i].setStats(stats, i == 0);
+        }
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    // Selective pruning on every thread (see SearchEngine.setProbCut)
+    public void setProbCut(ProbCut probCut) {
+        this.probCut = probCut;
+        for (SearchEngine engine : engines) {
+            engine.setProbCut(probCut);
+        }
+    }
+
+    public ProbCut getProbCut() {
+        return probCut;
+    }
+
+    private int search(long own, long opp, long deadline, int maxDepth) {
+        SearchMoveEvent event = new SearchMoveEvent();
+        event.start();
+        SearchStats stats = this.stats;
+        if (stats != null) stats.begin();
+        int move = runSearch(own, opp, deadline, maxDepth);
+        if (stats == null) {
+            event.commit(move, completedDepth, bestScore, threads, nodes, 0, 0, 0, 0, 0);
+        } else {
+            stats.end();
+            event.commit(move, completedDepth, bestScore, threads, nodes, stats.getTableProbes(),
+                    stats.getTableHits(), stats.getTableCollisions(), stats.getCutoffs(),
+                    stats.getFirstMoveCutoffs());
+        }
+        return move;
+    }
+
+    private int runSearch(long own, long opp, long deadline, int maxDepth) {
+        table.newSearch();
+        completedDepth = 0;
+        bestScore = 0;
+        nodes = 0;
+        if (Bitboard.legalMoves(own, opp) == 0) return SearchEngine.NO_MOVE;
+        if (engines[0].solvesExactly(own, opp, maxDepth)) {
+            // The endgame solver is sequential; run it on this thread
+            SearchEngine main = engines[0];
+            main.clearStop();
+            int move = main.search(own, opp, deadline, 1, maxDepth);
+            completedDepth = main.getCompletedDepth();
+            bestScore = main.getBestScore();
+            nodes = main.getNodes();
+            return move;
+        }
+        return mode == Mode.ROOT_SPLIT
+                ? rootSplit(own, opp, deadline, maxDepth)
+                : lazySmp(own, opp, deadline, maxDepth);
+    }
+
+    private int rootSplit(long own, long opp, long deadline, int maxDepth) {
+        SearchEngine main = engines[0];
+        main.clearStop();
+        main.resetNodes();
+        int[] moves = new int[64];
+        int count = main.orderRootMoves(own, opp, moves);
+        int bestMove = moves[0];
+        if (count == 1) return bestMove;
+
+        AtomicLong workerNodes = new AtomicLong();
+        int empties = 64 - Long.bitCount(own | opp);
+        for (int depth = 1; depth <= Math.min(maxDepth, empties); depth++) {
+            // Principal move first, on this thread, to establish a bound
+            int alpha = main.searchRootMove(own, opp, moves[0], depth, -SearchEngine.INFINITY,
+                    SearchEngine.INFINITY, deadline);
+            if (main.isTimeUp()) break;
+
+            int searchDepth = depth;
+            RootResult result = new RootResult(moves[0], alpha);
+            List<Callable<Void>> tasks = new ArrayList<>(count - 1);
+            AtomicBoolean timedOut = new AtomicBoolean();
+            for (int i = 1; i < count; i++) {
+                int sq = moves[i];
+                tasks.add(() -> {
+                    SearchEngine engine = workerEngine.get();
+                    engine.setStats(stats, false);
+                    engine.setProbCut(probCut);
+                    engine.clearStop();
+                    engine.resetNodes();
+                    int score = engine.searchRootMove(own, opp, sq, searchDepth,
+                            result.alpha(), SearchEngine.INFINITY, deadline);
+                    workerNodes.addAndGet(engine.getNodes());
+                    if (engine.isTimeUp()) {
+                        timedOut.set(true);
+                    } else {
+                        result.offer(sq, score);
+                    }
+                    return null;
+                });
+            }
+            pool.invokeAll(tasks);
+
+            // Improvements found before time ran out were fully searched
+            bestMove = result.move;
+            bestScore = result.score;
+            promote(moves, count, bestMove);
+            if (timedOut.get()) break;
+            completedDepth = depth;
+            if (stats != null) stats.iteration(depth, bestScore, bestMove);
+        }
+        nodes = main.getNodes() + workerNodes.get();
+        return bestMove;
+    }
+
+    private int lazySmp(long own, long opp, long deadline, int maxDepth) {
+        List<Future<Integer>> helpers = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            SearchEngine helper = engines[i];
+            helper.clearStop();
+            int startDepth = 1 + (i & 1);
+            helpers.add(pool.submit(() -> helper.search(own, opp, deadline, startDepth, maxDepth)));
+        }
+
+        SearchEngine main = engines[0];
+        main.clearStop();
+        int bestMove = main.search(own, opp, deadline, 1, maxDepth);
+        completedDepth = main.getCompletedDepth();
+        bestScore = main.getBestScore();
+        nodes = main.getNodes();
+
+        for (int i = 1; i < threads; i++) {
+            engines[i].stop();
+        }
+        for (int i = 1; i < threads; i++) {
+            SearchEngine helper = engines[i];
+            int move = join(helpers.get(i - 1));
+            nodes += helper.getNodes();
+            // A helper that got deeper than the main thread has the better answer
+            if (helper.getCompletedDepth() > completedDepth && move != SearchEngine.NO_MOVE) {
+                completedDepth = helper.getCompletedDepth();
+                bestScore = helper.getBestScore();
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    private static int join(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SearchEngine.NO_MOVE;
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void promote(int[] moves, int count, int sq) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == sq) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = sq;
+                return;
+            }
+        }
+    }
+
+    // Best root move of one iteration, shared by the worker tasks
+    private static final class RootResult {
+        private int move;
+        private int score;
+
+        RootResult(int move, int score) {
+            this.move = move;
+            this.score = score;
+        }
+
+        synchronized int alpha() {
+            return score;
+        }
+
+        synchronized void offer(int sq, int value) {
+            if (value > score) {
+                score = value;
+                move = sq;
+            }
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
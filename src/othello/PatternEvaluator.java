@@ -0,0 +1,332 @@
+package othello;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Table-driven evaluation: the board is cut into edge, corner-region and
+// diagonal patterns, each pattern's squares are read as a base-3 number
+// (0 empty, 1 own, 2 opponent) and that number indexes a weight. Rotated and
+// mirrored copies of a pattern share one table. A separate set of tables is
+// kept for each game phase, chosen by disc count.
+//
+// Weights live in a binary file (see the format below) that is memory-mapped
+// read-only; every evaluator loaded from the same file shares the mapping, so
+// any number of engines and threads cost one copy.
+//
+// Scores are in hundredths of a disc, like HeuristicEvaluator.
+public class PatternEvaluator implements Evaluator {
+    // File layout, little-endian:
+    //   int MAGIC, int VERSION, int phases, int WEIGHTS_PER_PHASE,
+    //   then phases * WEIGHTS_PER_PHASE shorts, phase by phase
+    public static final int MAGIC = 0x5450524F; // "ORPT"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int DEFAULT_PHASES = 12;
+    // Weight file used by engines created without an explicit evaluator
+    public static final String WEIGHTS_PROPERTY = "othello.weights";
+
+    // Squares of the first instance of each pattern, as row * 8 + col
+    private static final int[][] PATTERNS = {
+            // Edge plus both X-squares
+            {9, 0, 1, 2, 3, 4, 5, 6, 7, 14},
+            // 3x3 corner block
+            {0, 1, 2, 8, 9, 10, 16, 17, 18},
+            // 2x5 corner block
+            {0, 1, 2, 3, 4, 8, 9, 10, 11, 12},
+            // Main diagonal
+            {0, 9, 18, 27, 36, 45, 54, 63},
+            // Shorter diagonals, 7 down to 4 squares
+            {1, 10, 19, 28, 37, 46, 55},
+            {2, 11, 20, 29, 38, 47},
+            {3, 12, 21, 30, 39},
+            {4, 13, 22, 31}
+    };
+    // How many of the 8 board symmetries each pattern is used under: 4 means
+    // the rotations, 8 adds the mirror images, 2 the two main diagonals
+    private static final int[] SYMMETRIES = {4, 4, 8, 2, 4, 4, 4, 4};
+
+    private static final long COL_0 = 0x0101010101010101L;
+
+    // Per instance: its squares and the offset of its pattern's table
+    private static final int[][] INSTANCE_SQUARES;
+    private static final int[] INSTANCE_OFFSET;
+    public static final int WEIGHTS_PER_PHASE;
+
+    // Reading squares one by one is slow, so each instance is split into
+    // groups of squares in distinct columns (of the board or of its
+    // transpose). A multiply collapses a group onto one byte, and GROUP_TABLE
+    // turns that byte into the group's share of the base-3 index. Instance i
+    // owns groups INSTANCE_GROUPS[i] up to INSTANCE_GROUPS[i + 1].
+    private static final int[] INSTANCE_GROUPS;
+    private static final long[] GROUP_MASK;
+    private static final boolean[] GROUP_TRANSPOSED;
+    private static final int[] GROUP_TABLE;
+
+    static {
+        int instances = 0;
+        for (int symmetries : SYMMETRIES) instances += symmetries;
+        INSTANCE_SQUARES = new int[instances][];
+        INSTANCE_OFFSET = new int[instances];
+
+        int offset = 0;
+        int instance = 0;
+        for (int p = 0; p < PATTERNS.length; p++) {
+            for (int s = 0; s < SYMMETRIES[p]; s++) {
+                int[] squares = new int[PATTERNS[p].length];
+                for (int i = 0; i < squares.length; i++) {
+                    squares[i] = transform(PATTERNS[p][i], s);
+                }
+                INSTANCE_SQUARES[instance] = squares;
+                INSTANCE_OFFSET[instance++] = offset;
+            }
+            offset += pow3(PATTERNS[p].length);
+        }
+        WEIGHTS_PER_PHASE = offset;
+
+        long[] masks = new long[instances * 8];
+        boolean[] transposed = new boolean[instances * 8];
+        int[] tables = new int[instances * 8 * 256];
+        INSTANCE_GROUPS = new int[instances + 1];
+        int groups = 0;
+        for (int i = 0; i < instances; i++) {
+            INSTANCE_GROUPS[i] = groups;
+            int[] squares = INSTANCE_SQUARES[i];
+            boolean transpose = maxPerColumn(squares, true) < maxPerColumn(squares, false);
+            int first = groups;
+            for (int k = 0; k < squares.length; k++) {
+                int sq = transpose ? transpose(squares[k]) : squares[k];
+                int g = first;
+                while (g < groups && (masks[g] & (COL_0 << (sq & 7))) != 0) g++;
+                if (g == groups) {
+                    transposed[groups++] = transpose;
+                }
+                masks[g] |= 1L << sq;
+                int power = pow3(squares.length - 1 - k);
+                for (int b = 0; b < 256; b++) {
+                    if ((b & (1 << (sq & 7))) != 0) tables[g * 256 + b] += power;
+                }
+            }
+        }
+        INSTANCE_GROUPS[instances] = groups;
+        GROUP_MASK = java.util.Arrays.copyOf(masks, groups);
+        GROUP_TRANSPOSED = java.util.Arrays.copyOf(transposed, groups);
+        GROUP_TABLE = java.util.Arrays.copyOf(tables, groups * 256);
+    }
+
+    private static final ConcurrentHashMap<Path, Mapping> SHARED = new ConcurrentHashMap<>();
+
+    // A mapped weight file and the size and modification time it had then
+    private static final class Mapping {
+        final long size;
+        final FileTime modified;
+        final Object fileKey;
+        final ByteBuffer buffer;
+
+        Mapping(BasicFileAttributes attributes, ByteBuffer buffer) {
+            this.size = attributes.size();
+            this.modified = attributes.lastModifiedTime();
+            this.fileKey = attributes.fileKey();
+            this.buffer = buffer;
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified.equals(attributes.lastModifiedTime())
+                    && Objects.equals(fileKey, attributes.fileKey());
+        }
+    }
+
+    private final ByteBuffer weights;
+    private final int phases;
+
+    // weights holds a complete weight file; it is only read with absolute gets,
+    // so one buffer can back evaluators on many threads
+    public PatternEvaluator(ByteBuffer weights) {
+        this.weights = weights.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.weights.capacity() < HEADER_BYTES || this.weights.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a pattern weight file");
+        }
+        if (this.weights.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported weight file version " + this.weights.getInt(4));
+        }
+        phases = this.weights.getInt(8);
+        if (phases < 1 || this.weights.getInt(12) != WEIGHTS_PER_PHASE
+                || this.weights.capacity() != HEADER_BYTES + 2L * phases * WEIGHTS_PER_PHASE) {
+            throw new IllegalArgumentException("Weight file does not match the pattern set");
+        }
+    }
+
+    // Maps the file once per JVM; later calls for the same file share the
+    // mapping until the file's size, modification time or inode changes, e.g.
+    // when Trainer writes new weights over it
+    public static PatternEvaluator load(Path file) throws IOException {
+        Path key = file.toRealPath();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        Mapping mapping = SHARED.get(key);
+        if (mapping == null || !mapping.matches(attributes)) {
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(key, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            mapping = new Mapping(attributes, buffer);
+            // Evaluators of the old mapping keep it; new ones get this one
+            SHARED.put(key, mapping);
+        }
+        return new PatternEvaluator(mapping.buffer);
+    }
+
+    // The weights named by the othello.weights system property, or
+    // HeuristicEvaluator if the property is unset or the file cannot be used
+    public static Evaluator defaultEvaluator() {
+        String file = System.getProperty(WEIGHTS_PROPERTY);
+        if (file != null) {
+            try {
+                return load(Path.of(file));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring weight file " + file + ": " + e.getMessage());
+            }
+        }
+        return new HeuristicEvaluator();
+    }
+
+    // Writes weights[phase][index] in the format load() reads. The weights go
+    // to a new file that then replaces `file`, so evaluators that have the old
+    // file mapped keep its inode and contents
+    public static void write(Path file, short[][] weights) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            writeTo(temp, weights);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeTo(Path file, short[][] weights) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(Integer.reverseBytes(MAGIC));
+            out.writeInt(Integer.reverseBytes(VERSION));
+            out.writeInt(Integer.reverseBytes(weights.length));
+            out.writeInt(Integer.reverseBytes(WEIGHTS_PER_PHASE));
+            for (short[] phase : weights) {
+                if (phase.length != WEIGHTS_PER_PHASE) {
+                    throw new IllegalArgumentException("Expected " + WEIGHTS_PER_PHASE + " weights per phase");
+                }
+                for (short weight : phase) {
+                    out.writeShort(Short.reverseBytes(weight));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int evaluate(long own, long opp) {
+        int base = HEADER_BYTES + 2 * phase(own, opp, phases) * WEIGHTS_PER_PHASE;
+        long ownT = Symmetry.transpose(own);
+        long oppT = Symmetry.transpose(opp);
+        int score = 0;
+        for (int i = 0; i < INSTANCE_OFFSET.length; i++) {
+            score += weights.getShort(base + 2 * (INSTANCE_OFFSET[i] + index(own, opp, ownT, oppT, i)));
+        }
+        // Stay well inside the range of proven wins and losses
+        return Math.max(-6400, Math.min(6400, score));
+    }
+
+    public int getPhases() {
+        return phases;
+    }
+
+    // Phase of a position out of `phases`, by number of discs on the board
+    public static int phase(long own, long opp, int phases) {
+        return (Long.bitCount(own | opp) - 4) * phases / 61;
+    }
+
+    // Number of pattern instances, i.e. features per position
+    public static int featureCount() {
+        return INSTANCE_SQUARES.length;
+    }
+
+    // Fills out with the weight index (within one phase) of every pattern
+    // instance; evaluate() is the sum of the weights at these indices
+    public static void features(long own, long opp, int[] out) {
+        long ownT = Symmetry.transpose(own);
+        long oppT = Symmetry.transpose(opp);
+        for (int i = 0; i < INSTANCE_OFFSET.length; i++) {
+            out[i] = INSTANCE_OFFSET[i] + index(own, opp, ownT, oppT, i);
+        }
+    }
+
+    // features() read square by square; the reference the group tables are tested against
+    static void referenceFeatures(long own, long opp, int[] out) {
+        for (int i = 0; i < INSTANCE_SQUARES.length; i++) {
+            int index = 0;
+            for (int sq : INSTANCE_SQUARES[i]) {
+                index = index * 3 + (int) ((own >>> sq) & 1) + 2 * (int) ((opp >>> sq) & 1);
+            }
+            out[i] = INSTANCE_OFFSET[i] + index;
+        }
+    }
+
+    // Base-3 index of instance i; ownT and oppT are the transposed boards
+    private static int index(long own, long opp, long ownT, long oppT, int i) {
+        int index = 0;
+        for (int g = INSTANCE_GROUPS[i]; g < INSTANCE_GROUPS[i + 1]; g++) {
+            long mask = GROUP_MASK[g];
+            long o = GROUP_TRANSPOSED[g] ? ownT : own;
+            long p = GROUP_TRANSPOSED[g] ? oppT : opp;
+            int table = g << 8;
+            index += GROUP_TABLE[table | (int) (((o & mask) * COL_0) >>> 56)]
+                    + 2 * GROUP_TABLE[table | (int) (((p & mask) * COL_0) >>> 56)];
+        }
+        return index;
+    }
+
+    private static int transpose(int sq) {
+        return (sq & 7) * 8 + (sq >>> 3);
+    }
+
+    // Most squares of the list sharing one column, of the board or its transpose
+    private static int maxPerColumn(int[] squares, boolean transposed) {
+        int[] counts = new int[8];
+        int max = 0;
+        for (int sq : squares) {
+            max = Math.max(max, ++counts[transposed ? sq >>> 3 : sq & 7]);
+        }
+        return max;
+    }
+
+    // Symmetry s of the board: s & 3 quarter turns, then a mirror if s >= 4
+    private static int transform(int sq, int s) {
+        int row = sq >>> 3;
+        int col = sq & 7;
+        for (int i = 0; i < (s & 3); i++) {
+            int r = col;
+            col = 7 - row;
+            row = r;
+        }
+        if (s >= 4) {
+            int r = col;
+            col = row;
+            row = r;
+        }
+        return row * 8 + col;
+    }
+
+    private static int pow3(int n) {
+        int result = 1;
+        for (int i = 0; i < n; i++) result *= 3;
+        return result;
+    }
+}
@@ -0,0 +1,327 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Perft: counts the leaf nodes of the game tree to a fixed depth. A forced
+// pass counts as a ply of its own, as in the published Othello perft numbers.
+// The verifier walks two rules engines through the same tree in lockstep and
+// reports the first position where they disagree.
+//
+// Usage: java othello.Perft <depth> [position] [--verify engineA engineB]
+// Engines: reference (ReferenceOthelloModel), model (OthelloModel),
+// bitboard (raw Bitboard operations).
+public class Perft {
+
+    // The operations perft needs from a rules implementation; play() follows
+    // OthelloModel.makeMove, including the automatic pass
+    public interface Engine {
+        String name();
+
+        long validMoves();
+
+        int currentPlayer();
+
+        long black();
+
+        long white();
+
+        void play(int move);
+
+        void undo();
+    }
+
+    // Where two engines first disagreed, with the moves that lead there
+    public static final class Divergence {
+        public final List<Integer> path;
+        public final String detail;
+
+        Divergence(List<Integer> path, String detail) {
+            this.path = path;
+            this.detail = detail;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("after");
+            if (path.isEmpty()) sb.append(" root");
+            for (int move : path) sb.append(' ').append(Move.toString(move));
+            return sb.append(": ").append(detail).toString();
+        }
+    }
+
+    // Fast path on OthelloModel's make/unmake
+    public static long count(OthelloModel model, int depth) {
+        if (depth == 0 || model.isGameOver()) return 1;
+        long nodes = 0;
+        int player = model.getCurrentPlayer();
+        for (long moves = model.getValidMoves(); moves != 0; moves &= moves - 1) {
+            int move = Long.numberOfTrailingZeros(moves);
+            long flipped = model.makeMove(move);
+            if (!model.isGameOver() && model.getCurrentPlayer() == player) {
+                // The opponent had to pass; the pass itself uses up a ply
+                nodes += depth == 1 ? 1 : count(model, depth - 2);
+            } else {
+                nodes += count(model, depth - 1);
+            }
+            model.unmakeMove(move, flipped);
+        }
+        return nodes;
+    }
+
+    public static long count(Engine engine, int depth) {
+        if (depth == 0 || engine.currentPlayer() == OthelloModel.EMPTY) return 1;
+        long nodes = 0;
+        int player = engine.currentPlayer();
+        for (long moves = engine.validMoves(); moves != 0; moves &= moves - 1) {
+            engine.play(Long.numberOfTrailingZeros(moves));
+            if (engine.currentPlayer() == player) {
+                nodes += depth == 1 ? 1 : count(engine, depth - 2);
+            } else {
+                nodes += count(engine, depth - 1);
+            }
+            engine.undo();
+        }
+        return nodes;
+    }
+
+    // Null if both engines agree on every node to the given depth
+    public static Divergence verify(Engine a, Engine b, int depth) {
+        return verify(a, b, depth, new ArrayList<>());
+    }
+
+    private static Divergence verify(Engine a, Engine b, int depth, List<Integer> path) {
+        String mismatch = compare(a, b);
+        if (mismatch != null) {
+            return new Divergence(new ArrayList<>(path), mismatch);
+        }
+        if (depth == 0 || a.currentPlayer() == OthelloModel.EMPTY) return null;
+
+        int player = a.currentPlayer();
+        for (long moves = a.validMoves(); moves != 0; moves &= moves - 1) {
+            int move = Long.numberOfTrailingZeros(moves);
+            a.play(move);
+            b.play(move);
+            path.add(move);
+            int remaining = a.currentPlayer() == player ? depth - 2 : depth - 1;
+            Divergence divergence = verify(a, b, Math.max(remaining, 0), path);
+            path.remove(path.size() - 1);
+            a.undo();
+            b.undo();
+            if (divergence != null) return divergence;
+        }
+        return null;
+    }
+
+    private static String compare(Engine a, Engine b) {
+        if (a.black() != b.black() || a.white() != b.white()) {
+            return String.format("discs differ: %s has black %016x white %016x, %s has black %016x white %016x",
+                    a.name(), a.black(), a.white(), b.name(), b.black(), b.white());
+        }
+        if (a.currentPlayer() != b.currentPlayer()) {
+            return String.format("side to move differs: %s says %d, %s says %d",
+                    a.name(), a.currentPlayer(), b.name(), b.currentPlayer());
+        }
+        if (a.validMoves() != b.validMoves()) {
+            return String.format("valid moves differ: %s has %s, %s has %s",
+                    a.name(), moveList(a.validMoves()), b.name(), moveList(b.validMoves()));
+        }
+        return null;
+    }
+
+    private static String moveList(long moves) {
+        StringBuilder sb = new StringBuilder("[");
+        for (; moves != 0; moves &= moves - 1) {
+            if (sb.length() > 1) sb.append(' ');
+            sb.append(Move.toString(Long.numberOfTrailingZeros(moves)));
+        }
+        return sb.append(']').toString();
+    }
+
+    public static Engine engine(String name, String position) {
+        switch (name) {
+            case "reference": return new ReferenceEngine(position);
+            case "model": return new ModelEngine(position);
+            case "bitboard": return new BitboardEngine(position);
+            default: throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+    }
+
+    private static final class ModelEngine implements Engine {
+        private final OthelloModel model;
+        private final int[] moves = new int[128];
+        private final long[] flips = new long[128];
+        private int ply;
+
+        ModelEngine(String position) {
+            model = OthelloModel.fromString(position);
+        }
+
+        public String name() { return "model"; }
+        public long validMoves() { return model.getValidMoves(); }
+        public int currentPlayer() { return model.getCurrentPlayer(); }
+        public long black() { return model.getBlackDiscs(); }
+        public long white() { return model.getWhiteDiscs(); }
+
+        public void play(int move) {
+            moves[ply] = move;
+            flips[ply++] = model.makeMove(move);
+        }
+
+        public void undo() {
+            ply--;
+            model.unmakeMove(moves[ply], flips[ply]);
+        }
+    }
+
+    // The original array-scanning rules; undo restores a saved copy
+    private static final class ReferenceEngine implements Engine {
+        private final List<ReferenceOthelloModel> history = new ArrayList<>();
+        private ReferenceOthelloModel model;
+
+        ReferenceEngine(String position) {
+            OthelloModel parsed = OthelloModel.fromString(position);
+            model = new ReferenceOthelloModel();
+            model.setBoard(parsed.getBoard(), parsed.getCurrentPlayer());
+        }
+
+        public String name() { return "reference"; }
+
+        public long validMoves() {
+            long moves = 0;
+            for (int row = 0; row < OthelloModel.BOARD_SIZE; row++) {
+                for (int col = 0; col < OthelloModel.BOARD_SIZE; col++) {
+                    if (model.isValidMove(row, col)) moves |= Bitboard.squareBit(row, col);
+                }
+            }
+            return moves;
+        }
+
+        public int currentPlayer() { return model.getCurrentPlayer(); }
+        public long black() { return discs(OthelloModel.BLACK); }
+        public long white() { return discs(OthelloModel.WHITE); }
+
+        private long discs(int player) {
+            int[][] board = model.getBoard();
+            long discs = 0;
+            for (int row = 0; row < OthelloModel.BOARD_SIZE; row++) {
+                for (int col = 0; col < OthelloModel.BOARD_SIZE; col++) {
+                    if (board[row][col] == player) discs |= Bitboard.squareBit(row, col);
+                }
+            }
+            return discs;
+        }
+
+        public void play(int move) {
+            history.add(model);
+            model = new ReferenceOthelloModel(model);
+            model.makeMove(Move.row(move), Move.col(move));
+        }
+
+        public void undo() {
+            model = history.remove(history.size() - 1);
+        }
+    }
+
+    // Bitboard primitives with the pass rule spelled out, as the search uses them
+    private static final class BitboardEngine implements Engine {
+        private final long[] blackStack = new long[128];
+        private final long[] whiteStack = new long[128];
+        private final int[] playerStack = new int[128];
+        private long black;
+        private long white;
+        private int player;
+        private int ply;
+
+        BitboardEngine(String position) {
+            OthelloModel parsed = OthelloModel.fromString(position);
+            black = parsed.getBlackDiscs();
+            white = parsed.getWhiteDiscs();
+            player = parsed.getCurrentPlayer();
+        }
+
+        public String name() { return "bitboard"; }
+
+        public long validMoves() {
+            if (player == OthelloModel.EMPTY) return 0;
+            return player == OthelloModel.BLACK ? Bitboard.legalMoves(black, white) : Bitboard.legalMoves(white, black);
+        }
+
+        public int currentPlayer() { return player; }
+        public long black() { return black; }
+        public long white() { return white; }
+
+        public void play(int move) {
+            blackStack[ply] = black;
+            whiteStack[ply] = white;
+            playerStack[ply++] = player;
+
+            long bit = 1L << move;
+            if (player == OthelloModel.BLACK) {
+                long flipped = Bitboard.flips(black, white, move);
+                black |= flipped | bit;
+                white &= ~flipped;
+            } else {
+                long flipped = Bitboard.flips(white, black, move);
+                white |= flipped | bit;
+                black &= ~flipped;
+            }
+
+            player = -player;
+            if (validMoves() == 0) {
+                player = -player;
+                if (validMoves() == 0) {
+                    player = OthelloModel.EMPTY;
+                }
+            }
+        }
+
+        public void undo() {
+            ply--;
+            black = blackStack[ply];
+            white = whiteStack[ply];
+            player = playerStack[ply];
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: java othello.Perft <depth> [position] [--verify engineA engineB]");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        String position = new OthelloModel().toString();
+        String verifyA = null;
+        String verifyB = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--verify") && i + 2 < args.length) {
+                verifyA = args[++i];
+                verifyB = args[++i];
+            } else if (i + 1 < args.length && args[i].length() == 64) {
+                position = args[i] + " " + args[++i];
+            } else {
+                position = args[i];
+            }
+        }
+
+        if (verifyA != null) {
+            long start = System.nanoTime();
+            Divergence divergence = verify(engine(verifyA, position), engine(verifyB, position), depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (divergence != null) {
+                System.out.println("DIVERGENCE " + divergence);
+                System.exit(1);
+            }
+            System.out.printf("%s and %s agree to depth %d (%.2f s)%n", verifyA, verifyB, depth, seconds);
+            return;
+        }
+
+        for (int d = 1; d <= depth; d++) {
+            OthelloModel model = OthelloModel.fromString(position);
+            long start = System.nanoTime();
+            long nodes = count(model, d);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("perft %2d: %12d nodes %8.3f s %12.0f nodes/s%n", d, nodes, seconds, nodes / seconds);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package othello;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Searches on the opponent's time. Given the position the opponent is to move
+// in, a background thread deepens every reply position in turn, likely
+// replies first, one ply at a time, and remembers the best answer to each.
+// Once the opponent has moved, result() gives the answer to the position on
+// the board instantly if it was pondered deep enough. The engine shares its
+// TranspositionTable with the main search, so even unfinished pondering
+// speeds up the search that follows.
+//
+// start() and cancel() never block and may be called from the EDT; await()
+// waits for the pondering to wind down and belongs on a worker thread.
+public class Ponderer implements AutoCloseable {
+    private static final long STOP_RETRY_MILLIS = 5;
+
+    private final SearchEngine engine;
+    private final ExecutorService thread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = new Thread(runnable, "ponder");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    // Key of a pondered position -> completed depth << 32 | best move
+    private final ConcurrentHashMap<Long, Long> results = new ConcurrentHashMap<>();
+    // Bumped by cancel(); a pondering task runs while it still matches
+    private volatile int generation;
+    private Future<?> task;
+    // Notified whenever a result is stored, for awaitDepth
+    private final Object progress = new Object();
+
+    public Ponderer(Evaluator evaluator, TranspositionTable table) {
+        engine = new SearchEngine(evaluator, table);
+    }
+
+    // Starts pondering the replies to the side owning `own`, who is about to
+    // move; replaces any earlier pondering
+    public synchronized void start(long own, long opp) {
+        cancel();
+        results.clear();
+        int current = generation;
+        task = thread.submit(() -> ponder(own, opp, current));
+    }
+
+    // Asks the pondering to stop; returns at once
+    public synchronized void cancel() {
+        generation++;
+        engine.stop();
+    }
+
+    // Cancels and waits until the pondering thread is idle. The engine
+    // clears its stop flag when a new search starts, so the stop request is
+    // repeated until the task has noticed the cancellation.
+    public void await() {
+        Future<?> current;
+        synchronized (this) {
+            cancel();
+            current = task;
+        }
+        if (current == null) return;
+        try {
+            while (true) {
+                try {
+                    current.get(STOP_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    engine.stop();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void ponder(long own, long opp, int run) {
+        engine.clearStop();
+        int[] replies = new int[64];
+        int count = engine.orderRootMoves(own, opp, replies);
+        long[] replyOwn = new long[count];
+        long[] replyOpp = new long[count];
+        for (int i = 0; i < count; i++) {
+            long flipped = Bitboard.flips(own, opp, replies[i]);
+            // The side to move after the reply owns the opponent's discs
+            replyOwn[i] = opp & ~flipped;
+            replyOpp[i] = own | flipped | (1L << replies[i]);
+        }
+
+        engine.getTable().newSearch();
+        int empties = 64 - Long.bitCount(own | opp) - 1;
+        boolean[] done = new boolean[count];
+        for (int depth = 1; depth <= empties && generation == run; depth++) {
+            for (int i = 0; i < count && generation == run; i++) {
+                if (done[i] || Bitboard.legalMoves(replyOwn[i], replyOpp[i]) == 0) continue;
+                // Within the solver's reach go straight to the exact result
+                int target = empties <= engine.getEndgameEmpties() ? empties : depth;
+                int move = engine.search(replyOwn[i], replyOpp[i], Long.MAX_VALUE, 1, target);
+                int completed = engine.getCompletedDepth();
+                if (generation == run && completed > 0) {
+                    results.put(key(replyOwn[i], replyOpp[i]), ((long) completed << 32) | (move & 0xFFFFFFFFL));
+                    synchronized (progress) {
+                        progress.notifyAll();
+                    }
+                    // Solved exactly by the endgame solver: nothing deeper to find
+                    done[i] = completed >= empties;
+                }
+            }
+        }
+    }
+
+    private static long key(long own, long opp) {
+        return Zobrist.hash(own, opp, false);
+    }
+
+    // Pondered move for the side owning `own` if it was searched to at least
+    // minDepth, otherwise Move.NONE
+    public int result(long own, long opp, int minDepth) {
+        Long entry = results.get(key(own, opp));
+        if (entry == null || (int) (entry >>> 32) < minDepth) return Move.NONE;
+        int move = (int) (long) entry;
+        // Guard against a hash collision with an unrelated position
+        return Bitboard.flips(own, opp, move) == 0 ? Move.NONE : move;
+    }
+
+    // Waits until the position has been pondered to at least minDepth or the
+    // timeout passes; true if the depth was reached
+    public boolean awaitDepth(long own, long opp, int minDepth, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            while (depth(own, opp) < minDepth) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) return false;
+                progress.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    // Deepest completed depth for the position, or 0
+    public int depth(long own, long opp) {
+        Long entry = results.get(key(own, opp));
+        return entry == null ? 0 : (int) (entry >>> 32);
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        thread.shutdownNow();
+    }
+}
@@ -0,0 +1,210 @@
+package othello;
+
+// Immutable 8x8 position: the two bitboards (see Bitboard), the side to move
+// and, computed once, that side's legal moves. play() returns a new Position,
+// so positions can be shared freely between threads, caches and queues of
+// work without copying. The side to move is OthelloModel.BLACK, WHITE, or
+// EMPTY once the game is over; as in OthelloModel, a side without a legal
+// move passes automatically.
+public final class Position {
+    public static final Position INITIAL = new Position(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE,
+            OthelloModel.BLACK);
+
+    private final long black;
+    private final long white;
+    private final int player;
+    private final long moves;
+
+    private Position(long black, long white, int player) {
+        this(black, white, player, player == OthelloModel.EMPTY ? 0
+                : player == OthelloModel.BLACK ? Bitboard.legalMoves(black, white) : Bitboard.legalMoves(white, black));
+    }
+
+    private Position(long black, long white, int player, long moves) {
+        this.black = black;
+        this.white = white;
+        this.player = player;
+        this.moves = moves;
+    }
+
+    public static Position of(long blackDiscs, long whiteDiscs, int player) {
+        if ((blackDiscs & whiteDiscs) != 0) {
+            throw new IllegalArgumentException("Squares with both colors: " + Long.toHexString(blackDiscs & whiteDiscs));
+        }
+        if (player != OthelloModel.BLACK && player != OthelloModel.WHITE && player != OthelloModel.EMPTY) {
+            throw new IllegalArgumentException("Invalid player: " + player);
+        }
+        return new Position(blackDiscs, whiteDiscs, player);
+    }
+
+    // For OthelloModel, whose state is already consistent: moves must be the
+    // legal moves of player
+    static Position snapshot(long blackDiscs, long whiteDiscs, int player, long moves) {
+        return new Position(blackDiscs, whiteDiscs, player, moves);
+    }
+
+    // From an 8x8 int[][] layout using BLACK/WHITE/EMPTY values
+    public static Position fromArray(int[][] cells, int player) {
+        if (cells.length != OthelloModel.BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have " + OthelloModel.BOARD_SIZE + " rows");
+        }
+        long b = 0;
+        long w = 0;
+        for (int i = 0; i < OthelloModel.BOARD_SIZE; i++) {
+            if (cells[i].length != OthelloModel.BOARD_SIZE) {
+                throw new IllegalArgumentException("Row " + i + " must have " + OthelloModel.BOARD_SIZE + " squares");
+            }
+            for (int j = 0; j < OthelloModel.BOARD_SIZE; j++) {
+                if (cells[i][j] == OthelloModel.BLACK) b |= Bitboard.squareBit(i, j);
+                else if (cells[i][j] == OthelloModel.WHITE) w |= Bitboard.squareBit(i, j);
+                else if (cells[i][j] != OthelloModel.EMPTY) throw new IllegalArgumentException("Invalid piece: " + cells[i][j]);
+            }
+        }
+        return of(b, w, player);
+    }
+
+    // OthelloModel.fromString format, 64 squares only
+    public static Position fromString(String position) {
+        String[] parts = position.trim().split("\\s+");
+        if (parts.length != 2 || parts[0].length() != 64) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        long b = 0;
+        long w = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            char c = Character.toUpperCase(parts[0].charAt(sq));
+            if (c == 'X') b |= 1L << sq;
+            else if (c == 'O') w |= 1L << sq;
+            else if (c != '-' && c != '.') throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        return new Position(b, w, parseSide(parts[1]));
+    }
+
+    // X, O or - (game over) as the side to move
+    static int parseSide(String side) {
+        switch (side.toUpperCase()) {
+            case "X": return OthelloModel.BLACK;
+            case "O": return OthelloModel.WHITE;
+            case "-": return OthelloModel.EMPTY;
+            default: throw new IllegalArgumentException("Invalid side to move: " + side);
+        }
+    }
+
+    // Plays a packed move (see Move) for the side to move
+    public Position play(int move) {
+        if (move < 0 || move >= 64 || (moves & (1L << move)) == 0) {
+            throw new IllegalArgumentException("Invalid move");
+        }
+        long own = getOwnDiscs();
+        long opp = getOpponentDiscs();
+        long flipped = Bitboard.flips(own, opp, move);
+        own |= (1L << move) | flipped;
+        opp &= ~flipped;
+
+        int next = -player;
+        long nextMoves = Bitboard.legalMoves(opp, own);
+        if (nextMoves == 0) {
+            // The opponent passes, or nobody can move
+            next = player;
+            nextMoves = Bitboard.legalMoves(own, opp);
+            if (nextMoves == 0) next = OthelloModel.EMPTY;
+        }
+        return player == OthelloModel.BLACK
+                ? new Position(own, opp, next, nextMoves)
+                : new Position(opp, own, next, nextMoves);
+    }
+
+    public Position play(int row, int col) {
+        if (row < 0 || row >= OthelloModel.BOARD_SIZE || col < 0 || col >= OthelloModel.BOARD_SIZE) {
+            throw new IllegalArgumentException("Invalid move");
+        }
+        return play(Move.of(row, col));
+    }
+
+    public long getBlackDiscs() {
+        return black;
+    }
+
+    public long getWhiteDiscs() {
+        return white;
+    }
+
+    // Discs of the side to move, and of the other side (white's and black's
+    // for a finished game, as in OthelloModel)
+    public long getOwnDiscs() {
+        return player == OthelloModel.BLACK ? black : white;
+    }
+
+    public long getOpponentDiscs() {
+        return player == OthelloModel.BLACK ? white : black;
+    }
+
+    public int getCurrentPlayer() {
+        return player;
+    }
+
+    // Bit mask of the side to move's legal moves
+    public long getValidMoves() {
+        return moves;
+    }
+
+    public boolean isValidMove(int row, int col) {
+        return row >= 0 && row < OthelloModel.BOARD_SIZE && col >= 0 && col < OthelloModel.BOARD_SIZE
+                && (moves & Bitboard.squareBit(row, col)) != 0;
+    }
+
+    public boolean isGameOver() {
+        return player == OthelloModel.EMPTY;
+    }
+
+    public int getPiece(int row, int col) {
+        long bit = Bitboard.squareBit(row, col);
+        if ((black & bit) != 0) return OthelloModel.BLACK;
+        if ((white & bit) != 0) return OthelloModel.WHITE;
+        return OthelloModel.EMPTY;
+    }
+
+    public int getBlackCount() {
+        return Long.bitCount(black);
+    }
+
+    public int getWhiteCount() {
+        return Long.bitCount(white);
+    }
+
+    // Same keys as OthelloModel.getHash and getCanonicalHash
+    public long getHash() {
+        return Zobrist.hash(black, white, player == OthelloModel.WHITE);
+    }
+
+    public long getCanonicalHash() {
+        long key = Symmetry.canonicalHash(getOwnDiscs(), getOpponentDiscs());
+        return player == OthelloModel.WHITE ? key ^ Zobrist.WHITE_TO_MOVE : key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Position)) return false;
+        Position other = (Position) o;
+        return black == other.black && white == other.white && player == other.player;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = black * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(white, 29) ^ player;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // OthelloModel.toString format
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(66);
+        for (int sq = 0; sq < 64; sq++) {
+            long bit = 1L << sq;
+            sb.append((black & bit) != 0 ? 'X' : (white & bit) != 0 ? 'O' : '-');
+        }
+        sb.append(' ').append(player == OthelloModel.BLACK ? 'X' : player == OthelloModel.WHITE ? 'O' : '-');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,326 @@
+package othello;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache of facts about positions shared by any number of games and engine
+// threads in one JVM: static evaluations, legal-move sets and exact endgame
+// results. Positions are keyed by their canonical form (Symmetry.canonical),
+// so the eight images of a position share one entry; moves and move sets are
+// stored in canonical orientation and mapped back for the caller.
+// Evaluations are those of the canonical image. PatternEvaluator is not
+// symmetric, so its score for another image can differ, but every image gets
+// the same answer whichever one was evaluated first.
+//
+// Keys mix the two canonical bitboards with a multiply-xorshift rather than
+// a Zobrist hash: the disc loop of Zobrist.hash costs more than the lookup.
+//
+// The size is fixed: buckets of four slots in one long[], three words per
+// slot (check, data, legal moves). Like TranspositionTable the cache is
+// lock-free; each slot stores key ^ data ^ moves as its check word, so a slot
+// torn by racing writers reads as a miss. A lookup reads the three words once
+// and uses only the copies it checked. Two threads adding different facts
+// about one position at once may lose one of them, which only costs a
+// recomputation.
+//
+// Eviction approximates LRU: entries carry the epoch (a count of stores
+// scaled to the capacity) they were last stored or hit in, and a full bucket
+// replaces its stalest entry. The count is a LongAdder so that storing
+// threads do not contend on one counter. Solved results count as a few
+// epochs younger, since they are the most expensive to recompute.
+public class PositionCache {
+    public static final int NO_EVALUATION = Integer.MIN_VALUE;
+    public static final long NO_MOVES = -1L;
+    // solved() of a position that has no result
+    public static final int NOT_SOLVED = 0;
+
+    private static final int WAYS = 4;
+    private static final int WORDS = 3;
+    private static final int BYTES_PER_SLOT = WORDS * 8;
+    private static final int SOLVED_BONUS = 16;
+
+    // Data word, low bits first:
+    // 32 bits evaluation | has evaluation | has result | 8 bits diff + 64 |
+    // 7 bits move + 1 | 8 bits epoch | present
+    private static final long HAS_EVALUATION = 1L << 32;
+    private static final long HAS_RESULT = 1L << 33;
+    private static final int DIFF_SHIFT = 34;
+    private static final int MOVE_SHIFT = 42;
+    private static final int EPOCH_SHIFT = 49;
+    private static final long EPOCH_MASK = 0xFFL << EPOCH_SHIFT;
+    private static final long PRESENT = 1L << 57;
+
+    // A slot whose words passed the check, as they were read
+    private static final class Hit {
+        final int slot;
+        final long data;
+        final long moves;
+
+        Hit(int slot, long data, long moves) {
+            this.slot = slot;
+            this.data = data;
+            this.moves = moves;
+        }
+    }
+
+    private final long[] slots;
+    private final int bucketMask;
+    private final int epochShift;
+    private final LongAdder stores = new LongAdder();
+
+    private final LongAdder evaluationLookups = new LongAdder();
+    private final LongAdder evaluationHits = new LongAdder();
+    private final LongAdder moveLookups = new LongAdder();
+    private final LongAdder moveHits = new LongAdder();
+    private final LongAdder solvedLookups = new LongAdder();
+    private final LongAdder solvedHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PositionCache(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Cache needs at least 1 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (BYTES_PER_SLOT * WAYS));
+        buckets = Math.min(buckets, Long.highestOneBit(Integer.MAX_VALUE / (WAYS * WORDS)));
+        slots = new long[(int) buckets * WAYS * WORDS];
+        bucketMask = (int) buckets - 1;
+        // 256 epochs span about four times the capacity in stores
+        epochShift = Math.max(0, 63 - Long.numberOfLeadingZeros(buckets * WAYS) - 6);
+    }
+
+    public int capacity() {
+        return slots.length / WORDS;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(slots, 0);
+    }
+
+    // Static evaluation of the position's canonical image from the cache,
+    // computed with evaluator and stored on a miss
+    public int evaluate(Evaluator evaluator, long own, long opp) {
+        evaluationLookups.increment();
+        int s = Symmetry.canonical(own, opp);
+        long canonicalOwn = Symmetry.apply(own, s);
+        long canonicalOpp = Symmetry.apply(opp, s);
+        long key = key(canonicalOwn, canonicalOpp);
+        Hit hit = find(key);
+        if (hit != null && (hit.data & HAS_EVALUATION) != 0) {
+            evaluationHits.increment();
+            touch(hit, key);
+            return (int) hit.data;
+        }
+        int score = evaluator.evaluate(canonicalOwn, canonicalOpp);
+        storeEvaluation(key, canonicalOwn, canonicalOpp, score);
+        return score;
+    }
+
+    // Cached evaluation, or NO_EVALUATION
+    public int evaluation(long own, long opp) {
+        evaluationLookups.increment();
+        int s = Symmetry.canonical(own, opp);
+        long key = key(Symmetry.apply(own, s), Symmetry.apply(opp, s));
+        Hit hit = find(key);
+        if (hit == null || (hit.data & HAS_EVALUATION) == 0) return NO_EVALUATION;
+        evaluationHits.increment();
+        touch(hit, key);
+        return (int) hit.data;
+    }
+
+    // score is the evaluation of the canonical image, or of any image for a
+    // symmetric evaluator
+    public void putEvaluation(long own, long opp, int score) {
+        int s = Symmetry.canonical(own, opp);
+        long canonicalOwn = Symmetry.apply(own, s);
+        long canonicalOpp = Symmetry.apply(opp, s);
+        storeEvaluation(key(canonicalOwn, canonicalOpp), canonicalOwn, canonicalOpp, score);
+    }
+
+    private void storeEvaluation(long key, long canonicalOwn, long canonicalOpp, int score) {
+        store(key, canonicalOwn, canonicalOpp, (score & 0xFFFFFFFFL) | HAS_EVALUATION, 0xFFFFFFFFL | HAS_EVALUATION);
+    }
+
+    // Legal moves of the side owning `own` if the position has an entry of
+    // any kind, otherwise NO_MOVES. Every entry carries its move set.
+    public long legalMoves(long own, long opp) {
+        moveLookups.increment();
+        int s = Symmetry.canonical(own, opp);
+        long key = key(Symmetry.apply(own, s), Symmetry.apply(opp, s));
+        Hit hit = find(key);
+        if (hit == null) return NO_MOVES;
+        moveHits.increment();
+        touch(hit, key);
+        return Symmetry.applyInverse(hit.moves, s);
+    }
+
+    // Exact result with best play, packed (see diff() and move()), or
+    // NOT_SOLVED
+    public int solved(long own, long opp) {
+        solvedLookups.increment();
+        int s = Symmetry.canonical(own, opp);
+        long key = key(Symmetry.apply(own, s), Symmetry.apply(opp, s));
+        Hit hit = find(key);
+        if (hit == null || (hit.data & HAS_RESULT) == 0) return NOT_SOLVED;
+        solvedHits.increment();
+        touch(hit, key);
+        long data = hit.data;
+        int move = (int) (data >>> MOVE_SHIFT & 0x7F) - 1;
+        if (move >= 0 && move < 64) move = Symmetry.inverseSquare(move, s);
+        int diff = (int) (data >>> DIFF_SHIFT & 0xFF) - 64;
+        return pack(diff, move);
+    }
+
+    // Final disc differential for the side to move under best play, and the
+    // move that achieves it (NO_MOVE when the side to move must pass)
+    public void putSolved(long own, long opp, int diff, int move) {
+        if (diff < -64 || diff > 64) {
+            throw new IllegalArgumentException("Invalid disc differential: " + diff);
+        }
+        int s = Symmetry.canonical(own, opp);
+        long canonicalOwn = Symmetry.apply(own, s);
+        long canonicalOpp = Symmetry.apply(opp, s);
+        long key = key(canonicalOwn, canonicalOpp);
+        int canonicalMove = move >= 0 && move < 64 ? Symmetry.square(move, s) : move;
+        long bits = HAS_RESULT | ((long) (diff + 64) << DIFF_SHIFT) | ((long) (canonicalMove + 1) << MOVE_SHIFT);
+        store(key, canonicalOwn, canonicalOpp, bits, HAS_RESULT | (0xFFL << DIFF_SHIFT) | (0x7FL << MOVE_SHIFT));
+    }
+
+    private static long key(long own, long opp) {
+        long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ h >>> 32;
+    }
+
+    private static int pack(int diff, int move) {
+        return ((diff + 64) << 8 | (move + 1)) + 1;
+    }
+
+    public static int diff(int solved) {
+        return ((solved - 1) >>> 8) - 64;
+    }
+
+    public static int move(int solved) {
+        return ((solved - 1) & 0xFF) - 1;
+    }
+
+    // The key's entry, or null. Each word is read once, so a slot rewritten
+    // after the check cannot hand back another position's data or moves.
+    private Hit find(long key) {
+        int base = ((int) key & bucketMask) * WAYS * WORDS;
+        for (int i = base; i < base + WAYS * WORDS; i += WORDS) {
+            long check = slots[i];
+            long data = slots[i + 1];
+            long moves = slots[i + 2];
+            if (data != 0 && (check ^ data ^ moves) == key) return new Hit(i, data, moves);
+        }
+        return null;
+    }
+
+    private int epoch() {
+        return (int) (stores.sum() >>> epochShift) & 0xFF;
+    }
+
+    // Marks an entry as used in this epoch; writes at most once per epoch,
+    // and only the words the lookup checked
+    private void touch(Hit hit, long key) {
+        long epoch = (long) epoch() << EPOCH_SHIFT;
+        if ((hit.data & EPOCH_MASK) != epoch) {
+            write(hit.slot, key, (hit.data & ~EPOCH_MASK) | epoch, hit.moves);
+        }
+    }
+
+    // Merges the fields under fieldMask into the key's entry, creating it
+    // (and evicting the stalest entry of a full bucket) if needed
+    private void store(long key, long own, long opp, long bits, long fieldMask) {
+        stores.increment();
+        int epoch = epoch();
+        int base = ((int) key & bucketMask) * WAYS * WORDS;
+        int victim = -1;
+        int victimAge = Integer.MIN_VALUE;
+        for (int i = base; i < base + WAYS * WORDS; i += WORDS) {
+            long check = slots[i];
+            long data = slots[i + 1];
+            long moves = slots[i + 2];
+            if (data != 0 && (check ^ data ^ moves) == key) {
+                write(i, key, (data & ~fieldMask & ~EPOCH_MASK) | bits | PRESENT | (long) epoch << EPOCH_SHIFT, moves);
+                return;
+            }
+            int age;
+            if (data == 0) {
+                age = Integer.MAX_VALUE;
+            } else {
+                age = (epoch - (int) (data >>> EPOCH_SHIFT & 0xFF)) & 0xFF;
+                if ((data & HAS_RESULT) != 0) age -= SOLVED_BONUS;
+            }
+            if (age > victimAge) {
+                victim = i;
+                victimAge = age;
+            }
+        }
+        if (victimAge != Integer.MAX_VALUE) evictions.increment();
+        write(victim, key, bits | PRESENT | (long) epoch << EPOCH_SHIFT, Bitboard.legalMoves(own, opp));
+    }
+
+    private void write(int slot, long key, long data, long moves) {
+        slots[slot + 1] = data;
+        slots[slot + 2] = moves;
+        slots[slot] = key ^ data ^ moves;
+    }
+
+    public long getEvaluationLookups() {
+        return evaluationLookups.sum();
+    }
+
+    public long getEvaluationHits() {
+        return evaluationHits.sum();
+    }
+
+    public long getMoveLookups() {
+        return moveLookups.sum();
+    }
+
+    public long getMoveHits() {
+        return moveHits.sum();
+    }
+
+    public long getSolvedLookups() {
+        return solvedLookups.sum();
+    }
+
+    public long getSolvedHits() {
+        return solvedHits.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    // Live entries replaced to make room
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double evaluationHitRate() {
+        return rate(evaluationHits.sum(), evaluationLookups.sum());
+    }
+
+    public double moveHitRate() {
+        return rate(moveHits.sum(), moveLookups.sum());
+    }
+
+    public double solvedHitRate() {
+        return rate(solvedHits.sum(), solvedLookups.sum());
+    }
+
+    private static double rate(long hits, long lookups) {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cache %d entries: evaluations %.1f%% of %d, moves %.1f%% of %d, "
+                        + "solved %.1f%% of %d, %d stores, %d evictions",
+                capacity(), 100 * evaluationHitRate(), getEvaluationLookups(), 100 * moveHitRate(),
+                getMoveLookups(), 100 * solvedHitRate(), getSolvedLookups(), getStores(), getEvictions());
+    }
+}
@@ -0,0 +1,220 @@
+package othello;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Multi-ProbCut parameters (Buro). The score v_D of a search of height D is
+// predicted from a shallow search of the same node to check depth d as
+// a * v_d + b, with a normally distributed error of standard deviation sigma.
+// Before searching a node of height D, SearchEngine runs null-window searches
+// at D's check depths, cheapest first; when the shallow score puts v_D >= beta
+// (or <= alpha) more than `threshold` standard deviations away, the node is
+// cut without the deep search. Parameters are fitted per game stage, height
+// and check depth by ProbCutCalibrator and only hold for the evaluator they
+// were calibrated with.
+//
+// Heights above the deepest calibrated one reuse the parameters of the
+// deepest calibrated height of the same parity, check for check. Sigma grows
+// slowly with the height, so this errs a little toward cutting; calibrating
+// deeper avoids it.
+//
+// Text file, '#' starts a comment, one line per fitted pair:
+//   stage height depth slope intercept sigma samples
+// Read-only once loaded, so engines on several threads can share one.
+public final class ProbCut {
+    public static final int MIN_HEIGHT = 3;
+    public static final int MAX_HEIGHT = 24;
+    public static final int STAGES = 4;
+    public static final double DEFAULT_THRESHOLD = 1.5;
+    // Parameter file used by engines created without an explicit evaluator
+    public static final String PARAMETERS_PROPERTY = "othello.probcut";
+    // Pairs fitted from fewer samples than this are left out
+    static final int MIN_SAMPLES = 20;
+    // A slope this flat means the shallow search predicts nothing
+    private static final double MIN_SLOPE = 0.2;
+
+    // CHECK_DEPTHS[height]: shallow depths, cheapest first, of the same
+    // parity as the height since Othello scores swing with the side to move
+    private static final int[][] CHECK_DEPTHS = new int[MAX_HEIGHT + 1][];
+
+    static {
+        for (int height = 0; height <= MAX_HEIGHT; height++) {
+            int depth = height / 2;
+            if (((height - depth) & 1) != 0) depth--;
+            if (height < MIN_HEIGHT || depth < 1) CHECK_DEPTHS[height] = new int[0];
+            else if (depth < 3) CHECK_DEPTHS[height] = new int[]{depth};
+            else CHECK_DEPTHS[height] = new int[]{depth - 2, depth};
+        }
+    }
+
+    // [stage][height][check]; a pair is unusable while its sigma is NaN
+    private final double[][][] slope = new double[STAGES][MAX_HEIGHT + 1][2];
+    private final double[][][] intercept = new double[STAGES][MAX_HEIGHT + 1][2];
+    private final double[][][] sigma = new double[STAGES][MAX_HEIGHT + 1][2];
+    private final int[][][] samples = new int[STAGES][MAX_HEIGHT + 1][2];
+    private double threshold = DEFAULT_THRESHOLD;
+
+    ProbCut() {
+        for (double[][] stage : sigma) {
+            for (double[] height : stage) java.util.Arrays.fill(height, Double.NaN);
+        }
+    }
+
+    // Game stage by disc count: 4 to 64 discs in STAGES even steps
+    public static int stage(int discs) {
+        return Math.min(STAGES - 1, Math.max(0, discs - 4) * STAGES / 61);
+    }
+
+    public static int checks(int height) {
+        return height > MAX_HEIGHT ? 0 : CHECK_DEPTHS[height].length;
+    }
+
+    public static int checkDepth(int height, int check) {
+        return CHECK_DEPTHS[height][check];
+    }
+
+    // Index of depth among the height's checks, or -1
+    static int checkIndex(int height, int depth) {
+        for (int i = 0; i < checks(height); i++) {
+            if (CHECK_DEPTHS[height][i] == depth) return i;
+        }
+        return -1;
+    }
+
+    void set(int stage, int height, int check, double a, double b, double s, int n) {
+        slope[stage][height][check] = a;
+        intercept[stage][height][check] = b;
+        sigma[stage][height][check] = n >= MIN_SAMPLES && a >= MIN_SLOPE ? s : Double.NaN;
+        samples[stage][height][check] = n;
+    }
+
+    public boolean has(int stage, int height, int check) {
+        return !Double.isNaN(sigma[stage][height][check]);
+    }
+
+    // Shallow score at or above which a node of this height is cut at beta
+    public int betaBound(int stage, int height, int check, int beta) {
+        double s = sigma[stage][height][check];
+        return (int) Math.ceil((beta + threshold * s - intercept[stage][height][check]) / slope[stage][height][check]);
+    }
+
+    // Shallow score at or below which a node of this height is cut at alpha
+    public int alphaBound(int stage, int height, int check, int alpha) {
+        double s = sigma[stage][height][check];
+        return (int) Math.floor((alpha - threshold * s - intercept[stage][height][check]) / slope[stage][height][check]);
+    }
+
+    // Standard deviations of confidence a cut needs; larger is safer and
+    // prunes less. Set before handing the parameters to engines.
+    public void setThreshold(double threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public double getSlope(int stage, int height, int check) {
+        return slope[stage][height][check];
+    }
+
+    public double getIntercept(int stage, int height, int check) {
+        return intercept[stage][height][check];
+    }
+
+    public double getSigma(int stage, int height, int check) {
+        return sigma[stage][height][check];
+    }
+
+    public int getSamples(int stage, int height, int check) {
+        return samples[stage][height][check];
+    }
+
+    // Fills uncalibrated heights from the deepest calibrated one of the same
+    // parity; only pairs actually fitted are written back out
+    void extend() {
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int parity = 0; parity < 2; parity++) {
+                int deepest = -1;
+                for (int height = MIN_HEIGHT; height <= MAX_HEIGHT; height++) {
+                    if ((height & 1) != parity) continue;
+                    int last = checks(height) - 1;
+                    if (has(stage, height, last)) {
+                        deepest = height;
+                    } else if (deepest >= 0 && samples[stage][height][last] == 0) {
+                        for (int check = 0; check <= last; check++) {
+                            // Counted from the deepest check, which both heights have
+                            int from = checks(deepest) - 1 - (last - check);
+                            if (from < 0) continue;
+                            slope[stage][height][check] = slope[stage][deepest][from];
+                            intercept[stage][height][check] = intercept[stage][deepest][from];
+                            sigma[stage][height][check] = sigma[stage][deepest][from];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static ProbCut load(Path file) throws IOException {
+        ProbCut probCut = new ProbCut();
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).replaceFirst("#.*", "").trim();
+            if (line.isEmpty()) continue;
+            String[] f = line.split("\\s+");
+            try {
+                if (f.length != 7) throw new IllegalArgumentException("expected 7 fields");
+                int stage = Integer.parseInt(f[0]);
+                int height = Integer.parseInt(f[1]);
+                if (stage < 0 || stage >= STAGES || height < MIN_HEIGHT || height > MAX_HEIGHT) {
+                    throw new IllegalArgumentException("stage or height out of range");
+                }
+                int check = checkIndex(height, Integer.parseInt(f[2]));
+                if (check < 0) throw new IllegalArgumentException("not a check depth of height " + height);
+                probCut.set(stage, height, check, Double.parseDouble(f[3]), Double.parseDouble(f[4]),
+                        Double.parseDouble(f[5]), Integer.parseInt(f[6]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + " line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        probCut.extend();
+        return probCut;
+    }
+
+    // Parameters named by the othello.probcut property, or null (no ProbCut)
+    public static ProbCut defaultProbCut() {
+        String file = System.getProperty(PARAMETERS_PROPERTY);
+        if (file != null) {
+            try {
+                return load(Path.of(file));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring ProbCut file " + file + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public void write(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("# stage height depth slope intercept sigma samples\n");
+            for (int stage = 0; stage < STAGES; stage++) {
+                for (int height = MIN_HEIGHT; height <= MAX_HEIGHT; height++) {
+                    for (int check = 0; check < checks(height); check++) {
+                        if (samples[stage][height][check] == 0) continue;
+                        out.write(String.format(java.util.Locale.ROOT, "%d %d %d %.4f %.2f %.2f %d%n",
+                                stage, height, checkDepth(height, check), slope[stage][height][check],
+                                intercept[stage][height][check], sigma[stage][height][check],
+                                samples[stage][height][check]));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Offline calibration of ProbCut parameters. Takes positions from a sample
+// file written by `java othello.Trainer generate`, searches each one with plain
+// alpha-beta (no ProbCut, no endgame solver) to every depth from 1 to
+// --max-depth, and for every stage, height D and check depth d of D fits
+// v_D = a * v_d + b by least squares; sigma is the standard deviation of the
+// residuals. Positions too close to the end for a --max-depth search, or with
+// a single legal move, are skipped, as are pairs where either score is a
+// proven win or loss.
+//
+// Usage: java othello.ProbCutCalibrator --data samples.bin --out probcut.txt
+//            [--max-depth D] [--positions N] [--threads N] [--weights FILE]
+// The parameters only fit the evaluator they were calibrated with: pass the
+// same --weights the engine will use (default: HeuristicEvaluator).
+public class ProbCutCalibrator {
+    private static final int TABLE_MB = 4;
+
+    public static void main(String[] args) throws Exception {
+        String data = null;
+        String out = null;
+        String weights = null;
+        int maxDepth = 10;
+        int positions = 2000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--data": data = Options.value(args, i++); break;
+                case "--out": out = Options.value(args, i++); break;
+                case "--weights": weights = Options.value(args, i++); break;
+                case "--max-depth": maxDepth = Integer.parseInt(Options.value(args, i++)); break;
+                case "--positions": positions = Integer.parseInt(Options.value(args, i++)); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (data == null || out == null) {
+            throw new IllegalArgumentException("--data and --out are required");
+        }
+        if (maxDepth < ProbCut.MIN_HEIGHT || maxDepth > ProbCut.MAX_HEIGHT) {
+            throw new IllegalArgumentException("--max-depth must be from " + ProbCut.MIN_HEIGHT
+                    + " to " + ProbCut.MAX_HEIGHT);
+        }
+        Evaluator evaluator = weights == null ? new HeuristicEvaluator() : PatternEvaluator.load(Path.of(weights));
+
+        long start = System.nanoTime();
+        long[][] sample = sample(Path.of(data), positions, maxDepth);
+        System.out.printf("searching %d positions to depth %d%n", sample[0].length, maxDepth);
+        ProbCut probCut = calibrate(sample[0], sample[1], maxDepth, evaluator, threads);
+        probCut.write(Path.of(out));
+        print(probCut);
+        System.out.printf("wrote %s in %.1f s%n", out, (System.nanoTime() - start) / 1e9);
+    }
+
+    // Up to `positions` positions spread evenly through the file, as
+    // {own[], opp[]}, each with more than maxDepth empties and two or more moves
+    static long[][] sample(Path file, int positions, int maxDepth) throws IOException {
+        long total = SampleFile.count(file);
+        long step = Math.max(1, total / Math.max(1, positions));
+        List<long[]> picked = new ArrayList<>();
+        try (SampleFile.Reader reader = new SampleFile.Reader(file)) {
+            for (long i = 0; reader.next() && picked.size() < positions; i++) {
+                if (i % step != 0) continue;
+                long own = reader.own();
+                long opp = reader.opp();
+                if (64 - Long.bitCount(own | opp) <= maxDepth) continue;
+                if (Long.bitCount(Bitboard.legalMoves(own, opp)) < 2) continue;
+                picked.add(new long[]{own, opp});
+            }
+        }
+        long[][] result = new long[2][picked.size()];
+        for (int i = 0; i < picked.size(); i++) {
+            result[0][i] = picked.get(i)[0];
+            result[1][i] = picked.get(i)[1];
+        }
+        return result;
+    }
+
+    // Searches every position on a fixed pool and fits the pairs
+    public static ProbCut calibrate(long[] own, long[] opp, int maxDepth, Evaluator evaluator, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<SearchEngine> engines = ThreadLocal.withInitial(() -> {
+            SearchEngine engine = new SearchEngine(evaluator, new TranspositionTable(TABLE_MB));
+            engine.setEndgameEmpties(0);
+            return engine;
+        });
+        Fit fit = new Fit();
+        try {
+            List<Future<int[]>> results = new ArrayList<>(own.length);
+            for (int i = 0; i < own.length; i++) {
+                long o = own[i];
+                long p = opp[i];
+                results.add(pool.submit(() -> scores(engines.get(), o, p, maxDepth)));
+            }
+            for (int i = 0; i < own.length; i++) {
+                fit.add(ProbCut.stage(Long.bitCount(own[i] | opp[i])), results.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return fit.parameters(maxDepth);
+    }
+
+    // scores[d] is the root score searched to exactly d plies. The depths run
+    // in increasing order on one table, as iterative deepening would.
+    private static int[] scores(SearchEngine engine, long own, long opp, int maxDepth) {
+        engine.getTable().clear();
+        engine.clearStop();
+        int[] scores = new int[maxDepth + 1];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            engine.search(own, opp, Long.MAX_VALUE, depth, depth);
+            scores[depth] = engine.getBestScore();
+        }
+        return scores;
+    }
+
+    // Least-squares sums per stage, height and check
+    private static final class Fit {
+        private final double[][][][] sums = new double[ProbCut.STAGES][ProbCut.MAX_HEIGHT + 1][2][6];
+
+        void add(int stage, int[] scores) {
+            for (int height = ProbCut.MIN_HEIGHT; height < scores.length; height++) {
+                for (int check = 0; check < ProbCut.checks(height); check++) {
+                    double x = scores[ProbCut.checkDepth(height, check)];
+                    double y = scores[height];
+                    if (Math.abs(x) >= SearchEngine.WIN_SCORE || Math.abs(y) >= SearchEngine.WIN_SCORE) continue;
+                    double[] s = sums[stage][height][check];
+                    s[0]++;
+                    s[1] += x;
+                    s[2] += y;
+                    s[3] += x * x;
+                    s[4] += x * y;
+                    s[5] += y * y;
+                }
+            }
+        }
+
+        ProbCut parameters(int maxDepth) {
+            ProbCut probCut = new ProbCut();
+            for (int stage = 0; stage < ProbCut.STAGES; stage++) {
+                for (int height = ProbCut.MIN_HEIGHT; height <= maxDepth; height++) {
+                    for (int check = 0; check < ProbCut.checks(height); check++) {
+                        double[] s = sums[stage][height][check];
+                        double n = s[0];
+                        if (n < 3) continue;
+                        double sxx = s[3] - s[1] * s[1] / n;
+                        double sxy = s[4] - s[1] * s[2] / n;
+                        double syy = s[5] - s[2] * s[2] / n;
+                        if (sxx <= 0) continue;
+                        double a = sxy / sxx;
+                        double b = (s[2] - a * s[1]) / n;
+                        double sigma = Math.sqrt(Math.max(0, syy - a * sxy) / (n - 2));
+                        probCut.set(stage, height, check, a, b, sigma, (int) n);
+                    }
+                }
+            }
+            probCut.extend();
+            return probCut;
+        }
+    }
+
+    private static void print(ProbCut probCut) {
+        System.out.println("stage height depth   slope  intercept   sigma  samples");
+        for (int stage = 0; stage < ProbCut.STAGES; stage++) {
+            for (int height = ProbCut.MIN_HEIGHT; height <= ProbCut.MAX_HEIGHT; height++) {
+                for (int check = 0; check < ProbCut.checks(height); check++) {
+                    int n = probCut.getSamples(stage, height, check);
+                    if (n == 0) continue;
+                    System.out.printf("%5d %6d %5d %7.3f %10.1f %7.1f %8d%n", stage, height,
+                            ProbCut.checkDepth(height, check), probCut.getSlope(stage, height, check),
+                            probCut.getIntercept(stage, height, check), probCut.getSigma(stage, height, check), n);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package othello;
+
+import java.util.SplittableRandom;
+
+// Uniformly random valid move; a baseline for tournaments
+public class RandomStrategy implements MoveStrategy {
+    private final SplittableRandom random;
+
+    public RandomStrategy(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int chooseMove(OthelloModel model) {
+        long moves = model.getValidMoves();
+        if (moves == 0) return Move.NONE;
+        int pick = random.nextInt(Long.bitCount(moves));
+        for (int i = 0; i < pick; i++) moves &= moves - 1;
+        return Long.numberOfTrailingZeros(moves);
+    }
+
+    @Override
+    public String name() {
+        return "random";
+    }
+}
@@ -1,4 +1,8 @@
-public class OthelloModel {
+package othello;
+
+// The original array-scanning rules engine, kept as a correctness reference for the
+// bitboard OthelloModel and as a baseline for benchmarks
+public class ReferenceOthelloModel {
     public static final int BOARD_SIZE = 8;
     public static final int BLACK = 1;
     public static final int WHITE = -1;
@@ -7,12 +11,25 @@ public class OthelloModel {
     private final int[][] board;
     private int currentPlayer;
 
-    public OthelloModel() {
+    public ReferenceOthelloModel() {
         board = new int[BOARD_SIZE][BOARD_SIZE];
         initializeBoard();
         currentPlayer = BLACK; // Black always starts
     }
 
+    public ReferenceOthelloModel(ReferenceOthelloModel other) {
+        board = other.getBoard();
+        currentPlayer = other.currentPlayer;
+    }
+
+    // Replaces the position with a copy of the given layout
+    void setBoard(int[][] cells, int player) {
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            System.arraycopy(cells[i], 0, board[i], 0, BOARD_SIZE);
+        }
+        currentPlayer = player;
+    }
+
     private void initializeBoard() {
         // Clear the board
         for (int i = 0; i < BOARD_SIZE; i++) {
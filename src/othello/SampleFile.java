@@ -0,0 +1,98 @@
+package othello;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Training positions packed 18 bytes each, little-endian: the side to move's
+// discs, the opponent's discs, and a short label (final disc differential for
+// the side to move). No header, so files from several runs can simply be
+// concatenated. The reader streams through a fixed buffer and never holds more
+// than one chunk in memory.
+public final class SampleFile {
+    public static final int SAMPLE_BYTES = 18;
+
+    private SampleFile() {
+    }
+
+    public static long count(Path file) throws IOException {
+        return Files.size(file) / SAMPLE_BYTES;
+    }
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+
+        public Writer(Path file, boolean append) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(append
+                    ? Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : Files.newOutputStream(file), 1 << 16));
+        }
+
+        public void write(long own, long opp, int score) throws IOException {
+            out.writeLong(Long.reverseBytes(own));
+            out.writeLong(Long.reverseBytes(opp));
+            out.writeShort(Short.reverseBytes((short) score));
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // Usage: while (reader.next()) { reader.own() ... }
+    public static final class Reader implements Closeable {
+        private static final int CHUNK_SAMPLES = 1 << 16;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SAMPLES * SAMPLE_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private long own;
+        private long opp;
+        private int score;
+
+        public Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        public boolean next() throws IOException {
+            if (buffer.remaining() < SAMPLE_BYTES) {
+                buffer.compact();
+                while (buffer.position() < SAMPLE_BYTES && channel.read(buffer) >= 0) {
+                    // Keep reading until at least one whole sample is buffered
+                }
+                buffer.flip();
+                if (buffer.remaining() < SAMPLE_BYTES) return false;
+            }
+            own = buffer.getLong();
+            opp = buffer.getLong();
+            score = buffer.getShort();
+            return true;
+        }
+
+        public long own() {
+            return own;
+        }
+
+        public long opp() {
+            return opp;
+        }
+
+        public int score() {
+            return score;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
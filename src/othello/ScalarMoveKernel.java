@@ -0,0 +1,31 @@
+package othello;
+
+// MoveKernel one position at a time with Bitboard; the fallback when the
+// Vector API is unavailable, and the reference the vector kernel is tested
+// against
+final class ScalarMoveKernel implements MoveKernel {
+    static final ScalarMoveKernel INSTANCE = new ScalarMoveKernel();
+
+    private ScalarMoveKernel() {
+    }
+
+    @Override
+    public void legalMoves(long[] own, long[] opp, long[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            moves[i] = Bitboard.legalMoves(own[i], opp[i]);
+        }
+    }
+
+    @Override
+    public void flipCounts(long[] own, long[] opp, int[] squares, int[] counts, int count) {
+        for (int i = 0; i < count; i++) {
+            int sq = squares[i];
+            counts[i] = sq >= 0 && sq < 64 ? Long.bitCount(Bitboard.flips(own[i], opp[i], sq)) : 0;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
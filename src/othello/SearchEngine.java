@@ -0,0 +1,554 @@
+package othello;
+
+// Negamax alpha-beta search over bitboards with iterative deepening under a
+// wall-clock budget. Not thread-safe: use one engine per searching thread.
+public class SearchEngine {
+    public static final int NO_MOVE = Move.NONE;
+    // Terminal scores are WIN_SCORE plus the final disc differential, so any
+    // proven win outranks every heuristic evaluation
+    public static final int WIN_SCORE = 1_000_000;
+    static final int INFINITY = 2 * WIN_SCORE;
+    // probCut() found no cut
+    private static final int NO_CUT = Integer.MIN_VALUE;
+    // A pass is always followed by a move (or the game ends), so 60 moves
+    // leave room for at most 60 interleaved passes
+    private static final int MAX_PLY = 128;
+    private static final int MAX_MOVES = 64;
+    private static final int TIME_CHECK_MASK = 1023;
+    // Below this remaining depth, move ordering costs more than it saves
+    private static final int MIN_ORDERING_DEPTH = 3;
+    private static final int DEFAULT_TABLE_MB = 16;
+    private static final int DEFAULT_ENDGAME_EMPTIES = 14;
+    // Nodes this close to the leaves are cheaper to search than to look up
+    private static final int MIN_TABLE_DEPTH = 2;
+
+    private static final int[] ORDERING_WEIGHTS = {
+            18,  4, 16, 12, 12, 16,  4, 18,
+             4,  2,  6,  8,  8,  6,  2,  4,
+            16,  6, 14, 10, 10, 14,  6, 16,
+            12,  8, 10,  0,  0, 10,  8, 12,
+            12,  8, 10,  0,  0, 10,  8, 12,
+            16,  6, 14, 10, 10, 14,  6, 16,
+             4,  2,  6,  8,  8,  6,  2,  4,
+            18,  4, 16, 12, 12, 16,  4, 18
+    };
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    // Selective pruning parameters; null searches every node in full
+    private ProbCut probCut;
+    // Shared across engines and games; holds solved endgame positions
+    private PositionCache positionCache;
+    private EndgameSolver endgameSolver;
+    private int endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+    // Per-ply scratch space so the search itself does not allocate
+    private final int[][] moveBuffers = new int[MAX_PLY][MAX_MOVES];
+    private final int[][] scoreBuffers = new int[MAX_PLY][MAX_MOVES];
+
+    private long deadline;
+    private boolean timeUp;
+    // Set from other threads to abort a running search at the next time check
+    private volatile boolean stopRequested;
+    private long nodes;
+    private int completedDepth;
+    private int bestScore;
+
+    // Plain counters, always kept; published to stats (if any) at time checks.
+    // Collisions cost a second look at the table after each miss, so they
+    // are counted only while someone reads them: with stats attached or a
+    // JFR recording of SearchMoveEvent running.
+    private long tableProbes;
+    private long tableHits;
+    private long tableCollisions;
+    private boolean countCollisions;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long probCuts;
+    private SearchStats stats;
+    private boolean reportIterations;
+    private long publishedNodes;
+    private long publishedProbes;
+    private long publishedHits;
+    private long publishedCollisions;
+    private long publishedCutoffs;
+    private long publishedFirstMoveCutoffs;
+
+    public SearchEngine() {
+        this(PatternEvaluator.defaultEvaluator());
+        probCut = ProbCut.defaultProbCut();
+    }
+
+    public SearchEngine(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    public SearchEngine(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+    }
+
+    // Best move (square index) for the side owning `own`, or NO_MOVE if it must pass
+    public int findBestMove(long own, long opp, long timeBudgetMillis) {
+        return searchMove(own, opp, System.nanoTime() + timeBudgetMillis * 1_000_000L, MAX_MOVES);
+    }
+
+    // Searches to exactly maxDepth plies with no time limit. The endgame
+    // solver takes over only when maxDepth reaches the end of the game, so a
+    // fixed-depth search stays fixed-depth however few squares are empty.
+    public int searchToDepth(long own, long opp, int maxDepth) {
+        return searchMove(own, opp, Long.MAX_VALUE, maxDepth);
+    }
+
+    private int searchMove(long own, long opp, long deadline, int maxDepth) {
+        SearchMoveEvent event = new SearchMoveEvent();
+        event.start();
+        SearchStats stats = this.stats;
+        if (stats != null) stats.begin();
+        stopRequested = false;
+        table.newSearch();
+        int move = search(own, opp, deadline, 1, maxDepth);
+        if (stats != null) stats.end();
+        event.commit(move, completedDepth, bestScore, 1, nodes, tableProbes, tableHits, tableCollisions,
+                cutoffs, firstMoveCutoffs);
+        return move;
+    }
+
+    // Metrics to publish to while searching; null (the default) turns
+    // publishing off and leaves only the plain counters
+    public void setStats(SearchStats stats) {
+        setStats(stats, true);
+    }
+
+    // Helper engines of a parallel search add their counters but leave
+    // depth and best move to the main thread
+    void setStats(SearchStats stats, boolean reportIterations) {
+        this.stats = stats;
+        this.reportIterations = reportIterations;
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    // Multi-ProbCut parameters calibrated for this engine's evaluator; null
+    // turns selective pruning off
+    public void setProbCut(ProbCut probCut) {
+        this.probCut = probCut;
+    }
+
+    public ProbCut getProbCut() {
+        return probCut;
+    }
+
+    // Endgame positions solved at the root are looked up in and added to
+    // cache, so any engine sharing it skips positions already solved by
+    // another game or thread; null turns this off
+    public void setPositionCache(PositionCache cache) {
+        positionCache = cache;
+    }
+
+    public PositionCache getPositionCache() {
+        return positionCache;
+    }
+
+    // Makes a running search return as soon as possible; it keeps the best
+    // move found so far
+    public void stop() {
+        stopRequested = true;
+        if (endgameSolver != null) {
+            endgameSolver.stop();
+        }
+    }
+
+    // Positions with at most this many empty squares are solved exactly;
+    // 0 turns the endgame solver off
+    public void setEndgameEmpties(int empties) {
+        endgameEmpties = empties;
+    }
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    // True when a search to maxDepth is handed to the endgame solver: few
+    // enough empties, and a depth that would reach the end of the game anyway
+    boolean solvesExactly(long own, long opp, int maxDepth) {
+        int empties = 64 - Long.bitCount(own | opp);
+        return empties <= endgameEmpties && maxDepth >= empties;
+    }
+
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    // Iterative deepening from startDepth; the caller manages stop requests and
+    // table generations (ParallelSearch runs several of these on one table)
+    int search(long own, long opp, long deadline, int startDepth, int maxDepth) {
+        this.deadline = deadline;
+        timeUp = false;
+        resetNodes();
+        countCollisions = stats != null || new SearchMoveEvent().isEnabled();
+        completedDepth = 0;
+        bestScore = 0;
+
+        long moves = Bitboard.legalMoves(own, opp);
+        if (moves == 0) return NO_MOVE;
+
+        int[] rootMoves = moveBuffers[0];
+        int count = orderMoves(own, opp, moves, 0);
+        int bestMove = rootMoves[0];
+        if (count == 1) return bestMove;
+
+        // Positions are hashed as if the side to move at the root were black.
+        // Othello is symmetric in color, so entries stay valid across searches
+        // even when the engine plays the other side.
+        long rootHash = Zobrist.hash(own, opp, false);
+
+        int empties = 64 - Long.bitCount(own | opp);
+        if (solvesExactly(own, opp, maxDepth)) {
+            int solved = positionCache == null ? PositionCache.NOT_SOLVED : positionCache.solved(own, opp);
+            int cachedMove = PositionCache.move(solved);
+            // A 64-bit key collision can hand back another position's result;
+            // trust it only if its move is legal here, else solve again
+            if (solved != PositionCache.NOT_SOLVED && cachedMove >= 0 && (moves & 1L << cachedMove) != 0) {
+                completedDepth = empties;
+                bestScore = scoreForDiff(PositionCache.diff(solved));
+                iterationDone(own, opp, cachedMove);
+                return cachedMove;
+            }
+            if (endgameSolver == null) {
+                endgameSolver = new EndgameSolver();
+            }
+            int score = endgameSolver.solve(own, opp, deadline);
+            nodes = endgameSolver.getNodes();
+            if (!endgameSolver.isTimeUp()) {
+                completedDepth = empties;
+                bestScore = scoreForDiff(score);
+                if (positionCache != null) {
+                    positionCache.putSolved(own, opp, score, endgameSolver.getBestMove());
+                }
+                iterationDone(own, opp, endgameSolver.getBestMove());
+                return endgameSolver.getBestMove();
+            }
+            // Out of time: fall through to the heuristic search, which still
+            // completes a few shallow iterations before its first time check
+        }
+
+        for (int depth = Math.min(startDepth, empties); depth <= Math.min(maxDepth, empties); depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = NO_MOVE;
+            int iterationIndex = 0;
+            for (int i = 0; i < count; i++) {
+                int sq = rootMoves[i];
+                long flipped = Bitboard.flips(own, opp, sq);
+                long hash = rootHash ^ Zobrist.moveDelta(0, sq, flipped) ^ Zobrist.WHITE_TO_MOVE;
+                int score = -negamax(opp & ~flipped, own | flipped | (1L << sq), hash, 1,
+                        depth - 1, -INFINITY, -alpha, 1);
+                if (timeUp) break;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = sq;
+                    iterationIndex = i;
+                }
+            }
+
+            // A move that beat the previous best before time ran out was fully
+            // searched, so it is safe to keep even from an unfinished iteration
+            if (iterationBest != NO_MOVE) {
+                bestMove = iterationBest;
+                bestScore = alpha;
+                // Search the best move first in the next iteration
+                System.arraycopy(rootMoves, 0, rootMoves, 1, iterationIndex);
+                rootMoves[0] = iterationBest;
+            }
+            if (timeUp) break;
+            completedDepth = depth;
+            iterationDone(own, opp, bestMove);
+        }
+        publish();
+        return bestMove;
+    }
+
+    private void iterationDone(long own, long opp, int bestMove) {
+        publish();
+        if (stats != null && reportIterations) {
+            stats.iteration(completedDepth, bestScore, bestMove);
+        }
+        SearchIterationEvent event = new SearchIterationEvent();
+        if (event.shouldCommit()) {
+            event.depth = completedDepth;
+            event.score = bestScore;
+            event.bestMove = Move.toString(bestMove);
+            event.nodes = nodes;
+            event.commit();
+        }
+    }
+
+    // Adds the counters gathered since the last call to stats
+    private void publish() {
+        if (stats == null) return;
+        stats.add(nodes - publishedNodes, tableProbes - publishedProbes, tableHits - publishedHits,
+                tableCollisions - publishedCollisions, cutoffs - publishedCutoffs,
+                firstMoveCutoffs - publishedFirstMoveCutoffs);
+        publishedNodes = nodes;
+        publishedProbes = tableProbes;
+        publishedHits = tableHits;
+        publishedCollisions = tableCollisions;
+        publishedCutoffs = cutoffs;
+        publishedFirstMoveCutoffs = firstMoveCutoffs;
+    }
+
+    // Score of root move sq searched to depth within (alpha, beta), from the
+    // root mover's point of view. Node counts accumulate across calls; check
+    // isTimeUp() before trusting the result.
+    int searchRootMove(long own, long opp, int sq, int depth, int alpha, int beta, long deadline) {
+        this.deadline = deadline;
+        timeUp = false;
+        long flipped = Bitboard.flips(own, opp, sq);
+        long hash = Zobrist.hash(own, opp, false) ^ Zobrist.moveDelta(0, sq, flipped) ^ Zobrist.WHITE_TO_MOVE;
+        int score = -negamax(opp & ~flipped, own | flipped | (1L << sq), hash, 1, depth - 1, -beta, -alpha, 1);
+        publish();
+        return score;
+    }
+
+    // Fills the root move list best-first and returns its length
+    int orderRootMoves(long own, long opp, int[] moves) {
+        int count = orderMoves(own, opp, Bitboard.legalMoves(own, opp), 0);
+        System.arraycopy(moveBuffers[0], 0, moves, 0, count);
+        return count;
+    }
+
+    boolean isTimeUp() {
+        return timeUp;
+    }
+
+    // Resets the node and statistics counters
+    void resetNodes() {
+        nodes = 0;
+        tableProbes = tableHits = tableCollisions = cutoffs = firstMoveCutoffs = probCuts = 0;
+        publishedNodes = publishedProbes = publishedHits = publishedCollisions = publishedCutoffs
+                = publishedFirstMoveCutoffs = 0;
+    }
+
+    // color is 0 when the side to move matches the root mover, 1 otherwise
+    private int negamax(long own, long opp, long hash, int color, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & TIME_CHECK_MASK) == 0) {
+            publish();
+            if (stopRequested || System.nanoTime() > deadline) timeUp = true;
+        }
+        if (timeUp) return 0;
+
+        long moves = Bitboard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (Bitboard.legalMoves(opp, own) == 0) {
+                return finalScore(own, opp);
+            }
+            // Pass: same depth, opponent to move
+            return -negamax(opp, own, hash ^ Zobrist.WHITE_TO_MOVE, color ^ 1, depth, -beta, -alpha, ply + 1);
+        }
+        if (depth == 0) {
+            return evaluator.evaluate(own, opp);
+        }
+
+        int hashMove = NO_MOVE;
+        long entry = 0;
+        if (depth >= MIN_TABLE_DEPTH) {
+            tableProbes++;
+            entry = table.probe(hash);
+            if (entry == 0 && countCollisions && table.isOccupied(hash)) tableCollisions++;
+        }
+        if (entry != 0) {
+            tableHits++;
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        if (probCut != null && depth >= ProbCut.MIN_HEIGHT) {
+            int score = probCut(own, opp, hash, color, depth, alpha, beta, ply);
+            if (score != NO_CUT) return score;
+        }
+
+        int[] buffer = moveBuffers[ply];
+        int count;
+        if (depth >= MIN_ORDERING_DEPTH) {
+            count = orderMoves(own, opp, moves, ply);
+        } else {
+            count = 0;
+            while (moves != 0) {
+                buffer[count++] = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+            }
+        }
+        if (hashMove != NO_MOVE) {
+            promote(buffer, count, hashMove);
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int sq = buffer[i];
+            long flipped = Bitboard.flips(own, opp, sq);
+            long childHash = hash ^ Zobrist.moveDelta(color, sq, flipped) ^ Zobrist.WHITE_TO_MOVE;
+            int score = -negamax(opp & ~flipped, own | flipped | (1L << sq), childHash, color ^ 1,
+                    depth - 1, -beta, -alpha, ply + 1);
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0) firstMoveCutoffs++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!timeUp && depth >= MIN_TABLE_DEPTH) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : best >= beta ? TranspositionTable.LOWER_BOUND
+                    : TranspositionTable.EXACT;
+            table.store(hash, depth, bound, best, bestMove);
+        }
+        return best;
+    }
+
+    // Multi-ProbCut: null-window searches to the check depths, cheapest
+    // first, that predict with high confidence whether the full search would
+    // fail high or low. Returns the bound to cut at, or NO_CUT. Proven scores
+    // are never predicted. The checks search this node again at the same ply,
+    // before this node uses its move buffer.
+    private int probCut(long own, long opp, long hash, int color, int depth, int alpha, int beta, int ply) {
+        int stage = ProbCut.stage(Long.bitCount(own | opp));
+        for (int check = 0; check < ProbCut.checks(depth); check++) {
+            if (!probCut.has(stage, depth, check)) continue;
+            int checkDepth = ProbCut.checkDepth(depth, check);
+            if (beta < WIN_SCORE) {
+                int bound = probCut.betaBound(stage, depth, check, beta);
+                if (bound < WIN_SCORE) {
+                    int score = negamax(own, opp, hash, color, checkDepth, bound - 1, bound, ply);
+                    if (timeUp) return 0;
+                    if (score >= bound) {
+                        probCuts++;
+                        return beta;
+                    }
+                }
+            }
+            if (alpha > -WIN_SCORE) {
+                int bound = probCut.alphaBound(stage, depth, check, alpha);
+                if (bound > -WIN_SCORE) {
+                    int score = negamax(own, opp, hash, color, checkDepth, bound, bound + 1, ply);
+                    if (timeUp) return 0;
+                    if (score <= bound) {
+                        probCuts++;
+                        return alpha;
+                    }
+                }
+            }
+        }
+        return NO_CUT;
+    }
+
+    // Moves sq to the front of the list, keeping the order of the rest
+    private static void promote(int[] buffer, int count, int sq) {
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == sq) {
+                System.arraycopy(buffer, 0, buffer, 1, i);
+                buffer[0] = sq;
+                return;
+            }
+        }
+    }
+
+    // Fills moveBuffers[ply] sorted best-first: few replies for the opponent
+    // and good squares (corners, edges) come first
+    private int orderMoves(long own, long opp, long moves, int ply) {
+        int[] buffer = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = 0;
+        while (moves != 0) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            long flipped = Bitboard.flips(own, opp, sq);
+            long newOwn = own | flipped | (1L << sq);
+            long newOpp = opp & ~flipped;
+            int score = ORDERING_WEIGHTS[sq] - 4 * Long.bitCount(Bitboard.legalMoves(newOpp, newOwn));
+
+            // Insertion sort; move lists are short
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            buffer[i] = sq;
+        }
+        return count;
+    }
+
+    static int finalScore(long own, long opp) {
+        return scoreForDiff(Long.bitCount(own) - Long.bitCount(opp));
+    }
+
+    // Search score for a final disc differential
+    static int scoreForDiff(int diff) {
+        if (diff > 0) return WIN_SCORE + diff;
+        if (diff < 0) return -WIN_SCORE + diff;
+        return 0;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    // Missed probes whose bucket held entries of other positions; zero
+    // unless stats were attached or a SearchMoveEvent recording was running
+    public long getTableCollisions() {
+        return tableCollisions;
+    }
+
+    // Beta cutoffs, and how many of them came from the first move searched
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    // Nodes cut by ProbCut instead of being searched
+    public long getProbCuts() {
+        return probCuts;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+}
@@ -0,0 +1,30 @@
+package othello;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for each completed iterative-deepening iteration. Costs a flag
+// check when no recording is running; enable with e.g.
+//   java -XX:StartFlightRecording:filename=search.jfr Main
+@Name("othello.SearchIteration")
+@Label("Search Iteration")
+@Category("Othello")
+@Description("One completed iteration of a search")
+@StackTrace(false)
+class SearchIterationEvent extends Event {
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    int score;
+
+    @Label("Best Move")
+    String bestMove;
+
+    @Label("Nodes")
+    long nodes;
+}
@@ -0,0 +1,79 @@
+package othello;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event spanning one move's search; its duration is the time per move.
+// The table and cutoff fields are filled by SearchEngine, and by
+// ParallelSearch only when it has SearchStats attached.
+@Name("othello.SearchMove")
+@Label("Search Move")
+@Category("Othello")
+@Description("Search for one move of the computer player")
+@StackTrace(false)
+class SearchMoveEvent extends Event {
+    @Label("Move")
+    String move;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    int score;
+
+    @Label("Threads")
+    int threads;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Nodes per Second")
+    long nodesPerSecond;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+
+    @Label("Table Collisions")
+    long tableCollisions;
+
+    @Label("Cutoffs")
+    long cutoffs;
+
+    @Label("First Move Cutoffs")
+    long firstMoveCutoffs;
+
+    // Not recorded; transient fields are skipped by JFR
+    private transient long startNanos;
+
+    void start() {
+        startNanos = System.nanoTime();
+        begin();
+    }
+
+    // Fills the fields and commits if a recording wants this event
+    void commit(int move, int depth, int score, int threads, long nodes, long tableProbes, long tableHits,
+            long tableCollisions, long cutoffs, long firstMoveCutoffs) {
+        end();
+        if (!shouldCommit()) return;
+        this.move = Move.toString(move);
+        this.depth = depth;
+        this.score = score;
+        this.threads = threads;
+        this.nodes = nodes;
+        long nanos = System.nanoTime() - startNanos;
+        this.nodesPerSecond = nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.tableCollisions = tableCollisions;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        commit();
+    }
+}
@@ -0,0 +1,163 @@
+package othello;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Live metrics of the computer player's search, safe to poll from any thread
+// (e.g. a GUI timer) while searches run. Attach one with
+// SearchEngine.setStats or ParallelSearch.setStats; without one the engines
+// only keep their plain counters and never publish.
+//
+// Engines add their counters here every few thousand nodes, so a running
+// search shows up with a small lag. The counters cover the current (or last)
+// move; the totals cover every move since the stats were created.
+public class SearchStats {
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder tableCollisions = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+
+    private volatile boolean searching;
+    private volatile long startNanos;
+    private volatile long moveNanos;
+    private volatile int depth;
+    private volatile int score;
+    private volatile int bestMove = Move.NONE;
+
+    private volatile long moves;
+    private volatile long totalNodes;
+    private volatile long totalNanos;
+
+    // Called by the search owner before and after each move
+    void begin() {
+        nodes.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        tableCollisions.reset();
+        cutoffs.reset();
+        firstMoveCutoffs.reset();
+        depth = 0;
+        score = 0;
+        bestMove = Move.NONE;
+        startNanos = System.nanoTime();
+        searching = true;
+    }
+
+    void end() {
+        moveNanos = System.nanoTime() - startNanos;
+        searching = false;
+        totalNodes += nodes.sum();
+        totalNanos += moveNanos;
+        moves++;
+    }
+
+    // Result of a completed iteration
+    void iteration(int depth, int score, int bestMove) {
+        this.depth = depth;
+        this.score = score;
+        this.bestMove = bestMove;
+    }
+
+    void add(long nodes, long tableProbes, long tableHits, long tableCollisions, long cutoffs,
+             long firstMoveCutoffs) {
+        this.nodes.add(nodes);
+        this.tableProbes.add(tableProbes);
+        this.tableHits.add(tableHits);
+        this.tableCollisions.add(tableCollisions);
+        this.cutoffs.add(cutoffs);
+        this.firstMoveCutoffs.add(firstMoveCutoffs);
+    }
+
+    public boolean isSearching() {
+        return searching;
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    // Time spent on the current move so far, or on the last one
+    public long getElapsedNanos() {
+        return searching ? System.nanoTime() - startNanos : moveNanos;
+    }
+
+    public double getNodesPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed == 0 ? 0 : getNodes() * 1e9 / elapsed;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public long getTableProbes() {
+        return tableProbes.sum();
+    }
+
+    public long getTableHits() {
+        return tableHits.sum();
+    }
+
+    public double getTableHitRate() {
+        long probes = tableProbes.sum();
+        return probes == 0 ? 0 : (double) tableHits.sum() / probes;
+    }
+
+    // Missed probes whose bucket held entries of other positions
+    public long getTableCollisions() {
+        return tableCollisions.sum();
+    }
+
+    // Share of probes that found another position's entries instead; a high
+    // rate means the table is too small for the search
+    public double getTableCollisionRate() {
+        long probes = tableProbes.sum();
+        return probes == 0 ? 0 : (double) tableCollisions.sum() / probes;
+    }
+
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs.sum();
+    }
+
+    // Share of beta cutoffs caused by the first move searched; close to 1
+    // means move ordering works
+    public double getFirstMoveCutoffRate() {
+        long total = cutoffs.sum();
+        return total == 0 ? 0 : (double) firstMoveCutoffs.sum() / total;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public double getAverageMoveMillis() {
+        return moves == 0 ? 0 : totalNanos / 1e6 / moves;
+    }
+
+    public double getAverageNodesPerSecond() {
+        return totalNanos == 0 ? 0 : totalNodes * 1e9 / totalNanos;
+    }
+
+    // One-line summary for a status bar
+    @Override
+    public String toString() {
+        String move = bestMove == Move.NONE ? "-" : Move.toString(bestMove);
+        return String.format("depth %d, best %s, %,d nodes, %.0f kN/s, TT %.0f%% hits %.0f%% collisions, "
+                        + "cutoffs %.0f%% first, %.0f ms",
+                depth, move, getNodes(), getNodesPerSecond() / 1000, 100 * getTableHitRate(),
+                100 * getTableCollisionRate(), 100 * getFirstMoveCutoffRate(), getElapsedNanos() / 1e6);
+    }
+}
@@ -0,0 +1,48 @@
+package othello;
+
+// Alpha-beta search player, limited either by time per move or by depth
+public class SearchStrategy implements MoveStrategy {
+    private final SearchEngine engine;
+    private final long timeBudgetMillis;
+    private final int depth;
+
+    private SearchStrategy(SearchEngine engine, long timeBudgetMillis, int depth) {
+        this.engine = engine;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.depth = depth;
+    }
+
+    public static SearchStrategy timed(long timeBudgetMillis) {
+        return new SearchStrategy(new SearchEngine(), timeBudgetMillis, 0);
+    }
+
+    public static SearchStrategy timed(long timeBudgetMillis, Evaluator evaluator) {
+        return new SearchStrategy(new SearchEngine(evaluator), timeBudgetMillis, 0);
+    }
+
+    public static SearchStrategy fixedDepth(int depth) {
+        return new SearchStrategy(new SearchEngine(), 0, depth);
+    }
+
+    public static SearchStrategy fixedDepth(int depth, Evaluator evaluator) {
+        return new SearchStrategy(new SearchEngine(evaluator), 0, depth);
+    }
+
+    @Override
+    public int chooseMove(OthelloModel model) {
+        if (!model.hasValidMoves()) return Move.NONE;
+        boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+        long own = blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs();
+        long opp = blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs();
+        return depth > 0 ? engine.searchToDepth(own, opp, depth) : engine.findBestMove(own, opp, timeBudgetMillis);
+    }
+
+    public SearchEngine getEngine() {
+        return engine;
+    }
+
+    @Override
+    public String name() {
+        return depth > 0 ? "depth:" + depth : "search:" + timeBudgetMillis;
+    }
+}
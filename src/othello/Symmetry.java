@@ -0,0 +1,128 @@
+package othello;
+
+// The 8 symmetries of the board (rotations and reflections) applied to
+// bitboards. Symmetry s flips rows top to bottom if bit 0 is set, columns left
+// to right if bit 1 is set, and then transposes if bit 2 is set. 0 is the
+// identity.
+public final class Symmetry {
+    public static final int COUNT = 8;
+
+    private Symmetry() {
+    }
+
+    public static long apply(long board, int s) {
+        if ((s & 1) != 0) board = flipVertical(board);
+        if ((s & 2) != 0) board = mirrorHorizontal(board);
+        if ((s & 4) != 0) board = transpose(board);
+        return board;
+    }
+
+    // Undoes apply(board, s)
+    public static long applyInverse(long board, int s) {
+        if ((s & 4) != 0) board = transpose(board);
+        if ((s & 2) != 0) board = mirrorHorizontal(board);
+        if ((s & 1) != 0) board = flipVertical(board);
+        return board;
+    }
+
+    // Where square sq ends up under symmetry s
+    public static int square(int sq, int s) {
+        int row = sq >>> 3;
+        int col = sq & 7;
+        if ((s & 1) != 0) row = 7 - row;
+        if ((s & 2) != 0) col = 7 - col;
+        if ((s & 4) != 0) {
+            int t = row;
+            row = col;
+            col = t;
+        }
+        return row * 8 + col;
+    }
+
+    // The square that symmetry s moves onto sq
+    public static int inverseSquare(int sq, int s) {
+        int row = sq >>> 3;
+        int col = sq & 7;
+        if ((s & 4) != 0) {
+            int t = row;
+            row = col;
+            col = t;
+        }
+        if ((s & 2) != 0) col = 7 - col;
+        if ((s & 1) != 0) row = 7 - row;
+        return row * 8 + col;
+    }
+
+    // The symmetry that maps the position to its canonical form: the image
+    // with the smallest (own, opp) as unsigned numbers. Equivalent positions
+    // share one canonical form.
+    //
+    // The eight images of own come from three flips and four transposes,
+    // each built on an earlier image rather than from scratch. opp only
+    // matters when own ties, i.e. when own is itself symmetric.
+    public static int canonical(long own, long opp) {
+        long v = flipVertical(own);
+        long h = mirrorHorizontal(own);
+        long vh = mirrorHorizontal(v);
+        long t = transpose(own);
+        long vt = transpose(v);
+        long ht = transpose(h);
+        long vht = transpose(vh);
+
+        int best = 0;
+        long min = own;
+        boolean tie = false;
+        if (Long.compareUnsigned(v, min) <= 0) { tie = v == min; best = 1; min = v; }
+        if (Long.compareUnsigned(h, min) <= 0) { tie = h == min; best = 2; min = h; }
+        if (Long.compareUnsigned(vh, min) <= 0) { tie = vh == min; best = 3; min = vh; }
+        if (Long.compareUnsigned(t, min) <= 0) { tie = t == min; best = 4; min = t; }
+        if (Long.compareUnsigned(vt, min) <= 0) { tie = vt == min; best = 5; min = vt; }
+        if (Long.compareUnsigned(ht, min) <= 0) { tie = ht == min; best = 6; min = ht; }
+        if (Long.compareUnsigned(vht, min) <= 0) { tie = vht == min; best = 7; min = vht; }
+        if (!tie) return best;
+
+        // own has a symmetry: break the tie on opp among the images equal to min
+        best = -1;
+        long bestOpp = 0;
+        for (int s = 0; s < COUNT; s++) {
+            if (apply(own, s) != min) continue;
+            long p = apply(opp, s);
+            if (best < 0 || Long.compareUnsigned(p, bestOpp) < 0) {
+                best = s;
+                bestOpp = p;
+            }
+        }
+        return best;
+    }
+
+    // Zobrist hash of the canonical form, side to move as black: one key for
+    // all eight images of a position
+    public static long canonicalHash(long own, long opp) {
+        int s = canonical(own, opp);
+        return Zobrist.hash(apply(own, s), apply(opp, s), false);
+    }
+
+    // Row r -> row 7 - r
+    public static long flipVertical(long x) {
+        return Long.reverseBytes(x);
+    }
+
+    // Column c -> column 7 - c
+    public static long mirrorHorizontal(long x) {
+        x = ((x >>> 1) & 0x5555555555555555L) | ((x & 0x5555555555555555L) << 1);
+        x = ((x >>> 2) & 0x3333333333333333L) | ((x & 0x3333333333333333L) << 2);
+        x = ((x >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((x & 0x0F0F0F0F0F0F0F0FL) << 4);
+        return x;
+    }
+
+    // (row, col) -> (col, row)
+    public static long transpose(long x) {
+        long t = 0x0F0F0F0F00000000L & (x ^ (x << 28));
+        x ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (x ^ (x << 14));
+        x ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (x ^ (x << 7));
+        x ^= t ^ (t >>> 7);
+        return x;
+    }
+}
@@ -0,0 +1,198 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Headless engine-vs-engine match. Each seeded random opening is played twice
+// with colors swapped, games run in parallel on a fixed thread pool, and each
+// worker thread gets its own strategy instances.
+//
+// Usage: java othello.Main --tournament [--games N] [--threads N] [--seed S]
+//            [--opening-plies P] [--a SPEC] [--b SPEC]
+// SPEC is a MoveStrategy.factory spec, e.g. greedy, random, search:50, depth:4
+public class Tournament {
+    private final Supplier<MoveStrategy> playerA;
+    private final Supplier<MoveStrategy> playerB;
+    private final int threads;
+
+    public Tournament(Supplier<MoveStrategy> playerA, Supplier<MoveStrategy> playerB, int threads) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+        this.threads = threads;
+    }
+
+    // Counters of one play() call, shared by its game threads
+    private static final class Tally {
+        final AtomicLong winsA = new AtomicLong();
+        final AtomicLong winsB = new AtomicLong();
+        final AtomicLong draws = new AtomicLong();
+        final AtomicLong movesA = new AtomicLong();
+        final AtomicLong movesB = new AtomicLong();
+        final AtomicLong nanosA = new AtomicLong();
+        final AtomicLong nanosB = new AtomicLong();
+    }
+
+    // Results of a finished match, from player A's point of view
+    public static final class Result {
+        public final long wins;
+        public final long losses;
+        public final long draws;
+        public final double seconds;
+        public final double millisPerMoveA;
+        public final double millisPerMoveB;
+
+        Result(long wins, long losses, long draws, double seconds, double millisPerMoveA, double millisPerMoveB) {
+            this.wins = wins;
+            this.losses = losses;
+            this.draws = draws;
+            this.seconds = seconds;
+            this.millisPerMoveA = millisPerMoveA;
+            this.millisPerMoveB = millisPerMoveB;
+        }
+
+        public long games() {
+            return wins + losses + draws;
+        }
+
+        // Points per game: 1 for a win, 1/2 for a draw
+        public double score() {
+            return (wins + 0.5 * draws) / games();
+        }
+
+        // Half-width of the 95% confidence interval of score()
+        public double confidence95() {
+            double n = games();
+            double mean = score();
+            double variance = (wins * Math.pow(1 - mean, 2) + draws * Math.pow(0.5 - mean, 2)
+                    + losses * Math.pow(mean, 2)) / n;
+            return 1.96 * Math.sqrt(variance / n);
+        }
+
+        // Elo difference implied by score(); infinite for a clean sweep
+        public double eloDifference() {
+            double score = score();
+            return -400 * Math.log10(1 / score - 1);
+        }
+
+        public double gamesPerSecond() {
+            return games() / seconds;
+        }
+    }
+
+    // pairs * 2 games; each pair shares an opening of openingPlies random
+    // moves, fewer if the random moves end the game. Each call is a new match;
+    // an interrupt stops it and is thrown rather than reporting part of it.
+    public Result play(int pairs, int openingPlies, long seed) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Tally tally = new Tally();
+        ThreadLocal<MoveStrategy> localA = ThreadLocal.withInitial(playerA);
+        ThreadLocal<MoveStrategy> localB = ThreadLocal.withInitial(playerB);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> games = new ArrayList<>(2 * pairs);
+            for (int i = 0; i < pairs; i++) {
+                int[] opening = randomOpening(random.split(), openingPlies);
+                games.add(pool.submit(() -> playGame(opening, localA.get(), localB.get(), true, tally)));
+                games.add(pool.submit(() -> playGame(opening, localA.get(), localB.get(), false, tally)));
+            }
+            for (Future<?> game : games) {
+                game.get();
+            }
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return new Result(tally.winsA.get(), tally.winsB.get(), tally.draws.get(), seconds,
+                tally.nanosA.get() / 1e6 / Math.max(1, tally.movesA.get()),
+                tally.nanosB.get() / 1e6 / Math.max(1, tally.movesB.get()));
+    }
+
+    // Random moves from the start, cut short if the game ends
+    static int[] randomOpening(SplittableRandom random, int plies) {
+        OthelloModel model = new OthelloModel();
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            if (model.isGameOver()) return Arrays.copyOf(moves, i);
+            long valid = model.getValidMoves();
+            int pick = random.nextInt(Long.bitCount(valid));
+            for (int j = 0; j < pick; j++) valid &= valid - 1;
+            moves[i] = Long.numberOfTrailingZeros(valid);
+            model.makeMove(moves[i]);
+        }
+        return moves;
+    }
+
+    private static void playGame(int[] opening, MoveStrategy a, MoveStrategy b, boolean aPlaysBlack, Tally tally) {
+        OthelloModel model = new OthelloModel();
+        for (int move : opening) {
+            model.makeMove(move);
+        }
+        while (!model.isGameOver()) {
+            boolean aToMove = (model.getCurrentPlayer() == OthelloModel.BLACK) == aPlaysBlack;
+            long start = System.nanoTime();
+            int move = (aToMove ? a : b).chooseMove(model);
+            long elapsed = System.nanoTime() - start;
+            if (aToMove) {
+                tally.movesA.incrementAndGet();
+                tally.nanosA.addAndGet(elapsed);
+            } else {
+                tally.movesB.incrementAndGet();
+                tally.nanosB.addAndGet(elapsed);
+            }
+            model.makeMove(move);
+        }
+
+        int diff = model.getBlackCount() - model.getWhiteCount();
+        if (!aPlaysBlack) diff = -diff;
+        if (diff > 0) tally.winsA.incrementAndGet();
+        else if (diff < 0) tally.winsB.incrementAndGet();
+        else tally.draws.incrementAndGet();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int openingPlies = 6;
+        String specA = "depth:2";
+        String specB = "greedy";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(Options.value(args, i++)); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                case "--seed": seed = Long.parseLong(Options.value(args, i++)); break;
+                case "--opening-plies": openingPlies = Integer.parseInt(Options.value(args, i++)); break;
+                case "--a": specA = Options.value(args, i++); break;
+                case "--b": specB = Options.value(args, i++); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Tournament tournament = new Tournament(MoveStrategy.factory(specA), MoveStrategy.factory(specB), threads);
+        Result result = tournament.play((games + 1) / 2, openingPlies, seed);
+
+        System.out.printf("%s vs %s: %d games on %d threads%n", specA, specB, result.games(), threads);
+        System.out.printf("  %s: +%d -%d =%d, score %.1f%% +- %.1f%% (95%% CI)%n",
+                specA, result.wins, result.losses, result.draws,
+                100 * result.score(), 100 * result.confidence95());
+        System.out.printf("  Elo difference %+.0f%n", result.eloDifference());
+        System.out.printf("  %.1f games/s, %.3f ms/move for %s, %.3f ms/move for %s%n",
+                result.gamesPerSecond(), result.millisPerMoveA, specA, result.millisPerMoveB, specB);
+    }
+}
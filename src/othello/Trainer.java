@@ -0,0 +1,270 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Offline training for PatternEvaluator weights.
+//
+// generate: plays self-play games (random opening, then a shallow search with
+// some random moves mixed in for variety) and writes every position to a
+// SampleFile. Once a game reaches --exact empties it is solved with
+// EndgameSolver and finished with perfect play, so those positions get exact
+// labels and every earlier position is labelled with that perfect-play result.
+// A game that ends before reaching --exact empties (an early wipeout, or
+// --exact 0) labels every position with its final disc differential. With
+// --search-depth, midgame positions are labelled by a search instead.
+//
+// fit: streams the sample file --epochs times and fits the weights by
+// stochastic gradient descent on squared error, then writes a weight file.
+// Every sample is used under all 8 board symmetries, which multiplies the data
+// and keeps mirrored pattern instances in agreement.
+//
+// Usage: java othello.Trainer generate --out samples.bin [--games N] [--threads N]
+//            [--seed S] [--exact E] [--search-depth D] [--append]
+//        java othello.Trainer fit --data samples.bin --out weights.bin [--epochs N]
+//            [--rate R] [--phases P]
+public class Trainer {
+    private static final int OPENING_PLIES = 8;
+    private static final double RANDOM_MOVE_RATE = 0.1;
+    private static final int PLAY_DEPTH = 2;
+    // Games in flight per thread; bounds memory however many games are played
+    private static final int GAMES_PER_THREAD = 2;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java othello.Trainer generate|fit [options]");
+            System.exit(2);
+        }
+        String command = args[0];
+        String out = null;
+        String data = null;
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int exact = 14;
+        int searchDepth = 0;
+        boolean append = false;
+        int epochs = 5;
+        double rate = 0.02;
+        int phases = PatternEvaluator.DEFAULT_PHASES;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out": out = Options.value(args, i++); break;
+                case "--data": data = Options.value(args, i++); break;
+                case "--games": games = Integer.parseInt(Options.value(args, i++)); break;
+                case "--threads": threads = Integer.parseInt(Options.value(args, i++)); break;
+                case "--seed": seed = Long.parseLong(Options.value(args, i++)); break;
+                case "--exact": exact = Integer.parseInt(Options.value(args, i++)); break;
+                case "--search-depth": searchDepth = Integer.parseInt(Options.value(args, i++)); break;
+                case "--append": append = true; break;
+                case "--epochs": epochs = Integer.parseInt(Options.value(args, i++)); break;
+                case "--rate": rate = Double.parseDouble(Options.value(args, i++)); break;
+                case "--phases": phases = Integer.parseInt(Options.value(args, i++)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("--out is required");
+        }
+
+        long start = System.nanoTime();
+        if (command.equals("generate")) {
+            long samples = generate(Path.of(out), append, games, threads, seed, exact, searchDepth);
+            System.out.printf("%d games, %d samples in %.1f s%n", games, samples, (System.nanoTime() - start) / 1e9);
+        } else if (command.equals("fit")) {
+            if (data == null) {
+                throw new IllegalArgumentException("--data is required");
+            }
+            short[][] weights = fit(Path.of(data), phases, epochs, rate, true);
+            PatternEvaluator.write(Path.of(out), weights);
+            System.out.printf("wrote %s in %.1f s%n", out, (System.nanoTime() - start) / 1e9);
+        } else {
+            throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    // Plays the games on a fixed pool; each finished game is appended as a
+    // block so the file never interleaves positions of different games. Only
+    // a window of games is queued at once, and results are written in
+    // submission order, so the output depends on the seed alone.
+    public static long generate(Path file, boolean append, int games, int threads, long seed,
+                                int exactEmpties, int searchDepth) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<GameGenerator> generators = ThreadLocal.withInitial(
+                () -> new GameGenerator(exactEmpties, searchDepth));
+        long samples = 0;
+        try (SampleFile.Writer writer = new SampleFile.Writer(file, append)) {
+            SplittableRandom random = new SplittableRandom(seed);
+            ArrayDeque<Future<long[]>> pending = new ArrayDeque<>();
+            int window = Math.max(1, threads * GAMES_PER_THREAD);
+            int submitted = 0;
+            while (submitted < games || !pending.isEmpty()) {
+                while (submitted < games && pending.size() < window) {
+                    SplittableRandom gameRandom = random.split();
+                    pending.add(pool.submit(() -> generators.get().play(gameRandom)));
+                    submitted++;
+                }
+                long[] game = pending.poll().get();
+                for (int i = 0; i < game.length; i += 3) {
+                    writer.write(game[i], game[i + 1], (int) game[i + 2]);
+                }
+                samples += game.length / 3;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return samples;
+    }
+
+    // One worker thread's engines; not thread-safe
+    static final class GameGenerator {
+        private final int exactEmpties;
+        private final int searchDepth;
+        private final SearchEngine player = new SearchEngine(new HeuristicEvaluator());
+        private final SearchEngine labeller;
+        private final EndgameSolver solver = new EndgameSolver();
+
+        GameGenerator(int exactEmpties, int searchDepth) {
+            this.exactEmpties = exactEmpties;
+            this.searchDepth = searchDepth;
+            player.setEndgameEmpties(0);
+            labeller = searchDepth > 0 ? new SearchEngine(PatternEvaluator.defaultEvaluator()) : null;
+            if (labeller != null) labeller.setEndgameEmpties(0);
+        }
+
+        // Positions as (own, opp, score) triples
+        long[] play(SplittableRandom random) {
+            return play(random, Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE);
+        }
+
+        // The same from any position, own to move
+        long[] play(SplittableRandom random, long own, long opp) {
+            long[] positions = new long[3 * 64];
+            // Which side was to move in each position, 0 or 1
+            int[] movers = new int[64];
+            int count = 0;
+            int firstExact = -1;
+            int mover = 0;
+            int ply = 0;
+
+            while (true) {
+                long moves = Bitboard.legalMoves(own, opp);
+                if (moves == 0) {
+                    if (Bitboard.legalMoves(opp, own) == 0) break;
+                    long t = own; own = opp; opp = t;
+                    mover ^= 1;
+                    continue;
+                }
+
+                int empties = 64 - Long.bitCount(own | opp);
+                int move;
+                int score = 0;
+                if (empties <= exactEmpties) {
+                    score = solver.solveExact(own, opp);
+                    move = solver.getBestMove();
+                    if (firstExact < 0) firstExact = count;
+                } else {
+                    if (labeller != null) {
+                        labeller.searchToDepth(own, opp, searchDepth);
+                        score = toDiscs(labeller.getBestScore());
+                    }
+                    if (ply < OPENING_PLIES || random.nextDouble() < RANDOM_MOVE_RATE) {
+                        move = randomMove(moves, random);
+                    } else {
+                        move = player.searchToDepth(own, opp, PLAY_DEPTH);
+                    }
+                }
+
+                positions[3 * count] = own;
+                positions[3 * count + 1] = opp;
+                positions[3 * count + 2] = score;
+                movers[count++] = mover;
+
+                long flipped = Bitboard.flips(own, opp, move);
+                long t = own | flipped | (1L << move);
+                own = opp & ~flipped;
+                opp = t;
+                mover ^= 1;
+                ply++;
+            }
+
+            // Without a search labeller, earlier positions take the result of
+            // perfect play from the first solved position, seen from their mover
+            if (labeller == null && firstExact > 0) {
+                long exactScore = positions[3 * firstExact + 2];
+                for (int i = 0; i < firstExact; i++) {
+                    positions[3 * i + 2] = movers[i] == movers[firstExact] ? exactScore : -exactScore;
+                }
+            } else if (labeller == null && firstExact < 0) {
+                // Over before any position was solved: the final result is exact
+                long result = Long.bitCount(own) - Long.bitCount(opp);
+                for (int i = 0; i < count; i++) {
+                    positions[3 * i + 2] = movers[i] == mover ? result : -result;
+                }
+            }
+            return java.util.Arrays.copyOf(positions, 3 * count);
+        }
+    }
+
+    private static int toDiscs(int score) {
+        if (score >= SearchEngine.WIN_SCORE) return score - SearchEngine.WIN_SCORE;
+        if (score <= -SearchEngine.WIN_SCORE) return score + SearchEngine.WIN_SCORE;
+        return Math.round(score / 100f);
+    }
+
+    private static int randomMove(long moves, SplittableRandom random) {
+        int pick = random.nextInt(Long.bitCount(moves));
+        for (int i = 0; i < pick; i++) moves &= moves - 1;
+        return Long.numberOfTrailingZeros(moves);
+    }
+
+    // Streaming SGD on squared error in centi-discs. Each sample updates only
+    // the weights of its own phase and pattern indices.
+    public static short[][] fit(Path data, int phases, int epochs, double rate, boolean verbose) throws IOException {
+        float[][] weights = new float[phases][PatternEvaluator.WEIGHTS_PER_PHASE];
+        int[] features = new int[PatternEvaluator.featureCount()];
+        float step = (float) (rate / features.length);
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            double squaredError = 0;
+            long samples = 0;
+            try (SampleFile.Reader reader = new SampleFile.Reader(data)) {
+                while (reader.next()) {
+                    float[] phase = weights[PatternEvaluator.phase(reader.own(), reader.opp(), phases)];
+                    float target = 100f * reader.score();
+                    for (int s = 0; s < Symmetry.COUNT; s++) {
+                        PatternEvaluator.features(Symmetry.apply(reader.own(), s), Symmetry.apply(reader.opp(), s),
+                                features);
+                        float predicted = 0;
+                        for (int feature : features) predicted += phase[feature];
+                        float error = target - predicted;
+                        float delta = step * error;
+                        for (int feature : features) phase[feature] += delta;
+                        if (s == 0) squaredError += (double) error * error;
+                    }
+                    samples++;
+                }
+            }
+            if (verbose) {
+                System.out.printf("epoch %d: %d samples, rms error %.2f discs%n",
+                        epoch, samples, Math.sqrt(squaredError / Math.max(1, samples)) / 100);
+            }
+        }
+
+        short[][] result = new short[phases][PatternEvaluator.WEIGHTS_PER_PHASE];
+        for (int p = 0; p < phases; p++) {
+            for (int i = 0; i < result[p].length; i++) {
+                result[p][i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weights[p][i])));
+            }
+        }
+        return result;
+    }
+}
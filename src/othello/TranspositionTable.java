@@ -0,0 +1,145 @@
+package othello;
+
+// Fixed-size hash table of search results stored in two primitive arrays.
+// Slots are grouped in buckets of two: the first keeps the deepest entry of the
+// current search, the second always takes the newest entry.
+//
+// The table is lock-free and may be shared by several searching threads. Each
+// slot stores key ^ entry next to the entry, so a slot torn by two racing
+// writers fails the key check and reads as a miss. The table keeps no
+// counters, so probes and stores write nothing but the slots; each
+// SearchEngine counts its own probes, hits and collisions.
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    // Packed entry layout, low bits first:
+    // 32 bits score | 8 bits depth | 2 bits bound | 7 bits move + 1 | 8 bits generation
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 49;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int generation;
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1 << 30);
+        keys = new long[(int) entries];
+        data = new long[(int) entries];
+        mask = (int) entries - 2;
+    }
+
+    // Marks earlier entries as stale so they are the first to be replaced
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(data, 0);
+    }
+
+    // Packed entry for key, or 0 if there is none
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        if (entry != 0 && (keys[index] ^ entry) == key) {
+            return entry;
+        }
+        long other = data[index + 1];
+        if (other != 0 && (keys[index + 1] ^ other) == key) {
+            return other;
+        }
+        return 0;
+    }
+
+    // Whether key's bucket holds any entry. After a missed probe this means
+    // another position took the bucket: a collision
+    public boolean isOccupied(long key) {
+        int index = (int) key & mask;
+        return data[index] != 0 || data[index + 1] != 0;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        long entry = (score & 0xFFFFFFFFL)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | ((long) generation << GENERATION_SHIFT);
+        int index = (int) key & mask;
+
+        long second = data[index + 1];
+        if ((keys[index + 1] ^ second) == key) {
+            write(index + 1, key, entry);
+            return;
+        }
+        long current = data[index];
+        long currentKey = keys[index] ^ current;
+        if (currentKey == key || current == 0
+                || generation(current) != generation || depth >= depth(current)) {
+            if (currentKey != key && current != 0) {
+                // Demote the replaced entry to the always-replace slot
+                write(index + 1, currentKey, current);
+            }
+            write(index, key, entry);
+        } else {
+            write(index + 1, key, entry);
+        }
+    }
+
+    private void write(int index, long key, long entry) {
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    // Best move square, or SearchEngine.NO_MOVE
+    public static int move(long entry) {
+        return ((int) (entry >>> MOVE_SHIFT) & 0x7F) - 1;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Share of slots holding an entry of the current search, from a sample of
+    // the first thousand buckets; cheap enough to call between moves
+    public double usage() {
+        int sampled = Math.min(keys.length, 2000);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            if (data[i] != 0 && generation(data[i]) == generation) used++;
+        }
+        return (double) used / sampled;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TT %d entries, %.1f%% used", keys.length, 100 * usage());
+    }
+}
@@ -0,0 +1,52 @@
+package othello;
+
+import java.util.SplittableRandom;
+
+// Zobrist keys for incremental position hashing. The seed is fixed so hashes
+// are stable across runs and can be persisted.
+public final class Zobrist {
+    private static final long SEED = 0x0DE110L;
+
+    // PLACE[0] for black discs, PLACE[1] for white discs
+    static final long[][] PLACE = new long[2][64];
+    // Turning a disc over swaps one key for the other, whatever its color
+    static final long[] FLIP = new long[64];
+    static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int sq = 0; sq < 64; sq++) {
+            PLACE[0][sq] = random.nextLong();
+            PLACE[1][sq] = random.nextLong();
+            FLIP[sq] = PLACE[0][sq] ^ PLACE[1][sq];
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long hash(long black, long white, boolean whiteToMove) {
+        long hash = whiteToMove ? WHITE_TO_MOVE : 0;
+        while (black != 0) {
+            hash ^= PLACE[0][Long.numberOfTrailingZeros(black)];
+            black &= black - 1;
+        }
+        while (white != 0) {
+            hash ^= PLACE[1][Long.numberOfTrailingZeros(white)];
+            white &= white - 1;
+        }
+        return hash;
+    }
+
+    // Hash change for color (0 black, 1 white) playing sq and turning `flipped`,
+    // not including the side-to-move key
+    public static long moveDelta(int color, int sq, long flipped) {
+        long delta = PLACE[color][sq];
+        while (flipped != 0) {
+            delta ^= FLIP[Long.numberOfTrailingZeros(flipped)];
+            flipped &= flipped - 1;
+        }
+        return delta;
+    }
+}
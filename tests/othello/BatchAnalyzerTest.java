@@ -0,0 +1,95 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAnalyzerTest {
+
+    private static List<String> randomPositions(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            OthelloModel model = new OthelloModel();
+            int plies = random.nextInt(60);
+            for (int p = 0; p < plies && !model.isGameOver(); p++) {
+                long valid = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < pick; j++) valid &= valid - 1;
+                model.makeMove(Long.numberOfTrailingZeros(valid));
+            }
+            positions.add(model.toString());
+        }
+        return positions;
+    }
+
+    @Test
+    void testMatchesPerSquareScan() {
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(1, new HeuristicEvaluator(), 0)) {
+            BatchAnalyzer.Analysis analysis = new BatchAnalyzer.Analysis();
+            for (String position : randomPositions(300, 1)) {
+                OthelloModel model = OthelloModel.fromString(position);
+                if (model.isGameOver()) continue;
+                ReferenceOthelloModel reference = new ReferenceOthelloModel();
+                reference.setBoard(model.getBoard(), model.getCurrentPlayer());
+                boolean black = model.getCurrentPlayer() == OthelloModel.BLACK;
+                analyzer.analyze(black ? model.getBlackDiscs() : model.getWhiteDiscs(),
+                        black ? model.getWhiteDiscs() : model.getBlackDiscs(), analysis);
+
+                int i = 0;
+                for (int sq = 0; sq < 64; sq++) {
+                    if (reference.isValidMove(Move.row(sq), Move.col(sq))) {
+                        assertEquals(sq, analysis.moves[i]);
+                        assertEquals(reference.countFlips(Move.row(sq), Move.col(sq)), analysis.flips[i]);
+                        i++;
+                    }
+                }
+                assertEquals(i, analysis.count);
+            }
+        }
+    }
+
+    @Test
+    void testKeepsInputOrderAcrossThreads() throws Exception {
+        List<String> positions = randomPositions(2000, 2);
+        StringWriter out = new StringWriter();
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(3, new HeuristicEvaluator(), 0)) {
+            assertEquals(2000, analyzer.analyzePositions(positions.iterator(), out));
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(2000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith(positions.get(i)), "line " + i);
+        }
+    }
+
+    @Test
+    void testAnalyzesEveryPositionOfAGame() throws Exception {
+        StringWriter out = new StringWriter();
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(2, new HeuristicEvaluator(), 2)) {
+            analyzer.analyzeGames(List.of("f5 d6 c3").iterator(), out);
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith(new OthelloModel().toString()));
+        // Board, side to move, then four moves each flipping one disc, with a search score
+        String[] fields = lines[0].split(" ");
+        assertEquals(6, fields.length);
+        assertTrue(lines[0].contains(" f5:1:"));
+        assertEquals(4, fields[2].split(":").length);
+    }
+
+    @Test
+    void testInterruptIsThrown() {
+        List<String> positions = randomPositions(2000, 3);
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(1, new HeuristicEvaluator(), 0)) {
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedException.class,
+                    () -> analyzer.analyzePositions(positions.iterator(), new StringWriter()));
+            assertFalse(Thread.interrupted());
+        }
+    }
+}
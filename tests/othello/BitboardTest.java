@@ -0,0 +1,66 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardTest {
+
+    @Test
+    void testInitialLegalMoves() {
+        long moves = Bitboard.legalMoves(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE);
+        assertEquals(4, Long.bitCount(moves));
+        assertTrue((moves & Bitboard.squareBit(2, 3)) != 0);
+        assertTrue((moves & Bitboard.squareBit(3, 2)) != 0);
+        assertTrue((moves & Bitboard.squareBit(4, 5)) != 0);
+        assertTrue((moves & Bitboard.squareBit(5, 4)) != 0);
+    }
+
+    @Test
+    void testFlipsDoNotWrapAroundEdges() {
+        // White on the right edge of row 2, black at the start of row 3:
+        // shifting east from (2,6) must not wrap onto (3,0)
+        long own = Bitboard.squareBit(3, 0);
+        long opp = Bitboard.squareBit(2, 7);
+        assertEquals(0, Bitboard.flips(own, opp, 2 * 8 + 6));
+        assertEquals(0, Bitboard.legalMoves(own, opp) & Bitboard.squareBit(2, 6));
+    }
+
+    @Test
+    void testMatchesReferenceModelOnRandomGames() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            OthelloModel model = new OthelloModel();
+            ReferenceOthelloModel reference = new ReferenceOthelloModel();
+
+            while (!reference.isGameOver()) {
+                assertEquals(reference.getCurrentPlayer(), model.getCurrentPlayer());
+                assertEquals(reference.hasValidMoves(), model.hasValidMoves());
+
+                int[][] board = reference.getBoard();
+                int[][] actual = model.getBoard();
+                int[] candidates = new int[64];
+                int count = 0;
+                for (int row = 0; row < OthelloModel.BOARD_SIZE; row++) {
+                    assertArrayEquals(board[row], actual[row]);
+                    for (int col = 0; col < OthelloModel.BOARD_SIZE; col++) {
+                        boolean valid = reference.isValidMove(row, col);
+                        assertEquals(valid, model.isValidMove(row, col));
+                        if (valid) {
+                            assertEquals(reference.countFlips(row, col), model.countFlips(row, col));
+                            candidates[count++] = row * OthelloModel.BOARD_SIZE + col;
+                        }
+                    }
+                }
+                assertEquals(count, Long.bitCount(model.getValidMoves()));
+                assertArrayEquals(reference.computeGreedyMove(), model.computeGreedyMove());
+
+                int move = candidates[random.nextInt(count)];
+                reference.makeMove(move / 8, move % 8);
+                model.makeMove(move / 8, move % 8);
+            }
+            assertTrue(model.isGameOver());
+            assertArrayEquals(reference.getScore(), model.getScore());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+
+    @Test
+    void testMatchesBruteForceOnSmallEndgames() {
+        Random random = new Random(19);
+        EndgameSolver solver = new EndgameSolver();
+        for (int n = 0; n < 200; n++) {
+            long[] position = randomPosition(random, 1 + random.nextInt(9));
+            if (position == null) continue;
+            int expected = minimax(position[0], position[1]);
+            assertEquals(expected, solver.solveExact(position[0], position[1]));
+            assertEquals(Integer.signum(expected), solver.solveWinLossDraw(position[0], position[1]));
+
+            // The reported move must achieve the exact score
+            solver.solveExact(position[0], position[1]);
+            int move = solver.getBestMove();
+            if (move != EndgameSolver.NO_MOVE) {
+                long flipped = Bitboard.flips(position[0], position[1], move);
+                assertNotEquals(0, flipped);
+                int after = -minimax(position[1] & ~flipped, position[0] | flipped | (1L << move));
+                assertEquals(expected, after);
+            }
+        }
+    }
+
+    @Test
+    void testSearchEngineSwitchesToSolver() {
+        Random random = new Random(23);
+        SearchEngine engine = new SearchEngine();
+        engine.setEndgameEmpties(10);
+        for (int n = 0; n < 20; n++) {
+            long[] position = randomPosition(random, 10);
+            if (position == null || Bitboard.legalMoves(position[0], position[1]) == 0) continue;
+            int move = engine.findBestMove(position[0], position[1], 5000L);
+            assertTrue((Bitboard.legalMoves(position[0], position[1]) & (1L << move)) != 0);
+            if (Long.bitCount(Bitboard.legalMoves(position[0], position[1])) > 1) {
+                assertEquals(SearchEngine.scoreForDiff(minimax(position[0], position[1])), engine.getBestScore());
+            }
+        }
+    }
+
+    // Random playout to the given number of empties, or null if the game ended first
+    private static long[] randomPosition(Random random, int empties) {
+        OthelloModel model = new OthelloModel();
+        while (!model.isGameOver() && 64 - model.getBlackCount() - model.getWhiteCount() > empties) {
+            long moves = model.getValidMoves();
+            int pick = random.nextInt(Long.bitCount(moves));
+            for (int i = 0; i < pick; i++) moves &= moves - 1;
+            model.makeMove(Long.numberOfTrailingZeros(moves));
+        }
+        if (model.isGameOver()) return null;
+        boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+        return new long[]{
+                blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs(),
+                blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs()
+        };
+    }
+
+    private static int minimax(long own, long opp) {
+        long moves = Bitboard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (Bitboard.legalMoves(opp, own) == 0) return Long.bitCount(own) - Long.bitCount(opp);
+            return -minimax(opp, own);
+        }
+        int best = Integer.MIN_VALUE;
+        for (; moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = Bitboard.flips(own, opp, sq);
+            best = Math.max(best, -minimax(opp & ~flipped, own | flipped | (1L << sq)));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,30 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlipTableTest {
+
+    @Test
+    void testMatchesRayWalkOnRandomBoards() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            long occupied = random.nextLong() | random.nextLong();
+            long own = occupied & random.nextLong();
+            long opp = occupied & ~own;
+            for (int sq = 0; sq < 64; sq++) {
+                long expected = Bitboard.scanFlips(own, opp, sq);
+                assertEquals(expected, FlipTable.flips(own, opp, sq), "square " + sq);
+                assertEquals(Long.bitCount(expected), FlipTable.count(own, opp, sq), "square " + sq);
+            }
+        }
+    }
+
+    @Test
+    void testInitialPosition() {
+        long flipped = FlipTable.flips(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, 2 * 8 + 3);
+        assertEquals(Bitboard.squareBit(3, 3), flipped);
+        assertEquals(0, FlipTable.flips(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, 0));
+    }
+}
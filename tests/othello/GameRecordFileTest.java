@@ -0,0 +1,128 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRecordFileTest {
+
+    // Plays a random game to the end, recording passes; returns the move count
+    private static int randomGame(Random random, OthelloModel model, int[] moves) {
+        int count = 0;
+        model.setPosition(Position.INITIAL);
+        while (!model.isGameOver()) {
+            int player = model.getCurrentPlayer();
+            long valid = model.getValidMoves();
+            int pick = random.nextInt(Long.bitCount(valid));
+            for (int j = 0; j < pick; j++) valid &= valid - 1;
+            moves[count++] = Long.numberOfTrailingZeros(valid);
+            model.makeMove(moves[count - 1]);
+            if (!model.isGameOver() && model.getCurrentPlayer() == player) moves[count++] = Move.PASS;
+        }
+        return count;
+    }
+
+    @Test
+    void testReplayReachesRecordedResult() throws IOException {
+        Path file = Files.createTempFile("games", ".bin");
+        try {
+            Random random = new Random(1);
+            OthelloModel model = new OthelloModel();
+            int[] moves = new int[255];
+            long[] finalBlack = new long[500];
+            try (GameRecordFile.Writer writer = new GameRecordFile.Writer(file)) {
+                for (int g = 0; g < finalBlack.length; g++) {
+                    int count = randomGame(random, model, moves);
+                    finalBlack[g] = model.getBlackDiscs();
+                    writer.write(moves, count, GameRecordFile.result(model), g % 2 == 0 ? "game " + g : null);
+                }
+                assertEquals(finalBlack.length, writer.getGames());
+            }
+
+            int games = 0;
+            try (GameRecordFile.Reader reader = new GameRecordFile.Reader(file)) {
+                while (reader.next()) {
+                    reader.replay(model);
+                    assertTrue(model.isGameOver());
+                    assertEquals(finalBlack[games], model.getBlackDiscs());
+                    assertEquals(model.getBlackCount() - model.getWhiteCount(), reader.result());
+                    assertEquals(games % 2 == 0 ? "game " + games : "", reader.metadata());
+                    games++;
+                }
+            }
+            assertEquals(finalBlack.length, games);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testCustomStartPosition() throws IOException {
+        Path file = Files.createTempFile("games", ".bin");
+        try {
+            OthelloModel start = OthelloModel.fromString(
+                    "--------" + "--------" + "--XXX---" + "---XO---" + "---OO---"
+                            + "--------" + "--------" + "-------- O");
+            int[] moves = {Long.numberOfTrailingZeros(start.getValidMoves())};
+            try (GameRecordFile.Writer writer = new GameRecordFile.Writer(file)) {
+                writer.write(start.getBlackDiscs(), start.getWhiteDiscs(), start.getCurrentPlayer(), moves, 1,
+                        GameRecordFile.NO_RESULT, "");
+            }
+            try (GameRecordFile.Reader reader = new GameRecordFile.Reader(file)) {
+                assertTrue(reader.next());
+                assertTrue(reader.hasCustomStart());
+                assertEquals(OthelloModel.WHITE, reader.startPlayer());
+                assertEquals(GameRecordFile.NO_RESULT, reader.result());
+                OthelloModel model = new OthelloModel();
+                reader.replay(model);
+                start.makeMove(moves[0]);
+                assertEquals(start.toString(), model.toString());
+                assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testTextRoundTrip() throws IOException {
+        Path text = Files.createTempFile("games", ".txt");
+        Path binary = Files.createTempFile("games", ".bin");
+        Path back = Files.createTempFile("games", ".txt");
+        try {
+            Files.write(text, List.of("f5d6c3d3c4 # short opening", "f5f6e6f4"));
+            assertEquals(2, GameRecordFile.textToBinary(text, binary));
+            assertEquals(2, GameRecordFile.binaryToText(binary, back));
+            assertEquals(List.of("f5d6c3d3c4 # short opening", "f5f6e6f4"), Files.readAllLines(back));
+            // Header, then flags, metadata length, result and count plus one byte per move
+            assertEquals(8 + (5 + 13 + 5) + (5 + 4), Files.size(binary));
+        } finally {
+            Files.delete(text);
+            Files.delete(binary);
+            Files.delete(back);
+        }
+    }
+
+    @Test
+    void testRejectsIllegalInput() throws IOException {
+        int[] moves = new int[255];
+        OthelloModel model = new OthelloModel();
+        assertThrows(IllegalArgumentException.class, () -> GameRecordFile.parseText("a1", moves, model));
+
+        Path file = Files.createTempFile("games", ".bin");
+        try {
+            try (GameRecordFile.Writer writer = new GameRecordFile.Writer(file)) {
+                assertThrows(IllegalArgumentException.class,
+                        () -> writer.write(new int[]{65}, 1, GameRecordFile.NO_RESULT, null));
+            }
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            assertThrows(IllegalArgumentException.class, () -> new GameRecordFile.Reader(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
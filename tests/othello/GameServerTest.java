@@ -0,0 +1,136 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    @Test
+    void testServesConcurrentGames() throws Exception {
+        try (GameServer server = new GameServer(0, 2, 200, 10)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serving.start();
+
+            LoadClient.Report report = LoadClient.run("127.0.0.1", server.getPort(), 8, 2, 200);
+            assertEquals(16, report.games);
+            assertTrue(report.moves >= 16 * 20, "moves " + report.moves);
+            assertTrue(report.percentileMillis(50) <= report.percentileMillis(99));
+            assertEquals(0, server.getActiveGames());
+        }
+    }
+
+    @Test
+    void testRejectsIllegalMoves() throws Exception {
+        try (GameServer server = new GameServer(0, 1, 200, 10)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serving.start();
+
+            try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                out.println("NEW HUMAN");
+                String[] game = in.readLine().split(" ");
+                assertEquals("GAME", game[0]);
+                assertEquals(new OthelloModel().toString().replace(' ', '_'), game[2]);
+
+                out.println("MOVE " + game[1] + " a1");
+                assertTrue(in.readLine().startsWith("ERR"));
+                out.println("BOARD 999");
+                assertTrue(in.readLine().startsWith("ERR"));
+                out.println("QUIT " + game[1]);
+                assertEquals("BYE " + game[1], in.readLine());
+            }
+        }
+    }
+
+    @Test
+    void testReportsFailedSearch() throws Exception {
+        Evaluator failing = (own, opp) -> {
+            throw new IllegalStateException("broken evaluator");
+        };
+        try (GameServer server = new GameServer(0, 1, 200, 10, () -> failing)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serving.start();
+
+            try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                // Without a reply the old server hung here; fail instead
+                socket.setSoTimeout(10_000);
+                out.println("NEW AI");
+                String[] game = in.readLine().split(" ");
+                assertEquals("GAME", game[0]);
+                String error = in.readLine();
+                assertTrue(error.startsWith("ERR search failed in game " + game[1]), error);
+
+                assertTrue(error.contains("game closed"), error);
+
+                // Closed, not left waiting on a search that will never come
+                out.println("BOARD " + game[1]);
+                assertTrue(in.readLine().startsWith("ERR no game"));
+                assertEquals(0, server.getActiveGames());
+            }
+        }
+    }
+
+    @Test
+    void testPausesClientThatDoesNotRead() throws Exception {
+        try (GameServer server = new GameServer(0, 1, 200, 10)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serving.start();
+
+            try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                socket.setSoTimeout(10_000);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                out.println("NEW HUMAN");
+                String[] game = in.readLine().split(" ");
+
+                // Replies to these far exceed the output limit; the server must
+                // stop reading until they are taken, not queue them or hang up
+                int commands = 500_000;
+                Thread writer = new Thread(() -> {
+                    PrintWriter burst = new PrintWriter(new java.io.BufferedWriter(out), false);
+                    for (int i = 0; i < commands; i++) burst.println("BOARD " + game[1]);
+                    burst.flush();
+                });
+                writer.start();
+                Thread.sleep(1_000);
+                String expected = "BOARD " + game[1] + " " + game[2];
+                for (int i = 0; i < commands; i++) {
+                    assertEquals(expected, in.readLine());
+                }
+                writer.join();
+            }
+        }
+    }
+}
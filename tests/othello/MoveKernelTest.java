@@ -0,0 +1,88 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveKernelTest {
+
+    @Test
+    void testMatchesBitboard() {
+        MoveKernel kernel = MoveKernel.get();
+        // Odd sizes leave a scalar tail after the vector lanes
+        for (int count : new int[]{0, 1, 7, 64, 1001}) {
+            long[][] positions = randomPositions(new Random(count), count);
+            long[] own = positions[0];
+            long[] opp = positions[1];
+            long[] moves = new long[count];
+            kernel.legalMoves(own, opp, moves, count);
+
+            int[] squares = new int[count];
+            Random random = new Random(count + 1);
+            for (int i = 0; i < count; i++) {
+                long legal = Bitboard.legalMoves(own[i], opp[i]);
+                assertEquals(legal, moves[i], kernel.name());
+                // Mostly legal moves, with illegal, occupied and non-squares mixed in
+                int pick = random.nextInt(5);
+                if (pick < 3 && legal != 0) {
+                    squares[i] = Long.numberOfTrailingZeros(legal);
+                } else if (pick == 3) {
+                    squares[i] = random.nextInt(64);
+                } else {
+                    squares[i] = random.nextBoolean() ? Move.NONE : Move.PASS;
+                }
+            }
+            int[] counts = new int[count];
+            int[] expected = new int[count];
+            kernel.flipCounts(own, opp, squares, counts, count);
+            MoveKernel.scalar().flipCounts(own, opp, squares, expected, count);
+            assertArrayEquals(expected, counts);
+            for (int i = 0; i < count; i++) {
+                if (squares[i] >= 0 && squares[i] < 64) {
+                    assertEquals(Long.bitCount(Bitboard.scanFlips(own[i], opp[i], squares[i])), counts[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testUsesVectorsWhenAvailable() {
+        boolean module = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        // vector/ is a separate source root and may not be on the class path
+        boolean compiled = MoveKernelTest.class.getClassLoader().getResource("othello/VectorMoveKernel.class") != null;
+        if (module && compiled && !"false".equals(System.getProperty(MoveKernel.VECTOR_PROPERTY))) {
+            // Every x86-64 and AArch64 CPU has 128-bit vectors
+            assertTrue(MoveKernel.get().name().startsWith("vector"), MoveKernel.get().name());
+        } else {
+            assertSame(MoveKernel.scalar(), MoveKernel.get());
+        }
+    }
+
+    // Positions from random games, side to move first
+    private static long[][] randomPositions(Random random, int count) {
+        long[] own = new long[count];
+        long[] opp = new long[count];
+        long o = Bitboard.INITIAL_BLACK;
+        long p = Bitboard.INITIAL_WHITE;
+        for (int i = 0; i < count; i++) {
+            long moves = Bitboard.legalMoves(o, p);
+            if (moves == 0) {
+                o = Bitboard.INITIAL_BLACK;
+                p = Bitboard.INITIAL_WHITE;
+                moves = Bitboard.legalMoves(o, p);
+            }
+            own[i] = o;
+            opp[i] = p;
+            int pick = random.nextInt(Long.bitCount(moves));
+            for (int j = 0; j < pick; j++) moves &= moves - 1;
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = Bitboard.flips(o, p, sq);
+            long next = p & ~flipped;
+            p = o | flipped | (1L << sq);
+            o = next;
+        }
+        return new long[][]{own, opp};
+    }
+}
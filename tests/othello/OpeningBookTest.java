@@ -0,0 +1,98 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    @Test
+    void testSymmetrySquaresMatchBoardTransforms() {
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            for (int sq = 0; sq < 64; sq++) {
+                int image = Symmetry.square(sq, s);
+                assertEquals(1L << image, Symmetry.apply(1L << sq, s));
+                assertEquals(sq, Symmetry.inverseSquare(image, s));
+            }
+        }
+    }
+
+    @Test
+    void testEquivalentPositionsShareKey() {
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            long occupied = random.nextLong();
+            long own = occupied & random.nextLong();
+            long opp = occupied & ~own;
+            long key = OpeningBook.key(own, opp);
+            for (int s = 1; s < Symmetry.COUNT; s++) {
+                assertEquals(key, OpeningBook.key(Symmetry.apply(own, s), Symmetry.apply(opp, s)));
+            }
+        }
+    }
+
+    @Test
+    void testBookAnswersRotatedPositions() throws IOException {
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            OpeningBookBuilder builder = new OpeningBookBuilder(4, 3, 0.5);
+            builder.playGames(20, 1, 1);
+            builder.write(file);
+            OpeningBook book = OpeningBook.load(file);
+            assertEquals(builder.size(), book.size());
+            assertEquals(4, book.getMaxPly());
+
+            long own = Bitboard.INITIAL_BLACK;
+            long opp = Bitboard.INITIAL_WHITE;
+            int move = book.lookup(own, opp);
+            assertNotEquals(Move.NONE, move);
+            // The start position is itself symmetric, so a rotated lookup may
+            // answer with a different but equivalent move
+            long expected = keyAfter(own, opp, move);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                long rotatedOwn = Symmetry.apply(own, s);
+                long rotatedOpp = Symmetry.apply(opp, s);
+                assertEquals(expected, keyAfter(rotatedOwn, rotatedOpp, book.lookup(rotatedOwn, rotatedOpp)));
+            }
+
+            // Play the book move; the reply comes from the book as well
+            long flipped = Bitboard.flips(own, opp, move);
+            long next = opp & ~flipped;
+            long nextOpp = own | flipped | (1L << move);
+            assertTrue(Bitboard.flips(next, nextOpp, book.lookup(next, nextOpp)) != 0);
+
+            book.setMaxPly(0);
+            assertEquals(Move.NONE, book.lookup(next, nextOpp));
+            assertEquals(3 + Symmetry.COUNT, book.getLookups());
+            assertEquals(2 + Symmetry.COUNT, book.getHits());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static long keyAfter(long own, long opp, int move) {
+        long flipped = Bitboard.flips(own, opp, move);
+        assertTrue(flipped != 0);
+        return OpeningBook.key(opp & ~flipped, own | flipped | (1L << move));
+    }
+
+    @Test
+    void testModelPlaysBookMove() throws IOException {
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            OpeningBookBuilder builder = new OpeningBookBuilder(2, 3, 0.0);
+            builder.playGames(1, 1, 1);
+            builder.write(file);
+            OthelloModel model = new OthelloModel();
+            model.setOpeningBook(OpeningBook.load(file));
+            int move = model.computeBestMoveIndex(1000);
+            assertEquals(1, model.getOpeningBook().getHits());
+            assertTrue(model.isValidMove(Move.row(move), Move.col(move)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package othello;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
@@ -219,6 +221,52 @@ public class OthelloModelTest {
         assertTrue(flipsForChosenMove >= 2, "Should choose a move that flips at least 2 pieces");
     }
 
+    @Test
+    void testUnmakeMoveRestoresPosition() {
+        java.util.Random random = new java.util.Random(11);
+        for (int game = 0; game < 50; game++) {
+            model = new OthelloModel();
+            while (!model.isGameOver()) {
+                long black = model.getBlackDiscs();
+                long white = model.getWhiteDiscs();
+                int player = model.getCurrentPlayer();
+                long hash = model.getHash();
+
+                // Try every valid move and take it back again
+                long moves = model.getValidMoves();
+                for (long m = moves; m != 0; m &= m - 1) {
+                    int move = Long.numberOfTrailingZeros(m);
+                    long flipped = model.makeMove(move);
+                    assertEquals(Long.bitCount(black | white) + 1, model.getBlackCount() + model.getWhiteCount());
+                    model.unmakeMove(move, flipped);
+
+                    assertEquals(black, model.getBlackDiscs());
+                    assertEquals(white, model.getWhiteDiscs());
+                    assertEquals(player, model.getCurrentPlayer());
+                    assertEquals(hash, model.getHash());
+                    assertEquals(moves, model.getValidMoves());
+                }
+
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < pick; i++) moves &= moves - 1;
+                model.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+        }
+    }
+
+    @Test
+    void testPackedMoves() {
+        assertEquals("d3", Move.toString(Move.of(2, 3)));
+        assertEquals(Move.of(2, 3), Move.parse("D3"));
+        assertEquals(Move.PASS, Move.parse("pass"));
+        assertThrows(IllegalArgumentException.class, () -> Move.parse("i9"));
+
+        int move = model.computeGreedyMoveIndex();
+        int[] legacy = model.computeGreedyMove();
+        assertEquals(Move.of(legacy[0], legacy[1]), move);
+        assertThrows(IllegalArgumentException.class, () -> model.makeMove(Move.of(0, 0)));
+    }
+
     // Helper method to verify if a move is optimal (no other move flips more pieces)
     private boolean isOptimalMove(int row, int col) {
         int maxFlips = model.countFlips(row, col);
@@ -237,18 +285,73 @@ public class OthelloModelTest {
         return true;
     }
 
+    @Test
+    void testLargerBoards() {
+        for (int size : new int[]{4, 10, 12, 16}) {
+            OthelloModel board = new OthelloModel(size);
+            int mid = size / 2;
+            assertEquals(size, board.getSize());
+            assertEquals(OthelloModel.WHITE, board.getPiece(mid - 1, mid - 1));
+            assertEquals(OthelloModel.BLACK, board.getPiece(mid, mid - 1));
+            assertTrue(board.isValidMove(mid - 2, mid - 1));
+            assertFalse(board.isValidMove(0, 0));
+
+            // Greedy self-play to the end keeps the counts and board in step
+            while (!board.isGameOver()) {
+                int[] move = board.computeBestMove(0);
+                int before = board.getBlackCount() + board.getWhiteCount();
+                board.makeMove(move[0], move[1]);
+                assertEquals(before + 1, board.getBlackCount() + board.getWhiteCount());
+                assertEquals(board.toString(), OthelloModel.fromString(board.toString()).toString());
+            }
+            int black = 0;
+            int white = 0;
+            for (int[] row : board.getBoard()) {
+                for (int piece : row) {
+                    if (piece == OthelloModel.BLACK) black++;
+                    else if (piece == OthelloModel.WHITE) white++;
+                }
+            }
+            assertArrayEquals(new int[]{black, white}, board.getScore());
+        }
+    }
+
+    @Test
+    void testGridBoardMatchesBitboards() {
+        java.util.Random random = new java.util.Random(7);
+        int[] moves = new int[64];
+        for (int game = 0; game < 50; game++) {
+            OthelloModel bitboards = new OthelloModel();
+            GridBoard grid = new GridBoard(OthelloModel.BOARD_SIZE);
+            while (!bitboards.isGameOver()) {
+                int player = bitboards.getCurrentPlayer();
+                int count = grid.legalMoves(player, moves);
+                assertEquals(Long.bitCount(bitboards.getValidMoves()), count);
+                int sq = moves[random.nextInt(count)];
+                int row = grid.row(sq);
+                int col = grid.col(sq);
+                assertEquals(bitboards.countFlips(row, col), grid.countFlips(sq, player));
+                bitboards.makeMove(row, col);
+                grid.play(sq, player);
+                assertEquals(bitboards.getBlackCount(), grid.count(OthelloModel.BLACK));
+                for (int i = 0; i < 64; i++) {
+                    assertEquals(bitboards.getPiece(i / 8, i % 8), grid.get(grid.index(i / 8, i % 8)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBoardSizeLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new OthelloModel(9));
+        assertThrows(IllegalArgumentException.class, () -> new OthelloModel(2));
+        OthelloModel large = new OthelloModel(10);
+        assertThrows(IllegalStateException.class, large::getValidMoves);
+        assertThrows(IllegalStateException.class, () -> large.makeMove(Move.of(3, 4)));
+    }
+
     // Helper method to set up custom board configurations for testing
     private void setupCustomBoard(int[][] boardConfig, int currentPlayer) {
-        try {
-            java.lang.reflect.Field boardField = OthelloModel.class.getDeclaredField("board");
-            boardField.setAccessible(true);
-            boardField.set(model, boardConfig);
-
-            java.lang.reflect.Field playerField = OthelloModel.class.getDeclaredField("currentPlayer");
-            playerField.setAccessible(true);
-            playerField.set(model, currentPlayer);
-        } catch (Exception e) {
-            fail("Failed to set up custom board: " + e.getMessage());
-        }
+        model = new OthelloModel(Position.fromArray(boardConfig, currentPlayer));
     }
 }
\ No newline at end of file
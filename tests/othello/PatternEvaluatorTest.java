@@ -0,0 +1,146 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternEvaluatorTest {
+
+    private static short[][] randomWeights(int phases, long seed) {
+        Random random = new Random(seed);
+        short[][] weights = new short[phases][PatternEvaluator.WEIGHTS_PER_PHASE];
+        for (short[] phase : weights) {
+            for (int i = 0; i < phase.length; i++) phase[i] = (short) (random.nextInt(201) - 100);
+        }
+        return weights;
+    }
+
+    @Test
+    void testEvaluationIsSumOfFeatureWeights() throws IOException {
+        short[][] weights = randomWeights(4, 1);
+        Path file = Files.createTempFile("weights", ".bin");
+        try {
+            PatternEvaluator.write(file, weights);
+            PatternEvaluator evaluator = PatternEvaluator.load(file);
+            assertEquals(4, evaluator.getPhases());
+
+            Random random = new Random(2);
+            int[] features = new int[PatternEvaluator.featureCount()];
+            for (int i = 0; i < 1000; i++) {
+                long occupied = random.nextLong() | Bitboard.INITIAL_BLACK | Bitboard.INITIAL_WHITE;
+                long own = occupied & random.nextLong();
+                long opp = occupied & ~own;
+                PatternEvaluator.features(own, opp, features);
+                int expected = 0;
+                for (int feature : features) {
+                    expected += weights[PatternEvaluator.phase(own, opp, 4)][feature];
+                }
+                assertEquals(expected, evaluator.evaluate(own, opp));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testReloadsRewrittenFile() throws IOException {
+        Path file = Files.createTempFile("weights", ".bin");
+        try {
+            PatternEvaluator.write(file, randomWeights(4, 1));
+            assertEquals(4, PatternEvaluator.load(file).getPhases());
+            // Same path, new size
+            PatternEvaluator.write(file, randomWeights(2, 1));
+            assertEquals(2, PatternEvaluator.load(file).getPhases());
+
+            // Same size, new contents and modification time
+            short[][] weights = randomWeights(2, 5);
+            PatternEvaluator.write(file, weights);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            PatternEvaluator evaluator = PatternEvaluator.load(file);
+            int[] features = new int[PatternEvaluator.featureCount()];
+            long own = Bitboard.INITIAL_BLACK;
+            long opp = Bitboard.INITIAL_WHITE;
+            PatternEvaluator.features(own, opp, features);
+            int expected = 0;
+            for (int feature : features) {
+                expected += weights[PatternEvaluator.phase(own, opp, 2)][feature];
+            }
+            assertEquals(expected, evaluator.evaluate(own, opp));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRewriteKeepsOldEvaluatorsWorking() throws IOException {
+        Path file = Files.createTempFile("weights", ".bin");
+        try {
+            PatternEvaluator.write(file, randomWeights(4, 1));
+            PatternEvaluator old = PatternEvaluator.load(file);
+            Random random = new Random(3);
+            long[] own = new long[100];
+            long[] opp = new long[100];
+            int[] before = new int[100];
+            for (int i = 0; i < 100; i++) {
+                long occupied = random.nextLong() | Bitboard.INITIAL_BLACK | Bitboard.INITIAL_WHITE;
+                own[i] = occupied & random.nextLong();
+                opp[i] = occupied & ~own[i];
+                before[i] = old.evaluate(own[i], opp[i]);
+            }
+
+            // A smaller file must not truncate the old mapping under it
+            PatternEvaluator.write(file, randomWeights(2, 7));
+            assertEquals(2, PatternEvaluator.load(file).getPhases());
+            assertEquals(4, old.getPhases());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(before[i], old.evaluate(own[i], opp[i]));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testGroupTablesMatchSquareBySquareIndexing() {
+        Random random = new Random(3);
+        int[] fast = new int[PatternEvaluator.featureCount()];
+        int[] slow = new int[PatternEvaluator.featureCount()];
+        for (int i = 0; i < 10000; i++) {
+            long occupied = random.nextLong() | random.nextLong();
+            long own = occupied & random.nextLong();
+            long opp = occupied & ~own;
+            PatternEvaluator.features(own, opp, fast);
+            PatternEvaluator.referenceFeatures(own, opp, slow);
+            assertArrayEquals(slow, fast);
+        }
+    }
+
+    @Test
+    void testPhasesCoverTheGame() {
+        int phases = PatternEvaluator.DEFAULT_PHASES;
+        assertEquals(0, PatternEvaluator.phase(Bitboard.INITIAL_BLACK, Bitboard.INITIAL_WHITE, phases));
+        assertEquals(phases - 1, PatternEvaluator.phase(-1L, 0, phases));
+    }
+
+    @Test
+    void testRejectsMismatchedFile() {
+        ByteBuffer buffer = ByteBuffer.allocate(PatternEvaluator.HEADER_BYTES);
+        assertThrows(IllegalArgumentException.class, () -> new PatternEvaluator(buffer));
+    }
+
+    @Test
+    void testFallsBackToHeuristicWithoutWeights() {
+        String previous = System.getProperty(PatternEvaluator.WEIGHTS_PROPERTY);
+        System.clearProperty(PatternEvaluator.WEIGHTS_PROPERTY);
+        try {
+            assertTrue(PatternEvaluator.defaultEvaluator() instanceof HeuristicEvaluator);
+        } finally {
+            if (previous != null) System.setProperty(PatternEvaluator.WEIGHTS_PROPERTY, previous);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+    private static final String START = new OthelloModel().toString();
+    // Late endgame with forced passes close to the root
+    private static final String ENDGAME =
+            "----O-OXOXX-OOXXXOXOOXOOXXOXXXOOXXOOXXOO-XOXOXOOOXXOOOOOOXXXXXX- X";
+
+    @Test
+    void testInitialPositionCounts() {
+        long[] expected = {1, 4, 12, 56, 244, 1396, 8200, 55092};
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertEquals(expected[depth], Perft.count(new OthelloModel(), depth));
+        }
+    }
+
+    @Test
+    void testEnginesAgreeOnCounts() {
+        for (String engine : new String[]{"reference", "model", "bitboard"}) {
+            assertEquals(8200, Perft.count(Perft.engine(engine, START), 6), engine);
+            assertEquals(Perft.count(OthelloModel.fromString(ENDGAME), 8),
+                    Perft.count(Perft.engine(engine, ENDGAME), 8), engine);
+        }
+    }
+
+    @Test
+    void testVerifyFindsNoDivergence() {
+        assertNull(Perft.verify(Perft.engine("reference", START), Perft.engine("model", START), 5));
+        assertNull(Perft.verify(Perft.engine("reference", ENDGAME), Perft.engine("bitboard", ENDGAME), 8));
+    }
+
+    @Test
+    void testVerifyReportsFirstDivergence() {
+        Perft.Engine reference = Perft.engine("reference", START);
+        Perft.Engine model = Perft.engine("model", START);
+        // An engine that never allows d3
+        Perft.Engine broken = new Perft.Engine() {
+            public String name() { return "broken"; }
+            public long validMoves() { return model.validMoves() & ~(1L << Move.parse("d3")); }
+            public int currentPlayer() { return model.currentPlayer(); }
+            public long black() { return model.black(); }
+            public long white() { return model.white(); }
+            public void play(int move) { model.play(move); }
+            public void undo() { model.undo(); }
+        };
+
+        Perft.Divergence divergence = Perft.verify(reference, broken, 3);
+        assertNotNull(divergence);
+        assertTrue(divergence.path.isEmpty());
+        assertTrue(divergence.detail.contains("valid moves differ"), divergence.detail);
+    }
+
+    @Test
+    void testPositionStringRoundTrip() {
+        assertEquals("---------------------------OX------XO--------------------------- X", START);
+        assertEquals(ENDGAME, OthelloModel.fromString(ENDGAME).toString());
+        assertThrows(IllegalArgumentException.class, () -> OthelloModel.fromString("XO X"));
+    }
+}
@@ -0,0 +1,74 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PondererTest {
+
+    @Test
+    void testPondersEveryReply() throws InterruptedException {
+        OthelloModel model = new OthelloModel();
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+        try (Ponderer ponderer = new Ponderer(new HeuristicEvaluator(), new TranspositionTable(4))) {
+            ponderer.start(own, opp);
+            // The timeout only guards against a hang
+            for (long moves = Bitboard.legalMoves(own, opp); moves != 0; moves &= moves - 1) {
+                long[] reply = reply(own, opp, Long.numberOfTrailingZeros(moves));
+                assertTrue(ponderer.awaitDepth(reply[0], reply[1], 3, 60_000));
+            }
+            ponderer.await();
+
+            for (long moves = Bitboard.legalMoves(own, opp); moves != 0; moves &= moves - 1) {
+                long[] reply = reply(own, opp, Long.numberOfTrailingZeros(moves));
+                long replyOwn = reply[0];
+                long replyOpp = reply[1];
+                assertTrue(ponderer.depth(replyOwn, replyOpp) >= 3);
+                int move = ponderer.result(replyOwn, replyOpp, 3);
+                assertTrue((Bitboard.legalMoves(replyOwn, replyOpp) & (1L << move)) != 0);
+                assertEquals(Move.NONE, ponderer.result(replyOwn, replyOpp, 61));
+            }
+        }
+    }
+
+    @Test
+    void testCancelStopsQuickly() {
+        // Few empties: pondering reaches the endgame solver right away
+        OthelloModel model = OthelloModel.fromString(
+                "OOOOOOX-XXXOXOXOXXOXXXOOXOXXXXOO-OOOXXOO-OOOXX--XOXXX-----X-X--- X");
+        try (Ponderer ponderer = new Ponderer(new HeuristicEvaluator(), new TranspositionTable(4))) {
+            for (int i = 0; i < 5; i++) {
+                ponderer.start(model.getBlackDiscs(), model.getWhiteDiscs());
+                long start = System.nanoTime();
+                ponderer.await();
+                assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            }
+        }
+    }
+
+    @Test
+    void testModelAnswersFromPondering() throws InterruptedException {
+        OthelloModel model = new OthelloModel();
+        long[] reply = reply(model.getBlackDiscs(), model.getWhiteDiscs(), Move.of(2, 3));
+        model.setPondering(true);
+        model.startPondering();
+        assertTrue(model.getPonderer().awaitDepth(reply[0], reply[1], 6, 60_000));
+        model.stopPondering();
+        model.makeMove(2, 3);
+
+        // Answered from the pondering: no search is started
+        SearchStats stats = new SearchStats();
+        model.setSearchStats(stats);
+        int move = model.computeBestMoveIndex(60_000);
+        assertEquals(0, stats.getMoves());
+        assertEquals(model.getPonderer().result(reply[0], reply[1], 6), move);
+        assertTrue(model.isValidMove(Move.row(move), Move.col(move)));
+        model.setPondering(false);
+    }
+
+    // Position after the side owning `own` plays sq, side to move first
+    private static long[] reply(long own, long opp, int sq) {
+        long flipped = Bitboard.flips(own, opp, sq);
+        return new long[]{opp & ~flipped, own | flipped | (1L << sq)};
+    }
+}
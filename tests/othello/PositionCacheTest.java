@@ -0,0 +1,193 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionCacheTest {
+
+    @Test
+    void testCanonicalFormIsSharedByAllImages() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (long[] position : randomPositions(random, 300)) {
+            long own = position[0];
+            long opp = position[1];
+            int s = Symmetry.canonical(own, opp);
+            long canonicalOwn = Symmetry.apply(own, s);
+            long canonicalOpp = Symmetry.apply(opp, s);
+            assertEquals(own, Symmetry.applyInverse(canonicalOwn, s));
+            for (int t = 0; t < Symmetry.COUNT; t++) {
+                long imageOwn = Symmetry.apply(own, t);
+                long imageOpp = Symmetry.apply(opp, t);
+                int u = Symmetry.canonical(imageOwn, imageOpp);
+                assertEquals(canonicalOwn, Symmetry.apply(imageOwn, u));
+                assertEquals(canonicalOpp, Symmetry.apply(imageOpp, u));
+                assertEquals(Symmetry.canonicalHash(own, opp), Symmetry.canonicalHash(imageOwn, imageOpp));
+                // No image is smaller than the canonical form
+                assertTrue(Long.compareUnsigned(canonicalOwn, imageOwn) < 0
+                        || canonicalOwn == imageOwn && Long.compareUnsigned(canonicalOpp, imageOpp) <= 0);
+            }
+        }
+        // The start position is symmetric: the tie on own is broken on opp
+        OthelloModel start = new OthelloModel();
+        OthelloModel mirrored = new OthelloModel();
+        mirrored.makeMove(2, 3);
+        OthelloModel rotated = new OthelloModel();
+        rotated.makeMove(5, 4);
+        assertEquals(mirrored.getCanonicalHash(), rotated.getCanonicalHash());
+        assertNotEquals(start.getCanonicalHash(), mirrored.getCanonicalHash());
+    }
+
+    @Test
+    void testEntriesAnswerForEveryImage() {
+        PositionCache cache = new PositionCache(1);
+        OthelloModel model = OthelloModel.fromString(
+                "--XXXX----XXXO--OOOXOXO-OOXOXXXXOOOXXXX-OOXOXX----OXOX-----OOOO- X");
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+        Evaluator evaluator = new HeuristicEvaluator();
+        assertEquals(PositionCache.NO_MOVES, cache.legalMoves(own, opp));
+        assertEquals(evaluator.evaluate(own, opp), cache.evaluate(evaluator, own, opp));
+        int move = Long.numberOfTrailingZeros(model.getValidMoves());
+        cache.putSolved(own, opp, -6, move);
+
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            long imageOwn = Symmetry.apply(own, s);
+            long imageOpp = Symmetry.apply(opp, s);
+            assertEquals(evaluator.evaluate(own, opp), cache.evaluation(imageOwn, imageOpp));
+            assertEquals(Bitboard.legalMoves(imageOwn, imageOpp), cache.legalMoves(imageOwn, imageOpp));
+            int solved = cache.solved(imageOwn, imageOpp);
+            assertEquals(-6, PositionCache.diff(solved));
+            assertEquals(Symmetry.square(move, s), PositionCache.move(solved));
+        }
+        assertEquals(8.0 / 9, cache.evaluationHitRate(), 1e-9);
+        assertEquals(1.0, cache.solvedHitRate(), 1e-9);
+    }
+
+    @Test
+    void testAsymmetricEvaluationDoesNotDependOnFirstImage() {
+        // Depends on where the discs are, so differs between images
+        Evaluator evaluator = (own, opp) -> Long.numberOfTrailingZeros(own) * 100 + Long.bitCount(opp & 0xFFL);
+        for (long[] position : randomPositions(new SplittableRandom(13), 50)) {
+            int s = Symmetry.canonical(position[0], position[1]);
+            int expected = evaluator.evaluate(Symmetry.apply(position[0], s), Symmetry.apply(position[1], s));
+            for (int first = 0; first < Symmetry.COUNT; first++) {
+                PositionCache cache = new PositionCache(1);
+                assertEquals(expected, cache.evaluate(evaluator,
+                        Symmetry.apply(position[0], first), Symmetry.apply(position[1], first)));
+                for (int t = 0; t < Symmetry.COUNT; t++) {
+                    assertEquals(expected, cache.evaluate(evaluator,
+                            Symmetry.apply(position[0], t), Symmetry.apply(position[1], t)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        PositionCache cache = new PositionCache(1);
+        Evaluator evaluator = new HeuristicEvaluator();
+        long[][] positions = randomPositions(new SplittableRandom(9), 4 * cache.capacity());
+        for (long[] position : positions) {
+            cache.evaluate(evaluator, position[0], position[1]);
+        }
+        assertTrue(cache.getEvictions() > 0);
+        // Recent entries survive, and whatever is found is right
+        int recentHits = 0;
+        for (int i = positions.length - 1000; i < positions.length; i++) {
+            int score = cache.evaluation(positions[i][0], positions[i][1]);
+            if (score != PositionCache.NO_EVALUATION) {
+                recentHits++;
+                assertEquals(evaluator.evaluate(positions[i][0], positions[i][1]), score);
+            }
+        }
+        assertTrue(recentHits > 900, "recent hits " + recentHits);
+    }
+
+    @Test
+    void testSharedBetweenThreads() throws InterruptedException {
+        PositionCache cache = new PositionCache(1);
+        Evaluator evaluator = new HeuristicEvaluator();
+        long[][] positions = randomPositions(new SplittableRandom(11), 2000);
+        Thread[] threads = new Thread[4];
+        boolean[] wrong = new boolean[1];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 5; round++) {
+                    for (long[] position : positions) {
+                        if (cache.evaluate(evaluator, position[0], position[1])
+                                != evaluator.evaluate(position[0], position[1])) {
+                            wrong[0] = true;
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertFalse(wrong[0]);
+        assertTrue(cache.evaluationHitRate() > 0.7);
+    }
+
+    @Test
+    void testEngineReusesSolvedPositions() {
+        PositionCache cache = new PositionCache(1);
+        OthelloModel model = OthelloModel.fromString(
+                "OOOOOOX-XXXOXOXOXXOXXXOOXOXXXXOO-OOOXXOO-OOOXX--XOXXX-----X-X--- X");
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+        SearchEngine first = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(1));
+        first.setPositionCache(cache);
+        int move = first.findBestMove(own, opp, 10_000);
+
+        // Another engine, a mirror image of the position: answered from the cache
+        SearchEngine second = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(1));
+        second.setPositionCache(cache);
+        int mirroredMove = second.findBestMove(Symmetry.apply(own, 2), Symmetry.apply(opp, 2), 10_000);
+        assertEquals(Symmetry.square(move, 2), mirroredMove);
+        assertEquals(first.getBestScore(), second.getBestScore());
+        assertEquals(0, second.getNodes());
+        assertEquals(1, cache.getSolvedHits());
+    }
+
+    @Test
+    void testEngineIgnoresIllegalCachedMove() {
+        PositionCache cache = new PositionCache(1);
+        OthelloModel model = OthelloModel.fromString(
+                "OOOOOOX-XXXOXOXOXXOXXXOOXOXXXXOO-OOOXXOO-OOOXX--XOXXX-----X-X--- X");
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+        // What a key collision would look like: a result whose move is occupied
+        cache.putSolved(own, opp, 64, 0);
+        SearchEngine engine = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(1));
+        engine.setPositionCache(cache);
+        int move = engine.findBestMove(own, opp, 10_000);
+        assertTrue((Bitboard.legalMoves(own, opp) & 1L << move) != 0);
+        assertTrue(engine.getNodes() > 0);
+    }
+
+    // Positions from random games, with the side to move first
+    private static long[][] randomPositions(SplittableRandom random, int count) {
+        long[][] positions = new long[count][];
+        int n = 0;
+        while (n < count) {
+            long own = Bitboard.INITIAL_BLACK;
+            long opp = Bitboard.INITIAL_WHITE;
+            while (n < count) {
+                long moves = Bitboard.legalMoves(own, opp);
+                if (moves == 0) break;
+                positions[n++] = new long[]{own, opp};
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < pick; i++) moves &= moves - 1;
+                int sq = Long.numberOfTrailingZeros(moves);
+                long flipped = Bitboard.flips(own, opp, sq);
+                long next = opp & ~flipped;
+                opp = own | flipped | (1L << sq);
+                own = next;
+            }
+        }
+        return positions;
+    }
+}
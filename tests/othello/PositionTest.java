@@ -0,0 +1,135 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    @Test
+    void testPlayMatchesModel() {
+        Random random = new Random(3);
+        for (int game = 0; game < 50; game++) {
+            OthelloModel model = new OthelloModel();
+            Position position = Position.INITIAL;
+            while (!model.isGameOver()) {
+                long valid = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(valid));
+                for (int j = 0; j < pick; j++) valid &= valid - 1;
+                int move = Long.numberOfTrailingZeros(valid);
+
+                Position before = position;
+                position = position.play(move);
+                model.makeMove(move);
+                assertEquals(model.getPosition(), position);
+                assertEquals(model.getValidMoves(), position.getValidMoves());
+                assertEquals(model.getHash(), position.getHash());
+                assertEquals(model.getCanonicalHash(), position.getCanonicalHash());
+                assertEquals(model.toString(), position.toString());
+                // The old position is untouched
+                assertNotEquals(before, position);
+                assertEquals(Long.bitCount(before.getBlackDiscs() | before.getWhiteDiscs()) + 1,
+                        position.getBlackCount() + position.getWhiteCount());
+            }
+            assertTrue(position.isGameOver());
+            assertEquals(0, position.getValidMoves());
+        }
+    }
+
+    @Test
+    void testFactories() {
+        Position position = Position.fromString(
+                "-X-X-----OXXX-----OXOO----XXO-----OOOOO--OOO-O---OOXXX---O------ O");
+        assertEquals(position, Position.fromString(position.toString()));
+        assertEquals(position.hashCode(), Position.fromString(position.toString()).hashCode());
+        int[][] cells = new int[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) cells[row][col] = position.getPiece(row, col);
+        }
+        assertEquals(position, Position.fromArray(cells, OthelloModel.WHITE));
+        assertEquals(position, Position.of(position.getBlackDiscs(), position.getWhiteDiscs(), OthelloModel.WHITE));
+        assertEquals(position.getWhiteDiscs(), position.getOwnDiscs());
+        assertEquals(Position.INITIAL, new OthelloModel().getPosition());
+
+        assertThrows(IllegalArgumentException.class, () -> Position.of(1L, 1L, OthelloModel.BLACK));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(1L, 2L, 2));
+        assertThrows(IllegalArgumentException.class, () -> Position.fromArray(new int[6][6], OthelloModel.BLACK));
+        cells[0][0] = 5;
+        assertThrows(IllegalArgumentException.class, () -> Position.fromArray(cells, OthelloModel.BLACK));
+        assertThrows(IllegalArgumentException.class, () -> Position.fromString("------ X"));
+        assertThrows(IllegalArgumentException.class, () -> Position.INITIAL.play(0));
+        assertThrows(IllegalArgumentException.class, () -> Position.INITIAL.play(8, 0));
+    }
+
+    @Test
+    void testModelWrapsPositions() {
+        Position position = Position.INITIAL.play(2, 3).play(2, 2);
+        OthelloModel model = new OthelloModel(position);
+        assertEquals(position, model.getPosition());
+        assertEquals(position.toString(), model.toString());
+        model.makeMove(3, 2);
+        assertEquals(position.play(3, 2), model.getPosition());
+        model.setPosition(position);
+        assertEquals(position.getHash(), model.getHash());
+        assertEquals(OthelloModel.fromString(position.toString()).getPosition(), position);
+
+        // Searching a snapshot leaves the model alone
+        Position snapshot = model.getPosition();
+        model.makeMove(3, 2);
+        int move = model.computeBestMoveIndex(snapshot, 50);
+        assertTrue((snapshot.getValidMoves() & (1L << move)) != 0);
+        assertEquals(position.play(3, 2), model.getPosition());
+    }
+
+    @Test
+    void testSharedBetweenThreads() throws Exception {
+        // Every thread expands the same positions; nothing is copied or locked
+        List<Position> frontier = new ArrayList<>();
+        frontier.add(Position.INITIAL);
+        for (int ply = 0; ply < 4; ply++) {
+            List<Position> next = new ArrayList<>();
+            for (Position p : frontier) {
+                for (long moves = p.getValidMoves(); moves != 0; moves &= moves - 1) {
+                    next.add(p.play(Long.numberOfTrailingZeros(moves)));
+                }
+            }
+            frontier = next;
+        }
+        List<Position> leaves = frontier;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Set<Position>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    Set<Position> children = new HashSet<>();
+                    for (Position p : leaves) {
+                        for (long moves = p.getValidMoves(); moves != 0; moves &= moves - 1) {
+                            children.add(p.play(Long.numberOfTrailingZeros(moves)));
+                        }
+                    }
+                    return children;
+                }));
+            }
+            Set<Position> first = results.get(0).get();
+            // perft(5) is 1396; transpositions collapse in the set
+            int total = 0;
+            for (Position p : leaves) total += Long.bitCount(p.getValidMoves());
+            assertEquals(1396, total);
+            assertTrue(first.size() < total);
+            for (Future<Set<Position>> result : results) {
+                assertEquals(first, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbCutTest {
+
+    @Test
+    void testCalibrationFitsAndRoundTrips() throws Exception {
+        ProbCut probCut = calibrated(5);
+        // Deeper scores track shallow ones closely in the midgame
+        int stage = ProbCut.stage(30);
+        assertTrue(probCut.has(stage, 5, 0));
+        assertTrue(probCut.getSlope(stage, 5, 0) > 0.5 && probCut.getSlope(stage, 5, 0) < 1.5);
+        assertTrue(probCut.getSigma(stage, 5, 0) > 0);
+        // Heights beyond the calibrated depth borrow parameters of the same parity
+        assertTrue(probCut.has(stage, 9, ProbCut.checks(9) - 1));
+
+        Path file = Files.createTempFile("probcut", ".txt");
+        try {
+            probCut.write(file);
+            ProbCut loaded = ProbCut.load(file);
+            assertEquals(probCut.getSamples(stage, 5, 0), loaded.getSamples(stage, 5, 0));
+            assertEquals(probCut.getSigma(stage, 5, 0), loaded.getSigma(stage, 5, 0), 0.01);
+            assertEquals(probCut.getSigma(stage, 9, 0), loaded.getSigma(stage, 9, 0), 0.01);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testProbCutPrunesSearch() throws Exception {
+        ProbCut probCut = calibrated(5);
+        OthelloModel model = OthelloModel.fromString(
+                "--XXXX----XXXO--OOOXOXO-OOXOXXXXOOOXXXX-OOXOXX----OXOX-----OOOO- X");
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+
+        SearchEngine plain = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(4));
+        plain.searchToDepth(own, opp, 7);
+        SearchEngine selective = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(4));
+        selective.setProbCut(probCut);
+        int move = selective.searchToDepth(own, opp, 7);
+        assertTrue((model.getValidMoves() & (1L << move)) != 0);
+        assertTrue(selective.getProbCuts() > 0);
+        assertTrue(selective.getNodes() < plain.getNodes());
+
+        // A huge threshold never cuts: same tree as plain alpha-beta
+        probCut.setThreshold(1e6);
+        selective.getTable().clear();
+        selective.searchToDepth(own, opp, 7);
+        assertEquals(0, selective.getProbCuts());
+        assertEquals(plain.getBestScore(), selective.getBestScore());
+    }
+
+    @Test
+    void testRejectsBadParameters() throws Exception {
+        Path file = Files.createTempFile("probcut", ".txt");
+        try {
+            Files.writeString(file, "0 5 2 1.0 0.0 30.0 100\n");
+            assertThrows(IllegalArgumentException.class, () -> ProbCut.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ProbCut().setThreshold(0));
+    }
+
+    private static ProbCut calibrated(int depth) throws Exception {
+        Path samples = Files.createTempFile("samples", ".bin");
+        try {
+            Trainer.generate(samples, false, 20, 1, 3, 0, 0);
+            long[][] positions = ProbCutCalibrator.sample(samples, 200, depth);
+            return ProbCutCalibrator.calibrate(positions[0], positions[1], depth, new HeuristicEvaluator(), 1);
+        } finally {
+            Files.deleteIfExists(samples);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchEngineTest {
+
+    @Test
+    void testBestMoveIsLegal() {
+        OthelloModel model = new OthelloModel();
+        int[] move = model.computeBestMove(50);
+        assertTrue(model.isValidMove(move[0], move[1]));
+    }
+
+    @Test
+    void testFixedDepthIgnoresEndgameSolver() {
+        OthelloModel model = OthelloModel.fromString(
+                "OOOOOOX-XXXOXOXOXXOXXXOOXOXXXXOO-OOOXXOO-OOOXX--XOXXX-----X-X--- X");
+        long own = model.getBlackDiscs();
+        long opp = model.getWhiteDiscs();
+        int empties = 64 - Long.bitCount(own | opp);
+        SearchEngine engine = new SearchEngine();
+        assertTrue(empties <= engine.getEndgameEmpties());
+
+        engine.searchToDepth(own, opp, 2);
+        assertEquals(2, engine.getCompletedDepth());
+        engine.searchToDepth(own, opp, empties);
+        assertEquals(empties, engine.getCompletedDepth());
+    }
+
+    @Test
+    void testNoMoveWhenPlayerMustPass() {
+        SearchEngine engine = new SearchEngine();
+        // Own disc surrounded only by empties: nothing to flip
+        assertEquals(SearchEngine.NO_MOVE, engine.findBestMove(1L, 1L << 63, 50L));
+    }
+
+    @Test
+    void testPrefersWipeout() {
+        // Black at (3,2) captures both white discs and ends the game; (2,3)
+        // only captures one of them
+        OthelloModel model = new OthelloModel(Position.fromArray(new int[][] {
+                {0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, -1, -1, 1, 0, 0},
+                {0, 0, 0, 1, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0}
+        }, OthelloModel.BLACK));
+        assertTrue(model.isValidMove(2, 3));
+
+        SearchEngine engine = new SearchEngine();
+        int move = engine.searchToDepth(model.getBlackDiscs(), model.getWhiteDiscs(), 1);
+        assertEquals(3 * 8 + 2, move);
+        assertEquals(SearchEngine.WIN_SCORE + 5, engine.getBestScore());
+    }
+
+    @Test
+    void testAlphaBetaMatchesMinimax() {
+        Random random = new Random(7);
+        SearchEngine engine = new SearchEngine();
+        Evaluator evaluator = new HeuristicEvaluator();
+        for (int game = 0; game < 20; game++) {
+            OthelloModel model = new OthelloModel();
+            int plies = 10 + random.nextInt(40);
+            for (int i = 0; i < plies && !model.isGameOver(); i++) {
+                long moves = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int j = 0; j < pick; j++) moves &= moves - 1;
+                int sq = Long.numberOfTrailingZeros(moves);
+                model.makeMove(sq / 8, sq % 8);
+            }
+            if (model.isGameOver()) continue;
+
+            long own = model.getCurrentPlayer() == OthelloModel.BLACK ? model.getBlackDiscs() : model.getWhiteDiscs();
+            long opp = model.getCurrentPlayer() == OthelloModel.BLACK ? model.getWhiteDiscs() : model.getBlackDiscs();
+            int move = engine.searchToDepth(own, opp, 3);
+            assertTrue((model.getValidMoves() & (1L << move)) != 0);
+            if (Long.bitCount(model.getValidMoves()) > 1 && engine.getCompletedDepth() == 3) {
+                assertEquals(minimax(evaluator, own, opp, 3), engine.getBestScore());
+            }
+        }
+    }
+
+    @Test
+    void testParallelSearchMatchesSingleThreadedScore() {
+        Random random = new Random(5);
+        long[][] positions = new long[6][];
+        for (int p = 0; p < positions.length; p++) {
+            OthelloModel model = new OthelloModel();
+            for (int i = 0; i < 16; i++) {
+                long moves = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int j = 0; j < pick; j++) moves &= moves - 1;
+                model.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+            boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+            positions[p] = new long[]{
+                    blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs(),
+                    blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs()
+            };
+        }
+
+        SearchEngine engine = new SearchEngine();
+        for (ParallelSearch.Mode mode : ParallelSearch.Mode.values()) {
+            try (ParallelSearch search = new ParallelSearch(3, mode)) {
+                for (long[] position : positions) {
+                    engine.getTable().clear();
+                    engine.searchToDepth(position[0], position[1], 5);
+                    int move = search.searchToDepth(position[0], position[1], 5);
+                    assertTrue((Bitboard.legalMoves(position[0], position[1]) & (1L << move)) != 0);
+                    assertEquals(5, search.getCompletedDepth());
+                    if (mode == ParallelSearch.Mode.ROOT_SPLIT) {
+                        assertEquals(engine.getBestScore(), search.getBestScore());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testStatsMatchEngineCounters() {
+        long[] position = midgame();
+        SearchEngine engine = new SearchEngine(new HeuristicEvaluator());
+        SearchStats stats = new SearchStats();
+        engine.setStats(stats);
+        int move = engine.searchToDepth(position[0], position[1], 7);
+
+        assertFalse(stats.isSearching());
+        assertEquals(1, stats.getMoves());
+        assertEquals(engine.getNodes(), stats.getNodes());
+        assertEquals(engine.getTableProbes(), stats.getTableProbes());
+        assertEquals(engine.getTableHits(), stats.getTableHits());
+        assertEquals(engine.getTableCollisions(), stats.getTableCollisions());
+        assertEquals(engine.getCutoffs(), stats.getCutoffs());
+        assertTrue(stats.getCutoffs() > 0);
+        assertTrue(stats.getFirstMoveCutoffs() > 0);
+        assertEquals(7, stats.getDepth());
+        assertEquals(move, stats.getBestMove());
+        assertEquals(engine.getBestScore(), stats.getScore());
+
+        // Detached: counters still run, stats stay as they were
+        engine.setStats(null);
+        engine.searchToDepth(position[0], position[1], 5);
+        assertEquals(1, stats.getMoves());
+        assertTrue(engine.getNodes() > 0);
+    }
+
+    @Test
+    void testParallelStatsCountEveryThread() {
+        long[] position = midgame();
+        SearchStats stats = new SearchStats();
+        for (ParallelSearch.Mode mode : ParallelSearch.Mode.values()) {
+            try (ParallelSearch search = new ParallelSearch(3, mode, new HeuristicEvaluator(),
+                    new TranspositionTable(4))) {
+                search.setStats(stats);
+                int move = search.searchToDepth(position[0], position[1], 5);
+                assertEquals(search.getCompletedDepth(), stats.getDepth());
+                assertEquals(move, stats.getBestMove());
+                assertTrue(stats.getNodes() > 0);
+                if (mode == ParallelSearch.Mode.ROOT_SPLIT) {
+                    assertEquals(search.getNodes(), stats.getNodes());
+                }
+            }
+        }
+        assertEquals(2, stats.getMoves());
+    }
+
+    // Side to move's and opponent's discs after 20 random plies
+    @Test
+    void testCountsCollisionsOnlyWhenRead() {
+        long[] position = midgame();
+        // A small table, so that positions share buckets
+        SearchEngine engine = new SearchEngine(new HeuristicEvaluator(), new TranspositionTable(1));
+        engine.searchToDepth(position[0], position[1], 8);
+        assertEquals(0, engine.getTableCollisions());
+        long nodes = engine.getNodes();
+
+        engine.getTable().clear();
+        engine.setStats(new SearchStats());
+        engine.searchToDepth(position[0], position[1], 8);
+        assertTrue(engine.getTableCollisions() > 0);
+        assertEquals(nodes, engine.getNodes());
+    }
+
+    private static long[] midgame() {
+        Random random = new Random(11);
+        OthelloModel model = new OthelloModel();
+        for (int i = 0; i < 20; i++) {
+            long moves = model.getValidMoves();
+            int pick = random.nextInt(Long.bitCount(moves));
+            for (int j = 0; j < pick; j++) moves &= moves - 1;
+            model.makeMove(Long.numberOfTrailingZeros(moves));
+        }
+        boolean blackToMove = model.getCurrentPlayer() == OthelloModel.BLACK;
+        return new long[]{
+                blackToMove ? model.getBlackDiscs() : model.getWhiteDiscs(),
+                blackToMove ? model.getWhiteDiscs() : model.getBlackDiscs()
+        };
+    }
+
+    private static int minimax(Evaluator evaluator, long own, long opp, int depth) {
+        long moves = Bitboard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (Bitboard.legalMoves(opp, own) == 0) return SearchEngine.finalScore(own, opp);
+            return -minimax(evaluator, opp, own, depth);
+        }
+        if (depth == 0) return evaluator.evaluate(own, opp);
+        int best = Integer.MIN_VALUE;
+        while (moves != 0) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            long flipped = Bitboard.flips(own, opp, sq);
+            best = Math.max(best, -minimax(evaluator, opp & ~flipped, own | flipped | (1L << sq), depth - 1));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,89 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    @Test
+    void testPlaysEveryGame() throws InterruptedException {
+        Tournament tournament = new Tournament(MoveStrategy.factory("greedy"), MoveStrategy.factory("random:7"), 2);
+        Tournament.Result result = tournament.play(10, 4, 42);
+        assertEquals(20, result.games());
+        assertTrue(result.score() >= 0 && result.score() <= 1);
+    }
+
+    @Test
+    void testSearchBeatsRandom() throws InterruptedException {
+        Tournament tournament = new Tournament(MoveStrategy.factory("depth:3"), MoveStrategy.factory("random:7"), 1);
+        Tournament.Result result = tournament.play(10, 2, 1);
+        assertTrue(result.score() > 0.5, "score " + result.score());
+    }
+
+    @Test
+    void testOpeningStopsAtGameOver() throws InterruptedException {
+        // No game lasts 70 plies, so every opening ends the game early
+        for (long seed = 0; seed < 20; seed++) {
+            int[] opening = Tournament.randomOpening(new SplittableRandom(seed), 70);
+            assertTrue(opening.length <= 60);
+            OthelloModel model = new OthelloModel();
+            for (int move : opening) {
+                assertFalse(model.isGameOver());
+                model.makeMove(move);
+            }
+            assertTrue(model.isGameOver());
+        }
+        Tournament.Result result = new Tournament(MoveStrategy.factory("greedy"), MoveStrategy.factory("greedy"), 1)
+                .play(2, 70, 3);
+        assertEquals(4, result.games());
+    }
+
+    @Test
+    void testRepeatedPlayStartsFromZero() throws InterruptedException {
+        Tournament tournament = new Tournament(MoveStrategy.factory("greedy"), MoveStrategy.factory("random:7"), 2);
+        Tournament.Result first = tournament.play(5, 4, 1);
+        Tournament.Result second = tournament.play(5, 4, 1);
+        assertEquals(10, first.games());
+        assertEquals(10, second.games());
+    }
+
+    @Test
+    void testInterruptIsThrown() {
+        Tournament tournament = new Tournament(MoveStrategy.factory("depth:6"), MoveStrategy.factory("depth:6"), 1);
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> tournament.play(50, 2, 1));
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void testRandomInstancesDrawDifferentMoves() {
+        java.util.function.Supplier<MoveStrategy> factory = MoveStrategy.factory("random:7");
+        MoveStrategy first = factory.get();
+        MoveStrategy second = factory.get();
+        boolean differ = false;
+        for (int game = 0; game < 20 && !differ; game++) {
+            OthelloModel model = new OthelloModel();
+            while (!model.isGameOver() && !differ) {
+                int move = first.chooseMove(model);
+                differ = move != second.chooseMove(model);
+                model.makeMove(move);
+            }
+        }
+        assertTrue(differ);
+    }
+
+    @Test
+    void testRejectsMissingOptionValue() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Tournament.main(new String[]{"--threads", "1", "--games"}));
+        assertEquals("Missing value for --games", e.getMessage());
+    }
+
+    @Test
+    void testRejectsUnknownStrategy() {
+        assertThrows(IllegalArgumentException.class, () -> MoveStrategy.factory("minimax"));
+    }
+}
@@ -0,0 +1,81 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrainerTest {
+
+    @Test
+    void testSampleFileRoundTrip() throws IOException {
+        Path file = Files.createTempFile("samples", ".bin");
+        try {
+            try (SampleFile.Writer writer = new SampleFile.Writer(file, false)) {
+                for (int i = 0; i < 100_000; i++) {
+                    writer.write(i, -i, i % 129 - 64);
+                }
+            }
+            assertEquals(100_000, SampleFile.count(file));
+
+            int read = 0;
+            try (SampleFile.Reader reader = new SampleFile.Reader(file)) {
+                while (reader.next()) {
+                    assertEquals(read, reader.own());
+                    assertEquals(-read, reader.opp());
+                    assertEquals(read % 129 - 64, reader.score());
+                    read++;
+                }
+            }
+            assertEquals(100_000, read);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testGeneratedGamesFitToLoadableWeights() throws IOException {
+        Path samples = Files.createTempFile("samples", ".bin");
+        Path weights = Files.createTempFile("weights", ".bin");
+        try {
+            long count = Trainer.generate(samples, false, 4, 1, 3, 8, 0);
+            assertEquals(count, SampleFile.count(samples));
+            assertTrue(count >= 4 * 50);
+
+            PatternEvaluator.write(weights, Trainer.fit(samples, 2, 1, 0.02, false));
+            PatternEvaluator evaluator = PatternEvaluator.load(weights);
+            assertEquals(2, evaluator.getPhases());
+        } finally {
+            Files.delete(samples);
+            Files.delete(weights);
+        }
+    }
+
+    @Test
+    void testGameOverBeforeExactEmptiesLabelsFinalResult() {
+        // Black a1 and c1, white b1 and a2, black to move: three forced moves,
+        // then black has all 7 discs
+        long black = 1L | 1L << 2;
+        long white = 1L << 1 | 1L << 8;
+        for (int exact : new int[]{0, 14}) {
+            long[] game = new Trainer.GameGenerator(exact, 0).play(new SplittableRandom(1), black, white);
+            assertEquals(3 * 3, game.length);
+            for (int i = 0; i < game.length; i += 3) {
+                boolean blackToMove = (game[i] & 1L) != 0;
+                assertEquals(blackToMove ? 7 : -7, game[i + 2], "sample " + i / 3 + ", exact " + exact);
+            }
+        }
+    }
+
+    @Test
+    void testMissingOptionValueIsReported() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Trainer.main(new String[]{"generate", "--games", "10", "--out"}));
+        assertEquals("Missing value for --out", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class,
+                () -> ProbCutCalibrator.main(new String[]{"--data", "samples.bin", "--threads"}));
+        assertEquals("Missing value for --threads", e.getMessage());
+    }
+}
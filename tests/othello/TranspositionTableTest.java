@@ -0,0 +1,68 @@
+package othello;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(12345L, 7, TranspositionTable.LOWER_BOUND, -4200, 37);
+
+        long entry = table.probe(12345L);
+        assertNotEquals(0, entry);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(-4200, TranspositionTable.score(entry));
+        assertEquals(37, TranspositionTable.move(entry));
+
+        assertEquals(0, table.probe(54321L));
+    }
+
+    @Test
+    void testNoMoveRoundTrips() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(99L, 0, TranspositionTable.EXACT, SearchEngine.WIN_SCORE + 3, SearchEngine.NO_MOVE);
+        long entry = table.probe(99L);
+        assertEquals(SearchEngine.NO_MOVE, TranspositionTable.move(entry));
+        assertEquals(SearchEngine.WIN_SCORE + 3, TranspositionTable.score(entry));
+    }
+
+    @Test
+    void testDeepEntrySurvivesShallowStores() {
+        TranspositionTable table = new TranspositionTable(1);
+        int stride = table.capacity();
+        // Same bucket: keys that differ only above the index bits
+        table.store(2L, 10, TranspositionTable.EXACT, 1, 1);
+        table.store(2L + stride, 2, TranspositionTable.EXACT, 2, 2);
+        table.store(2L + 2L * stride, 3, TranspositionTable.EXACT, 3, 3);
+
+        assertEquals(10, TranspositionTable.depth(table.probe(2L)));
+        assertEquals(3, TranspositionTable.depth(table.probe(2L + 2L * stride)));
+        assertEquals(0, table.probe(2L + stride));
+        // That miss found other positions in the bucket; an empty bucket is no collision
+        assertTrue(table.isOccupied(2L + stride));
+        assertFalse(table.isOccupied(4L));
+    }
+
+    @Test
+    void testModelHashIsIncremental() {
+        Random random = new Random(3);
+        for (int game = 0; game < 50; game++) {
+            OthelloModel model = new OthelloModel();
+            while (!model.isGameOver()) {
+                long expected = Zobrist.hash(model.getBlackDiscs(), model.getWhiteDiscs(),
+                        model.getCurrentPlayer() == OthelloModel.WHITE);
+                assertEquals(expected, model.getHash());
+
+                long moves = model.getValidMoves();
+                int pick = random.nextInt(Long.bitCount(moves));
+                for (int i = 0; i < pick; i++) moves &= moves - 1;
+                int sq = Long.numberOfTrailingZeros(moves);
+                model.makeMove(sq / 8, sq % 8);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package othello;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// MoveKernel with one position per long lane of jdk.incubator.vector: the
+// same shift-and-mask walks as Bitboard.legalMoves, eight directions at a
+// time, with leftover positions done by ScalarMoveKernel. Flip counts walk
+// each ray out from the move and keep it when it ends on an own disc, since
+// FlipTable's lookups do not vectorize; the popcount is done with shifts and
+// adds because the JDK 17 API has no lanewise bit count. With 512-bit vectors
+// legal moves run at about three times the scalar rate, while flip counts
+// only keep pace with FlipTable (see MoveKernelBenchmark).
+//
+// Only MoveKernel.get() should load this class: it needs the incubator
+// module at compile time and at run time, so it lives in its own source root,
+// compiled against src with --add-modules jdk.incubator.vector.
+final class VectorMoveKernel implements MoveKernel {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // Ints with as many lanes as LONGS, for the squares and counts
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(Math.max(64, LONGS.vectorBitSize() / 2)));
+
+    // Direction shifts, as in Bitboard, and the mask that drops squares that
+    // wrapped around the left or right edge
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] MASKS = {
+            Bitboard.NOT_COL_0, Bitboard.NOT_COL_7, -1L, -1L,
+            Bitboard.NOT_COL_0, Bitboard.NOT_COL_7, Bitboard.NOT_COL_0, Bitboard.NOT_COL_7
+    };
+
+    // True when the CPU has vectors of at least two longs
+    public static boolean isSupported() {
+        return LONGS.length() >= 2 && INTS.length() == LONGS.length();
+    }
+
+    @Override
+    public void legalMoves(long[] own, long[] opp, long[] moves, int count) {
+        int i = 0;
+        for (int bound = LONGS.loopBound(count); i < bound; i += LONGS.length()) {
+            LongVector o = LongVector.fromArray(LONGS, own, i);
+            LongVector p = LongVector.fromArray(LONGS, opp, i);
+            LongVector found = LongVector.zero(LONGS);
+            for (int d = 0; d < SHIFTS.length; d++) {
+                LongVector mask = LongVector.broadcast(LONGS, MASKS[d]);
+                LongVector q = p.and(mask);
+                LongVector t = q.and(shift(o, SHIFTS[d]));
+                for (int step = 0; step < 5; step++) {
+                    t = t.or(q.and(shift(t, SHIFTS[d])));
+                }
+                found = found.or(shift(t, SHIFTS[d]).and(mask));
+            }
+            found.and(o.or(p).not()).intoArray(moves, i);
+        }
+        for (; i < count; i++) {
+            moves[i] = Bitboard.legalMoves(own[i], opp[i]);
+        }
+    }
+
+    @Override
+    public void flipCounts(long[] own, long[] opp, int[] squares, int[] counts, int count) {
+        int i = 0;
+        LongVector one = LongVector.broadcast(LONGS, 1L);
+        for (int bound = LONGS.loopBound(count); i < bound; i += LONGS.length()) {
+            LongVector o = LongVector.fromArray(LONGS, own, i);
+            LongVector p = LongVector.fromArray(LONGS, opp, i);
+            IntVector sq = IntVector.fromArray(INTS, squares, i);
+            VectorMask<Long> onBoard = sq.compare(VectorOperators.GE, 0)
+                    .and(sq.compare(VectorOperators.LT, 64)).cast(LONGS);
+            LongVector squareBits = (LongVector) sq.convertShape(VectorOperators.I2L, LONGS, 0);
+            // Not a square, or occupied: no move bit, so nothing flips
+            LongVector move = one.lanewise(VectorOperators.LSHL, squareBits)
+                    .and(o.or(p).not())
+                    .blend(0L, onBoard.not());
+
+            LongVector flipped = LongVector.zero(LONGS);
+            for (int d = 0; d < SHIFTS.length; d++) {
+                LongVector mask = LongVector.broadcast(LONGS, MASKS[d]);
+                LongVector q = p.and(mask);
+                LongVector t = q.and(shift(move, SHIFTS[d]));
+                for (int step = 0; step < 5; step++) {
+                    t = t.or(q.and(shift(t, SHIFTS[d])));
+                }
+                // The run of opponent discs counts if an own disc closes it:
+                // (end | -end) >> 63 is all ones exactly when end != 0
+                LongVector end = shift(t, SHIFTS[d]).and(mask).and(o);
+                flipped = flipped.or(t.and(end.or(end.neg()).lanewise(VectorOperators.ASHR, 63)));
+            }
+            ((IntVector) bitCount(flipped).convertShape(VectorOperators.L2I, INTS, 0)).intoArray(counts, i);
+        }
+        for (; i < count; i++) {
+            int sq = squares[i];
+            counts[i] = sq >= 0 && sq < 64 ? Long.bitCount(Bitboard.flips(own[i], opp[i], sq)) : 0;
+        }
+    }
+
+    private static LongVector shift(LongVector v, int n) {
+        return n > 0 ? v.lanewise(VectorOperators.LSHL, n) : v.lanewise(VectorOperators.LSHR, -n);
+    }
+
+    private static LongVector bitCount(LongVector x) {
+        x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+        x = x.and(0x3333333333333333L).add(x.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F0F0F0F0F0F0FL);
+        x = x.add(x.lanewise(VectorOperators.LSHR, 8));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 16));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 32));
+        return x.and(0x7FL);
+    }
+
+    @Override
+    public String name() {
+        return "vector " + LONGS.length() + "x64";
+    }
+}